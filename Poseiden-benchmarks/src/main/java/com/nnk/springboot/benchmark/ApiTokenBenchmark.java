@@ -0,0 +1,86 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.service.ApiTokenService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH du coût d'authentification d'un appel : vérification d'un jeton signé de
+ * {@link ApiTokenService} contre la lecture du contexte de sécurité en session, ce que fait
+ * chaque appel d'un client connecté par formulaire ({@link HttpSessionSecurityContextRepository}).
+ * Le BCrypt de la connexion n'est payé qu'une fois dans les deux cas ; la session en mémoire
+ * par client, qu'évite le jeton, n'est pas mesurée ici.
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=ApiTokenBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ApiTokenBenchmark {
+
+    private ApiTokenService apiTokenService;
+
+    private String token;
+
+    private HttpSessionSecurityContextRepository securityContextRepository;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated("Joe", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        apiTokenService = new ApiTokenService("0123456789abcdef0123456789abcdef".getBytes(), Duration.ofHours(1),
+                Clock.systemUTC());
+        token = apiTokenService.issue(authentication).token();
+
+        securityContextRepository = new HttpSessionSecurityContextRepository();
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(authentication));
+        request = new MockHttpServletRequest();
+        request.setSession(session);
+    }
+
+    /**
+     * Authentification d'un appel par jeton : un HMAC-SHA256, sans base ni session.
+     */
+    @Benchmark
+    public Optional<ApiTokenService.ApiToken> verifyToken() {
+        return apiTokenService.verify(token);
+    }
+
+    /**
+     * Authentification d'un appel par session : lecture du contexte de sécurité dans la session de la requête.
+     */
+    @Benchmark
+    public SecurityContext loadSessionContext() {
+        return securityContextRepository.loadDeferredContext(request).get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ApiTokenBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,35 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Démarre l'application Poseidon pour les benchmarks, sur une base H2 en mémoire.
+ *
+ * <p>Les propriétés sont passées comme arguments de ligne de commande pour primer sur
+ * l'{@code application.properties} de l'application (base MySQL, logs SQL). Le serveur
+ * web écoute sur un port aléatoire et les traitements planifiés restent désactivés.</p>
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @return le contexte de l'application démarrée
+     */
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:poseidon-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=warn",
+                "--logging.level.com.nnk.springboot=warn",
+                "--logging.file.name=target/benchmark.log");
+    }
+}
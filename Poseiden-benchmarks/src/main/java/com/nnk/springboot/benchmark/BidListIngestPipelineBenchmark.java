@@ -0,0 +1,127 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.service.BidListIngestPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la chaîne d'ingestion des enchères ({@link BidListIngestPipeline}) : huit producteurs
+ * soumettent chacun des rafales de 64 enchères, dont une invalide, et attendent leur enregistrement.
+ * La base est simulée par un dépôt qui prend 1 ms par lot : plus la charge monte, plus les lots sont grands.
+ *
+ * <p>À la fin, la taille moyenne et maximale des lots est affichée, et le benchmark échoue si une enchère
+ * invalide a été écrite.</p>
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=BidListIngestPipelineBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BidListIngestPipelineBenchmark {
+
+    private static final int BURST = 64;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BidListIngestPipeline pipeline;
+
+    private volatile boolean invalidSaved;
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new BidListIngestPipeline(slowRepository(), new NoOpTransactionManager(),
+                Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry, 1024, 256);
+        pipeline.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pipeline.stop();
+        var batches = meterRegistry.get("poseidon.bidlist.pipeline.batch").summary();
+        System.out.printf("%nBatches : %d, mean size %.1f, max size %.0f%n", batches.count(), batches.mean(), batches.max());
+        if (invalidSaved) {
+            throw new IllegalStateException("Invalid bid saved");
+        }
+    }
+
+    /**
+     * Soumet une rafale de 64 enchères, dont la dernière est invalide, et attend leur enregistrement.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void submitBurst() {
+        CompletableFuture<?>[] results = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            BidList bidList = new BidList(i == BURST - 1 ? "" : "Account", "Type", 10d);
+            CompletableFuture<BidList> result;
+            while ((result = pipeline.tryPublish(bidList, "trader")) == null) {
+                Thread.onSpinWait();
+            }
+            // Enchère invalide rendue en erreur
+            results[i] = result.exceptionally(error -> null);
+        }
+        CompletableFuture.allOf(results).join();
+    }
+
+    /**
+     * Dépôt dont seul {@code saveAll} est utilisé : 1 ms par lot, comme un aller-retour vers la base.
+     */
+    private BidListRepository slowRepository() {
+        return (BidListRepository) Proxy.newProxyInstance(BidListRepository.class.getClassLoader(),
+                new Class<?>[]{BidListRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("saveAll")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    List<BidList> bids = (List<BidList>) args[0];
+                    if (bids.stream().anyMatch(bidList -> bidList.getAccount().isEmpty())) {
+                        invalidSaved = true;
+                    }
+                    Thread.sleep(1);
+                    return bids;
+                });
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BidListIngestPipelineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.nnk.springboot.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.nnk.springboot.domain.Trade;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la journalisation d'un ajout de trade par le contrôleur : entité complète
+ * loguée en INFO par son {@code toString()} Lombok (ancienne version) contre événement structuré
+ * ne portant que l'identifiant, la demande n'étant loguée qu'en DEBUG (version actuelle), sur un
+ * appender synchrone ou asynchrone (configuration de {@code logback-spring.xml}).
+ *
+ * <p>Les événements sont formatés avec le motif de fichier puis écrits dans un flux vide : seul le
+ * coût côté application est mesuré. Avec {@code -prof gc}, JMH donne aussi l'allocation par requête.</p>
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=ControllerLoggingBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerLoggingBenchmark {
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private LoggerContext loggerContext;
+
+    private Logger logger;
+
+    private Trade trade;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m %kvp%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(loggerContext);
+        output.setEncoder(encoder);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.start();
+
+        Appender<ILoggingEvent> root = output;
+        if (appender.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(output);
+            async.start();
+            root = async;
+        }
+
+        ch.qos.logback.classic.Logger rootLogger = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.detachAndStopAllAppenders();
+        rootLogger.addAppender(root);
+        rootLogger.setLevel(Level.INFO);
+        logger = loggerContext.getLogger("com.nnk.springboot.controllers.TradeController");
+
+        trade = new Trade("Account 1", "Type", 150d);
+        trade.setId(42);
+        trade.setBuyPrice(10.5);
+        trade.setBenchmark("Benchmark");
+        trade.setTradeDate(LocalDateTime.now());
+        trade.setSecurity("Security");
+        trade.setStatus("Status");
+        trade.setTrader("Trader");
+        trade.setBook("Book");
+        trade.setCreationName("Creator");
+        trade.setCreationDate(LocalDateTime.now());
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    /**
+     * Ancienne version : demande et résultat logués en INFO avec l'entité complète.
+     */
+    @Benchmark
+    public void entityToString() {
+        logger.info("Request to add Trade: {}", trade);
+        logger.info("New trade added : {}", trade);
+    }
+
+    /**
+     * Version actuelle : demande en DEBUG (désactivé, accesseur non appelé), résultat en INFO avec l'identifiant.
+     */
+    @Benchmark
+    public void structured() {
+        logger.atDebug().setMessage("Request to add Trade").addKeyValue("account", trade::getAccount).log();
+        logger.atInfo().setMessage("New trade added").addKeyValue("id", trade::getId).log();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ControllerLoggingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,163 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.service.BidListService;
+import com.nnk.springboot.service.CrudService;
+import com.nnk.springboot.service.CurvePointService;
+import com.nnk.springboot.service.RatingService;
+import com.nnk.springboot.service.RuleNameService;
+import com.nnk.springboot.service.TradeService;
+import com.nnk.springboot.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark JMH des opérations {@link CrudService} de chaque entité, sur l'application
+ * complète (services, repositories, Hibernate) et une base H2 en mémoire.
+ *
+ * <p>Chaque entité est mesurée dans un fork distinct, après insertion de {@code rows} lignes.
+ * Les durées ne valent que pour comparer deux versions du code sur la même machine :
+ * la base en mémoire n'a ni réseau ni disque.</p>
+ *
+ * <p>Lancement : {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=CrudServiceBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrudServiceBenchmark {
+
+    @Param({"bidList", "curvePoint", "rating", "ruleName", "trade", "user"})
+    private String entity;
+
+    @Param({"100"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private CrudService<Object> service;
+
+    private IntFunction<Object> factory;
+
+    private int[] ids;
+
+    /**
+     * Compteur des entités créées, pour des valeurs uniques (nom d'utilisateur)
+     */
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ReflectiveOperationException {
+        context = BenchmarkApplication.start();
+        service = (CrudService<Object>) context.getBean(serviceType(entity));
+        factory = factory(entity);
+
+        ids = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = idOf(service.save(factory.apply(sequence.incrementAndGet())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Lecture de toutes les lignes, comme chaque page de liste.
+     */
+    @Benchmark
+    public List<Object> getAll() {
+        return service.getAll();
+    }
+
+    /**
+     * Lecture d'une ligne par identifiant, comme chaque formulaire de modification.
+     */
+    @Benchmark
+    public Object getById() {
+        return service.getById(randomId());
+    }
+
+    /**
+     * Mise à jour d'une ligne existante.
+     */
+    @Benchmark
+    public Object update() {
+        return service.update(randomId(), factory.apply(sequence.incrementAndGet()));
+    }
+
+    /**
+     * Création puis suppression d'une ligne, pour garder un volume constant.
+     */
+    @Benchmark
+    public void saveAndDelete() throws ReflectiveOperationException {
+        Object saved = service.save(factory.apply(sequence.incrementAndGet()));
+        service.delete(idOf(saved));
+    }
+
+    private int randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static Class<?> serviceType(String entity) {
+        return switch (entity) {
+            case "bidList" -> BidListService.class;
+            case "curvePoint" -> CurvePointService.class;
+            case "rating" -> RatingService.class;
+            case "ruleName" -> RuleNameService.class;
+            case "trade" -> TradeService.class;
+            case "user" -> UserService.class;
+            default -> throw new IllegalArgumentException("Unknown entity : " + entity);
+        };
+    }
+
+    /**
+     * Fabrique d'entités valides (contraintes de validation respectées) pour chaque type.
+     */
+    private static IntFunction<Object> factory(String entity) {
+        return switch (entity) {
+            case "bidList" -> i -> new BidList("Account " + i, "Type", 10.0 + i);
+            case "curvePoint" -> i -> new CurvePoint(i % 100 + 1, 1.0 + i, 2.5 * i);
+            case "rating" -> i -> new Rating("Aaa", "AAA", "AAA", i % 255 + 1);
+            case "ruleName" -> i -> new RuleName("Rule " + i, "Description",
+                    "{\"field\": \"buyQuantity\", \"op\": \"gt\", \"value\": 100}",
+                    "Trade {account} : {buyQuantity}", "select * from trade", "where buy_quantity > 100");
+            case "trade" -> i -> new Trade("Account " + i, "Type", 10.0 + i);
+            case "user" -> i -> new User("user" + i, "Abc123@!" + i, "User " + i, "USER");
+            default -> throw new IllegalArgumentException("Unknown entity : " + entity);
+        };
+    }
+
+    /**
+     * Les entités n'ont pas d'interface commune : l'identifiant est lu par son accesseur.
+     */
+    private static int idOf(Object saved) throws ReflectiveOperationException {
+        Method getId = saved.getClass().getMethod("getId");
+        return (Integer) getId.invoke(saved);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CrudServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
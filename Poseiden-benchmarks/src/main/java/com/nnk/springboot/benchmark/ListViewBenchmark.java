@@ -0,0 +1,134 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark JMH du rendu Thymeleaf des pages {@code list.html} de chaque entité avec {@code rows} lignes.
+ *
+ * <p>Les templates sont ceux de l'application, lus depuis son jar et mis en cache comme en production ;
+ * seul le rendu est mesuré, sans contrôleur ni base. Le contexte web est simulé pour que les
+ * liens {@code @{...}} soient résolus comme dans une vraie requête.</p>
+ *
+ * <p>Lancement : {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=ListViewBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListViewBenchmark {
+
+    @Param({"bidList", "curvePoint", "rating", "ruleName", "trade", "user"})
+    private String entity;
+
+    @Param({"10", "100", "1000"})
+    private int rows;
+
+    private SpringTemplateEngine templateEngine;
+
+    private WebContext context;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        MockServletContext servletContext = new MockServletContext();
+        IWebExchange exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(new MockHttpServletRequest(servletContext), new MockHttpServletResponse());
+        context = new WebContext(exchange, Locale.FRANCE);
+        context.setVariable("username", "benchmark");
+        context.setVariable(entity + "s", rows(entity, rows));
+    }
+
+    /**
+     * Rendu complet de la page de liste.
+     */
+    @Benchmark
+    public int render() {
+        StringWriter writer = new StringWriter(rows * 256);
+        templateEngine.process(entity + "/list", context, writer);
+        return writer.getBuffer().length();
+    }
+
+    private static List<Object> rows(String entity, int count) {
+        IntFunction<Object> factory = switch (entity) {
+            case "bidList" -> i -> {
+                BidList bidList = new BidList("Account " + i, "Type", 10.0 + i);
+                bidList.setId(i);
+                return bidList;
+            };
+            case "curvePoint" -> i -> {
+                CurvePoint curvePoint = new CurvePoint(i % 100 + 1, 1.0 + i, 2.5 * i);
+                curvePoint.setId(i);
+                return curvePoint;
+            };
+            case "rating" -> i -> {
+                Rating rating = new Rating("Aaa", "AAA", "AAA", i % 255 + 1);
+                rating.setId(i);
+                return rating;
+            };
+            case "ruleName" -> i -> {
+                RuleName ruleName = new RuleName("Rule " + i, "Description",
+                        "{\"field\": \"buyQuantity\", \"op\": \"gt\", \"value\": 100}",
+                        "Trade {account} : {buyQuantity}", "select * from trade", "where buy_quantity > 100");
+                ruleName.setId(i);
+                return ruleName;
+            };
+            case "trade" -> i -> {
+                Trade trade = new Trade("Account " + i, "Type", 10.0 + i);
+                trade.setId(i);
+                return trade;
+            };
+            case "user" -> i -> {
+                User user = new User("user" + i, "", "User " + i, "USER");
+                user.setId(i);
+                return user;
+            };
+            default -> throw new IllegalArgumentException("Unknown entity : " + entity);
+        };
+        List<Object> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(factory.apply(i));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListViewBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
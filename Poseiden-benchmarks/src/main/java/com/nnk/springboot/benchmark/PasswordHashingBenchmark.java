@@ -0,0 +1,55 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.service.CalibratedPasswordEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de la vérification d'un mot de passe BCrypt selon le facteur de coût.
+ * Permet de choisir {@code poseidon.security.password.strength} ou de contrôler la valeur
+ * retenue par la calibration ({@code poseidon.security.password.target-ms}) sur une machine donnée.
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=PasswordHashingBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Abc123@!";
+
+    @Param({"10", "11", "12", "13"})
+    private int strength;
+
+    private CalibratedPasswordEncoder encoder;
+
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new CalibratedPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    /**
+     * Vérification d'un mot de passe, comme à chaque connexion.
+     */
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.nnk.springboot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.service.RuleEngineService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de l'évaluation des règles : règle compilée en cache par
+ * {@link RuleEngineService} contre une compilation de la définition JSON à chaque évaluation.
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=RuleEngineBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleEngineBenchmark {
+
+    private static final String JSON = "{\"all\": [{\"field\": \"buyQuantity\", \"op\": \"gt\", \"value\": 100},"
+            + " {\"field\": \"account\", \"op\": \"in\", \"value\": [\"ACC-001\", \"ACC-002\"]},"
+            + " {\"not\": {\"field\": \"type\", \"op\": \"eq\", \"value\": \"Forward\"}}]}";
+
+    private RuleEngineService ruleEngineService;
+
+    private RuleName ruleName;
+
+    private Trade trade;
+
+    @Setup
+    public void setUp() {
+        // La règle est toujours fournie déjà chargée : le service des règles n'est pas sollicité
+        ruleEngineService = new RuleEngineService(null, new ObjectMapper());
+        ruleName = new RuleName("Limit", "Buy limit", JSON, "Template", "SqlStr", "SqlPart");
+        ruleName.setId(1);
+        trade = new Trade("ACC-001", "Spot", 1250.0);
+    }
+
+    /**
+     * Compilation de la définition JSON à chaque évaluation.
+     */
+    @Benchmark
+    public boolean compileEachTime() {
+        return ruleEngineService.compile(ruleName).onTrade().test(trade);
+    }
+
+    /**
+     * Évaluation de la règle compilée en cache.
+     */
+    @Benchmark
+    public boolean cachedEvaluate() {
+        return ruleEngineService.evaluate(ruleName, trade);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RuleEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
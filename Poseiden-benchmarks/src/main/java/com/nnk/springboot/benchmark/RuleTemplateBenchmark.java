@@ -0,0 +1,111 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.service.RuleNameService;
+import com.nnk.springboot.service.RuleTemplateService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH du rendu des templates de règles par {@link RuleTemplateService}, sur l'application
+ * complète et une base H2 en mémoire : rendu par identifiant depuis le cache, contre le chemin
+ * précédent qui chargeait la règle à chaque rendu.
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=RuleTemplateBenchmark}.
+ * Ajouter {@code -prof gc} aux options JMH pour mesurer les allocations par rendu.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleTemplateBenchmark {
+
+    private static final String TEMPLATE =
+            "Trade {account} ({type}) on {security} exceeds limit: bought {buyQuantity} at {buyPrice} for book {book}";
+
+    private ConfigurableApplicationContext context;
+
+    private RuleNameService ruleNameService;
+
+    private RuleTemplateService ruleTemplateService;
+
+    private int ruleId;
+
+    private Trade trade;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        ruleNameService = context.getBean(RuleNameService.class);
+        ruleTemplateService = context.getBean(RuleTemplateService.class);
+        ruleId = ruleNameService.save(new RuleName("Limit", "Buy limit", "{}", TEMPLATE, "SqlStr", "SqlPart")).getId();
+
+        trade = new Trade("ACC-001", "Spot", 1250.0);
+        trade.setSecurity("FR0000120271");
+        trade.setBuyPrice(101.25);
+        trade.setBook("EQ-PARIS");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Chemin précédent : la règle est chargée en base à chaque rendu, puis son template compilé est retrouvé.
+     */
+    @Benchmark
+    public String renderLoadingRule() {
+        return ruleTemplateService.render(ruleNameService.getById(ruleId), trade);
+    }
+
+    /**
+     * Rendu par identifiant : le template compilé est pris dans le cache, sans accès à la base.
+     */
+    @Benchmark
+    public String renderById() {
+        return ruleTemplateService.render(ruleId, trade);
+    }
+
+    /**
+     * Rendu du template compilé dans un buffer réutilisé, comme dans un traitement par lot.
+     */
+    @Benchmark
+    public int compiledRenderReusedBuffer(ReusedBuffer buffer) {
+        buffer.out.setLength(0);
+        buffer.template.renderTo(trade, buffer.out);
+        return buffer.out.length();
+    }
+
+    /**
+     * Template compilé et buffer propres à chaque thread de mesure.
+     */
+    @State(Scope.Thread)
+    public static class ReusedBuffer {
+
+        private RuleTemplateService.CompiledTemplate<Trade> template;
+
+        private StringBuilder out;
+
+        @Setup(Level.Trial)
+        public void setUp(RuleTemplateBenchmark benchmark) {
+            template = benchmark.ruleTemplateService.forTrade(benchmark.ruleNameService.getById(benchmark.ruleId));
+            out = new StringBuilder(template.length());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RuleTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.nnk.springboot.benchmark;
+
+import com.nnk.springboot.configuration.UserRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark JMH du coût par requête de {@link UserRateLimiter} : jeton accepté ou refusé, sur quatre
+ * threads qui partagent le même utilisateur (un seul {@code compareAndSet} disputé) ou ont chacun le leur.
+ *
+ * <p>Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * {@code mvn -f Poseiden-benchmarks package exec:exec -Djmh.include=UserRateLimiterBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class UserRateLimiterBenchmark {
+
+    @Param({"shared", "perThread"})
+    public String users;
+
+    /**
+     * Débit illimité en pratique : chaque appel prend un jeton
+     */
+    private UserRateLimiter accepting;
+
+    /**
+     * Seau d'un jeton, vide dès le premier appel : chaque appel suivant est refusé
+     */
+    private UserRateLimiter rejecting;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private String username;
+
+        @Setup
+        public void setUp(UserRateLimiterBenchmark benchmark) {
+            username = benchmark.users.equals("shared") ? "trader" : "trader-" + benchmark.threadCount.incrementAndGet();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        accepting = limiter(new UserRateLimiter.Limit(1e9, 1_000_000));
+        rejecting = limiter(new UserRateLimiter.Limit(0.001, 1));
+    }
+
+    @Benchmark
+    public long accepted(Caller caller) {
+        return accepting.tryAcquire(UserRateLimiter.Group.LIST, caller.username);
+    }
+
+    @Benchmark
+    public long rejected(Caller caller) {
+        return rejecting.tryAcquire(UserRateLimiter.Group.LIST, caller.username);
+    }
+
+    private static UserRateLimiter limiter(UserRateLimiter.Limit limit) {
+        return new UserRateLimiter(new SimpleMeterRegistry(), true, 10_000,
+                Map.of(UserRateLimiter.Group.LIST, limit, UserRateLimiter.Group.WRITE, limit, UserRateLimiter.Group.LOGIN, limit),
+                System::nanoTime);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserRateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,173 @@
+package com.nnk.springboot.load;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.gateway.BidGatewayProtocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client de charge de la passerelle d'ingestion des enchères
+ * ({@link com.nnk.springboot.gateway.BidGatewayServer}) contre une instance démarrée.
+ *
+ * <p>Chaque connexion s'authentifie puis envoie des enchères en continu, avec au plus {@code window}
+ * enchères sans réponse : un thread écrit les trames par paquets, un autre lit les réponses. La
+ * corrélation de chaque enchère porte son heure d'envoi, ce qui donne la latence jusqu'à
+ * l'acquittement. Le débit affiché ({@code req/s}) est le nombre de messages acquittés par seconde ;
+ * les refus comptent comme erreurs.</p>
+ *
+ * <pre>
+ * java -cp ... com.nnk.springboot.load.GatewayLoadClient --port=9090 --connections=4 --window=256 --duration=30
+ * </pre>
+ */
+public class GatewayLoadClient {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final String OPERATION = "gateway/bid";
+
+    public static void main(String[] args) throws Exception {
+        GatewayLoadOptions options = GatewayLoadOptions.parse(args);
+        String token = options.token().isEmpty() ? requestToken(options) : options.token();
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.connections(); i++) {
+            SocketChannel channel = connect(options, token);
+            Semaphore window = new Semaphore(options.window());
+            threads.add(start(() -> send(channel, window, running), "gateway-writer-" + i));
+            threads.add(start(() -> receive(channel, window, recorder), "gateway-reader-" + i));
+        }
+
+        System.out.printf("%d connections to %s:%d, window %d : warmup %ds, measure %ds%n", options.connections(),
+                options.host(), options.port(), options.window(), options.warmup().toSeconds(), options.duration().toSeconds());
+        Thread.sleep(options.warmup().toMillis());
+        recorder.reset();
+        long start = System.nanoTime();
+        Thread.sleep(options.duration().toMillis());
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        recorder.report(System.out, elapsedSeconds);
+
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join(Duration.ofSeconds(5).toMillis());
+        }
+    }
+
+    /**
+     * Obtient un jeton par {@code POST /api/token} avec les identifiants en HTTP Basic.
+     */
+    private static String requestToken(GatewayLoadOptions options) throws IOException, InterruptedException {
+        String credentials = Base64.getEncoder().encodeToString(
+                (options.username() + ":" + options.password()).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(options.baseUrl().resolve("/api/token"))
+                .header("Authorization", "Basic " + credentials)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("No api token issued : HTTP " + response.statusCode());
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * Ouvre une connexion et l'authentifie.
+     */
+    private static SocketChannel connect(GatewayLoadOptions options, String token) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(options.host(), options.port()));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        ByteBuffer buffer = ByteBuffer.allocate(BidGatewayProtocol.MAX_FRAME_BYTES + Integer.BYTES);
+        BidGatewayProtocol.writeAuth(buffer, token);
+        write(channel, buffer);
+
+        buffer.clear().limit(Integer.BYTES + 1);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Connection closed by gateway");
+            }
+        }
+        if (buffer.get(Integer.BYTES) != BidGatewayProtocol.AUTH_OK) {
+            throw new IllegalStateException("Token refused by gateway");
+        }
+        return channel;
+    }
+
+    private static void send(SocketChannel channel, Semaphore window, AtomicBoolean running) {
+        BidList bidList = new BidList("Account", "Type", 10d);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try {
+            while (running.get()) {
+                // Les trames accumulées partent dès que la fenêtre est pleine ou le tampon rempli
+                if (!window.tryAcquire()) {
+                    write(channel, buffer);
+                    window.acquire();
+                }
+                BidGatewayProtocol.writeBid(buffer, System.nanoTime(), bidList);
+                if (buffer.remaining() < BidGatewayProtocol.MAX_FRAME_BYTES + Integer.BYTES) {
+                    write(channel, buffer);
+                }
+            }
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Gateway connection lost : " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void receive(SocketChannel channel, Semaphore window, LatencyRecorder recorder) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= Integer.BYTES && buffer.remaining() >= Integer.BYTES + buffer.getInt(buffer.position())) {
+                    int end = buffer.position() + Integer.BYTES + buffer.getInt();
+                    byte type = buffer.get();
+                    long sentAt = buffer.getLong();
+                    if (type == BidGatewayProtocol.ACK) {
+                        recorder.record(OPERATION, System.nanoTime() - sentAt);
+                    } else {
+                        recorder.error(OPERATION);
+                    }
+                    buffer.position(end);
+                    window.release();
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            // Connexion fermée à la fin de la mesure
+        }
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static Thread start(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
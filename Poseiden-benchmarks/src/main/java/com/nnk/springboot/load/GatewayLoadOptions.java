@@ -0,0 +1,69 @@
+package com.nnk.springboot.load;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Options du client de charge de la passerelle d'ingestion, lues sur la ligne de commande ({@code --nom=valeur}).
+ *
+ * @param host        hôte de la passerelle
+ * @param port        port de la passerelle
+ * @param baseUrl     URL de l'instance, pour obtenir un jeton si {@code token} est vide
+ * @param username    nom d'utilisateur pour obtenir le jeton, obligatoire si {@code token} est vide
+ * @param password    mot de passe pour obtenir le jeton
+ * @param token       jeton d'accès déjà émis, ou vide
+ * @param connections nombre de connexions, chacune sur ses propres threads
+ * @param window      enchères envoyées sans réponse au plus, par connexion
+ * @param warmup      durée de préchauffage, non mesurée
+ * @param duration    durée de la mesure
+ */
+public record GatewayLoadOptions(String host, int port, URI baseUrl, String username, String password, String token,
+                                 int connections, int window, Duration warmup, Duration duration) {
+
+    /**
+     * Options par défaut, modifiées par les arguments fournis.
+     *
+     * @param args arguments {@code --nom=valeur}
+     * @return les options
+     * @throws IllegalArgumentException si un argument est inconnu, ou si ni jeton ni nom d'utilisateur n'est fourni
+     */
+    public static GatewayLoadOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("host", "127.0.0.1");
+        values.put("port", "9090");
+        values.put("url", "http://localhost:8080");
+        values.put("username", "");
+        values.put("password", "");
+        values.put("token", "");
+        values.put("connections", "4");
+        values.put("window", "256");
+        values.put("warmup", "5");
+        values.put("duration", "30");
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !values.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown argument : " + arg + ", expected one of --" + values.keySet());
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        if (values.get("token").isEmpty() && values.get("username").isEmpty()) {
+            throw new IllegalArgumentException("Missing argument : --token, or --username (and --password) of an existing account");
+        }
+
+        String url = values.get("url");
+        return new GatewayLoadOptions(values.get("host"),
+                Integer.parseInt(values.get("port")),
+                URI.create(url.endsWith("/") ? url.substring(0, url.length() - 1) : url),
+                values.get("username"),
+                values.get("password"),
+                values.get("token"),
+                Integer.parseInt(values.get("connections")),
+                Integer.parseInt(values.get("window")),
+                Duration.ofSeconds(Long.parseLong(values.get("warmup"))),
+                Duration.ofSeconds(Long.parseLong(values.get("duration"))));
+    }
+}
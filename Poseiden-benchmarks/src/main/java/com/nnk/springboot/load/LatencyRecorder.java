@@ -0,0 +1,88 @@
+package com.nnk.springboot.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enregistre la latence de chaque requête, par opération, dans des histogrammes HdrHistogram
+ * (résolution de la microseconde jusqu'à une minute, 3 chiffres significatifs).
+ *
+ * <p>Les {@link Recorder} acceptent des enregistrements concurrents sans verrou ; {@link #reset()}
+ * écarte les mesures du préchauffage et {@link #report(PrintStream, double)} fusionne les
+ * mesures de la période écoulée.</p>
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    /**
+     * @param operation    nom de l'opération
+     * @param latencyNanos latence de la requête, en nanosecondes
+     */
+    public void record(String operation, long latencyNanos) {
+        long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)), MAX_LATENCY_MICROS);
+        recorders.computeIfAbsent(operation, name -> new Recorder(MAX_LATENCY_MICROS, 3)).recordValue(micros);
+    }
+
+    /**
+     * @param operation nom de l'opération en erreur
+     */
+    public void error(String operation) {
+        errors.computeIfAbsent(operation, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Écarte les mesures enregistrées jusqu'ici.
+     */
+    public void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Affiche, par opération puis au total, le nombre de requêtes, d'erreurs, le débit et les percentiles.
+     *
+     * @param out            la sortie
+     * @param elapsedSeconds durée de la mesure, en secondes
+     */
+    public void report(PrintStream out, double elapsedSeconds) {
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+        out.printf("%-22s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        TreeSet<String> operations = new TreeSet<>(recorders.keySet());
+        operations.addAll(errors.keySet());
+        for (String operation : operations) {
+            Recorder recorder = recorders.get(operation);
+            Histogram histogram = recorder == null ? new Histogram(MAX_LATENCY_MICROS, 3) : recorder.getIntervalHistogram();
+            LongAdder operationErrors = errors.get(operation);
+            long errorCount = operationErrors == null ? 0 : operationErrors.sum();
+            line(out, operation, histogram, errorCount, elapsedSeconds);
+            total.add(histogram);
+            totalErrors += errorCount;
+        }
+        line(out, "total", total, totalErrors, elapsedSeconds);
+    }
+
+    private static void line(PrintStream out, String name, Histogram histogram, long errors, double elapsedSeconds) {
+        out.printf("%-22s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.nnk.springboot.load;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Générateur de charge HTTP contre une instance démarrée de l'application.
+ *
+ * <p>Des traders simulés ({@link VirtualTrader}) se connectent puis enchaînent un mélange
+ * configurable de listes, ajouts, modifications et suppressions sur les contrôleurs des entités
+ * (pas celui des utilisateurs, voir {@link LoadOptions#entities()}).
+ * Les latences de la période de préchauffage sont écartées ; celles de la mesure sont
+ * affichées en p50, p99, p99.9 et maximum, avec le débit, par opération et au total.</p>
+ *
+ * <p>La charge est en boucle ouverte : les opérations partent selon un calendrier fixe
+ * ({@code --rate} par seconde au total), que l'application réponde vite ou non. La latence
+ * de la première requête d'une opération est comptée depuis son heure de départ prévue :
+ * un trader en retard sur son calendrier parce qu'une réponse a tardé compte ce retard,
+ * au lieu de l'omettre en espaçant ses requêtes (omission coordonnée).</p>
+ *
+ * <pre>
+ * java -cp ... com.nnk.springboot.load.LoadGenerator --url=http://localhost:8080 --username=... --password=... --users=50 --rate=200
+ * </pre>
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadOptions options = LoadOptions.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        // Préfixe des valeurs écrites par ce test : seules ces lignes sont modifiées ou supprimées
+        String marker = "LOAD-" + Long.toString(System.currentTimeMillis(), 36);
+
+        List<Thread> traders = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            Thread trader = new Thread(new VirtualTrader(client, options, recorder, running, i, marker), "trader-" + i);
+            trader.setDaemon(true);
+            traders.add(trader);
+            trader.start();
+        }
+
+        System.out.printf("%d traders against %s at %.0f operations/s : warmup %ds, measure %ds, mix %s%n", options.users(),
+                options.baseUrl(), options.rate(), options.warmup().toSeconds(), options.duration().toSeconds(), options.mix());
+        Thread.sleep(options.warmup().toMillis());
+        recorder.reset();
+        long start = System.nanoTime();
+        Thread.sleep(options.duration().toMillis());
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        recorder.report(System.out, elapsedSeconds);
+
+        running.set(false);
+        for (Thread trader : traders) {
+            trader.join(Duration.ofSeconds(5).toMillis());
+        }
+    }
+}
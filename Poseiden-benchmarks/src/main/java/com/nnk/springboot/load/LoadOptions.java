@@ -0,0 +1,95 @@
+package com.nnk.springboot.load;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options du générateur de charge, lues sur la ligne de commande ({@code --nom=valeur}).
+ *
+ * @param baseUrl   URL de l'instance testée
+ * @param users     nombre de traders simulés, chacun avec sa propre session
+ * @param warmup    durée de préchauffage, non mesurée
+ * @param duration  durée de la mesure
+ * @param username  nom d'utilisateur de connexion
+ * @param password  mot de passe de connexion
+ * @param entities  entités sollicitées (préfixe des URL des contrôleurs). Les utilisateurs ({@code user})
+ *                  n'en font pas partie : leurs pages sont réservées au rôle ADMIN, chaque ajout ou
+ *                  modification hache un mot de passe en BCrypt, ce qui masquerait le coût des autres
+ *                  contrôleurs, et une suppression pourrait viser le compte des traders simulés
+ * @param mix       poids de chaque opération (list, add, update, delete)
+ * @param rate      opérations lancées par seconde, tous traders confondus, selon un calendrier fixe
+ * @param destructive modifications et suppressions sur toutes les lignes listées ; sinon seulement sur celles
+ *                  ajoutées par le test en cours, et jamais sur les points de courbe, qui n'ont pas de champ
+ *                  texte pour les reconnaître
+ */
+public record LoadOptions(URI baseUrl, int users, Duration warmup, Duration duration, String username, String password,
+                          List<String> entities, Map<String, Integer> mix, double rate, boolean destructive) {
+
+    /**
+     * Options par défaut, modifiées par les arguments fournis.
+     *
+     * @param args arguments {@code --nom=valeur}
+     * @return les options
+     * @throws IllegalArgumentException si un argument est inconnu ou mal formé
+     */
+    public static LoadOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("url", "http://localhost:8080");
+        values.put("users", "20");
+        values.put("warmup", "10");
+        values.put("duration", "60");
+        values.put("username", "");
+        values.put("password", "");
+        values.put("entities", "bidList,curvePoint,rating,ruleName,trade");
+        values.put("mix", "list:70,add:10,update:15,delete:5");
+        values.put("rate", "100");
+        values.put("destructive", "false");
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !values.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown argument : " + arg + ", expected one of --" + values.keySet());
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : values.get("mix").split(",")) {
+            String[] weight = entry.split(":");
+            if (weight.length != 2 || !List.of("list", "add", "update", "delete").contains(weight[0])) {
+                throw new IllegalArgumentException("Invalid mix entry : " + entry);
+            }
+            mix.put(weight[0], Integer.parseInt(weight[1]));
+        }
+
+        List<String> entities = List.of(values.get("entities").split(","));
+        for (String entity : entities) {
+            if (!List.of("bidList", "curvePoint", "rating", "ruleName", "trade").contains(entity)) {
+                throw new IllegalArgumentException("Unsupported entity : " + entity
+                        + ", expected bidList, curvePoint, rating, ruleName or trade (user pages are not load tested)");
+            }
+        }
+        if (values.get("username").isEmpty()) {
+            throw new IllegalArgumentException("Missing argument : --username (and --password) of an existing account");
+        }
+        double rate = Double.parseDouble(values.get("rate"));
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Invalid rate : " + rate + ", expected operations per second > 0");
+        }
+
+        String url = values.get("url");
+        return new LoadOptions(URI.create(url.endsWith("/") ? url.substring(0, url.length() - 1) : url),
+                Integer.parseInt(values.get("users")),
+                Duration.ofSeconds(Long.parseLong(values.get("warmup"))),
+                Duration.ofSeconds(Long.parseLong(values.get("duration"))),
+                values.get("username"),
+                values.get("password"),
+                entities,
+                mix,
+                rate,
+                Boolean.parseBoolean(values.get("destructive")));
+    }
+}
@@ -0,0 +1,358 @@
+package com.nnk.springboot.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Utilisateur simulé : se connecte par {@code /app/login}, puis enchaîne, jusqu'à l'arrêt,
+ * des opérations tirées au sort selon le mélange configuré sur les pages des contrôleurs.
+ *
+ * <p>Chaque trader a sa propre session (cookie {@code JSESSIONID}) et son propre jeton CSRF,
+ * relu dans chaque formulaire affiché. Une opération suit le parcours d'un utilisateur :
+ * un ajout affiche le formulaire puis le soumet, une modification de même ; chaque requête
+ * est mesurée séparément sous le nom {@code entité/opération}.</p>
+ *
+ * <p>Les opérations d'un trader partent à intervalle fixe ({@code users / rate}), décalé d'un
+ * trader à l'autre. La latence de la première requête d'une opération part de son heure prévue,
+ * pas de son envoi effectif : le retard pris sur le calendrier est mesuré.</p>
+ *
+ * <p>Les valeurs saisies commencent par le préfixe du test en cours ({@code LOAD-...}). Sauf avec
+ * {@code --destructive=true}, seules les lignes qui le portent sont modifiées ou supprimées : les
+ * données existantes de l'instance testée ne sont pas touchées.</p>
+ */
+public class VirtualTrader implements Runnable {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private static final Pattern SESSION = Pattern.compile("JSESSIONID=([^;]+)");
+
+    private static final Pattern ROW = Pattern.compile("<tr\\b.*?</tr>", Pattern.DOTALL);
+
+    private final HttpClient client;
+
+    private final LoadOptions options;
+
+    private final LatencyRecorder recorder;
+
+    private final AtomicBoolean running;
+
+    private final SplittableRandom random;
+
+    private final String[] operations;
+
+    /**
+     * Préfixe des valeurs saisies par ce test
+     */
+    private final String marker;
+
+    /**
+     * Intervalle entre deux opérations de ce trader
+     */
+    private final long intervalNanos;
+
+    /**
+     * Heure prévue de la prochaine opération
+     */
+    private long nextStart;
+
+    /**
+     * Heure prévue de l'opération en cours, jusqu'à l'envoi de sa première requête, sinon 0
+     */
+    private long intendedStart;
+
+    /**
+     * Identifiants modifiables vus dans la dernière liste de chaque entité
+     */
+    private final Map<String, List<Integer>> knownIds = new HashMap<>();
+
+    private String session;
+
+    private String csrf;
+
+    /**
+     * @param client   client HTTP partagé
+     * @param options  options du générateur
+     * @param recorder enregistreur des latences
+     * @param running  passe à {@code false} à la fin du test
+     * @param seed     graine du tirage des opérations
+     * @param marker   préfixe des valeurs saisies par ce test
+     */
+    public VirtualTrader(HttpClient client, LoadOptions options, LatencyRecorder recorder, AtomicBoolean running, long seed,
+                         String marker) {
+        this.client = client;
+        this.marker = marker;
+        this.options = options;
+        this.recorder = recorder;
+        this.running = running;
+        this.random = new SplittableRandom(seed);
+
+        // Une case par unité de poids : le tirage est un simple index
+        List<String> weighted = new ArrayList<>();
+        options.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.operations = weighted.toArray(new String[0]);
+
+        this.intervalNanos = (long) (options.users() * 1e9 / options.rate());
+        // Les traders ne partent pas tous au même instant
+        this.nextStart = System.nanoTime() + random.nextLong(Math.max(1, intervalNanos));
+    }
+
+    @Override
+    public void run() {
+        while (running.get()) {
+            try {
+                if (session == null && !login()) {
+                    pause(Duration.ofSeconds(1));
+                    continue;
+                }
+                pauseUntil(nextStart);
+                intendedStart = nextStart;
+                nextStart += intervalNanos;
+                String entity = options.entities().get(random.nextInt(options.entities().size()));
+                switch (operations[random.nextInt(operations.length)]) {
+                    case "list" -> list(entity);
+                    case "add" -> add(entity);
+                    case "update" -> update(entity);
+                    case "delete" -> delete(entity);
+                    default -> throw new IllegalStateException();
+                }
+            } catch (IOException e) {
+                // Connexion refusée ou interrompue : nouvelle session après une pause
+                recorder.error("io");
+                session = null;
+                try {
+                    pause(Duration.ofSeconds(1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ouvre une session : affichage de la page de connexion pour le jeton CSRF, puis soumission.
+     *
+     * @return {@code true} si la connexion a abouti
+     */
+    private boolean login() throws IOException, InterruptedException {
+        session = null;
+        HttpResponse<String> page = send("login/form", get("/app/login"));
+        if (page == null) {
+            return false;
+        }
+        HttpResponse<String> response = send("login", post("/app/login", Map.of(
+                "username", options.username(),
+                "password", options.password())));
+        if (response == null || location(response).map(location -> location.contains("/app/login")).orElse(true)) {
+            recorder.error("login");
+            session = null;
+            return false;
+        }
+        return true;
+    }
+
+    private void list(String entity) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(entity + "/list", get("/" + entity + "/list"));
+        if (response != null) {
+            Pattern update = Pattern.compile("/" + entity + "/update/(\\d+)");
+            Matcher row = ROW.matcher(response.body());
+            List<Integer> ids = new ArrayList<>();
+            while (row.find()) {
+                Matcher matcher = update.matcher(row.group());
+                // Sans --destructive, seules les lignes saisies par ce test sont retenues
+                if (matcher.find() && (options.destructive() || row.group().contains(marker + "-"))) {
+                    ids.add(Integer.valueOf(matcher.group(1)));
+                }
+            }
+            knownIds.put(entity, ids);
+        }
+    }
+
+    private void add(String entity) throws IOException, InterruptedException {
+        if (send(entity + "/add-form", get("/" + entity + "/add")) != null) {
+            submit(entity + "/add", "/" + entity + "/validate", entity);
+        }
+    }
+
+    private void update(String entity) throws IOException, InterruptedException {
+        Optional<Integer> id = pickId(entity, false);
+        if (id.isPresent() && send(entity + "/update-form", get("/" + entity + "/update/" + id.get())) != null) {
+            submit(entity + "/update", "/" + entity + "/update/" + id.get(), entity);
+        }
+    }
+
+    private void delete(String entity) throws IOException, InterruptedException {
+        Optional<Integer> id = pickId(entity, true);
+        if (id.isPresent()) {
+            send(entity + "/delete", get("/" + entity + "/delete/" + id.get()));
+        }
+    }
+
+    /**
+     * Soumet un formulaire valide : le contrôleur doit rediriger vers la liste, sinon
+     * (formulaire réaffiché avec des erreurs de validation) la requête est comptée en erreur.
+     */
+    private void submit(String operation, String path, String entity) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(operation, post(path, form(entity)));
+        if (response != null && response.statusCode() == 200) {
+            recorder.error(operation);
+        }
+    }
+
+    /**
+     * Tire un identifiant parmi ceux de la dernière liste, en relisant la liste au besoin.
+     *
+     * @param remove retire l'identifiant tiré, pour ne pas le supprimer deux fois
+     */
+    private Optional<Integer> pickId(String entity, boolean remove) throws IOException, InterruptedException {
+        List<Integer> ids = knownIds.get(entity);
+        if (ids == null || ids.isEmpty()) {
+            list(entity);
+            ids = knownIds.get(entity);
+        }
+        if (ids == null || ids.isEmpty()) {
+            return Optional.empty();
+        }
+        int index = random.nextInt(ids.size());
+        return Optional.of(remove ? ids.remove(index) : ids.get(index));
+    }
+
+    private Map<String, String> form(String entity) {
+        String suffix = String.valueOf(random.nextInt(1_000_000));
+        Map<String, String> form = new LinkedHashMap<>();
+        switch (entity) {
+            case "bidList" -> {
+                form.put("account", marker + "-" + suffix);
+                form.put("type", "Load");
+                form.put("bidQuantity", String.valueOf(random.nextInt(1, 1000)));
+            }
+            case "curvePoint" -> {
+                form.put("curveId", String.valueOf(random.nextInt(1, 100)));
+                form.put("term", String.valueOf(random.nextInt(1, 30)));
+                form.put("value", String.valueOf(random.nextDouble(0, 100)));
+            }
+            case "rating" -> {
+                form.put("moodysRating", "Aa" + random.nextInt(1, 4));
+                form.put("sandPRating", "AA");
+                form.put("fitchRating", marker + "-" + suffix);
+                form.put("orderNumber", String.valueOf(random.nextInt(1, 256)));
+            }
+            case "ruleName" -> {
+                form.put("name", marker + "-" + suffix);
+                form.put("description", "Load test rule");
+                form.put("json", "{\"field\": \"buyQuantity\", \"op\": \"gt\", \"value\": 100}");
+                form.put("template", "Trade {account} : {buyQuantity}");
+                form.put("sqlStr", "select id from trade where");
+                form.put("sqlPart", "buy_quantity > :limit");
+            }
+            case "trade" -> {
+                form.put("account", marker + "-" + suffix);
+                form.put("type", "Load");
+                form.put("buyQuantity", String.valueOf(random.nextInt(1, 1000)));
+            }
+            default -> throw new IllegalArgumentException("Unsupported entity : " + entity);
+        }
+        return form;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(options.baseUrl() + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, String> fields) {
+        Map<String, String> body = new LinkedHashMap<>(fields);
+        if (csrf != null) {
+            body.put("_csrf", csrf);
+        }
+        String encoded = body.entrySet().stream()
+                .map(field -> URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8)
+                        + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encoded));
+    }
+
+    /**
+     * Envoie une requête avec le cookie de session, mesure sa latence et met à jour la session
+     * et le jeton CSRF.
+     *
+     * @return la réponse, ou {@code null} si elle est en erreur (statut 4xx/5xx, ou renvoi
+     * vers la page de connexion, qui ferme la session du trader)
+     */
+    private HttpResponse<String> send(String operation, HttpRequest.Builder request) throws IOException, InterruptedException {
+        if (session != null) {
+            request.header("Cookie", "JSESSIONID=" + session);
+        }
+        // La première requête d'une opération est mesurée depuis son heure prévue
+        long start = intendedStart != 0 ? Math.min(intendedStart, System.nanoTime()) : System.nanoTime();
+        intendedStart = 0;
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        long latency = System.nanoTime() - start;
+
+        // L'identifiant de session change à la connexion
+        response.headers().allValues("Set-Cookie").stream()
+                .map(SESSION::matcher)
+                .filter(Matcher::find)
+                .findFirst()
+                .ifPresent(matcher -> session = matcher.group(1));
+        Matcher token = CSRF.matcher(response.body());
+        if (token.find()) {
+            csrf = token.group(1);
+        }
+
+        recorder.record(operation, latency);
+        boolean loggedOut = !operation.startsWith("login")
+                && location(response).map(location -> location.contains("/app/login")).orElse(false);
+        if (response.statusCode() >= 400 || loggedOut) {
+            recorder.error(operation);
+            if (loggedOut) {
+                session = null;
+            }
+            return null;
+        }
+        return response;
+    }
+
+    private static Optional<String> location(HttpResponse<String> response) {
+        return response.headers().firstValue("Location");
+    }
+
+    private static void pauseUntil(long deadline) throws InterruptedException {
+        long delay = deadline - System.nanoTime();
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    private static void pause(Duration duration) throws InterruptedException {
+        if (!duration.isZero()) {
+            Thread.sleep(duration.toMillis());
+        }
+    }
+}
@@ -81,6 +81,7 @@ CREATE TABLE RuleName (
   template VARCHAR(512),
   sqlStr VARCHAR(125),
   sqlPart VARCHAR(125),
+  version INT NOT NULL DEFAULT 0,
 
   PRIMARY KEY (Id)
 )
@@ -96,4 +97,11 @@ CREATE TABLE Users (
 )
 
 insert into Users(fullname, username, password, role) values("Administrator", "admin", "$2a$10$pBV8ILO/s/nao4wVnGLrh.sa/rnr5pDpbeC4E.KNzQWoy8obFZdaa", "ADMIN")
-insert into Users(fullname, username, password, role) values("User", "user", "$2a$10$pBV8ILO/s/nao4wVnGLrh.sa/rnr5pDpbeC4E.KNzQWoy8obFZdaa", "USER")
\ No newline at end of file
+insert into Users(fullname, username, password, role) values("User", "user", "$2a$10$pBV8ILO/s/nao4wVnGLrh.sa/rnr5pDpbeC4E.KNzQWoy8obFZdaa", "USER")
+
+CREATE USER 'poseidon_reporting'@'%' IDENTIFIED BY 'reporting'
+GRANT SELECT ON BidList TO 'poseidon_reporting'@'%'
+GRANT SELECT ON Trade TO 'poseidon_reporting'@'%'
+GRANT SELECT ON CurvePoint TO 'poseidon_reporting'@'%'
+GRANT SELECT ON Rating TO 'poseidon_reporting'@'%'
+GRANT SELECT ON RuleName TO 'poseidon_reporting'@'%'
\ No newline at end of file
@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# Lance l'application avec l'archive CDS produite par : mvn -Pcds package
+# Les arguments sont transmis à l'application, par exemple : scripts/run-cds.sh --spring.profiles.active=prod
+set -euo pipefail
+
+CDS_DIR="$(cd "$(dirname "$0")/.." && pwd)/target/cds"
+JAR="$(ls "$CDS_DIR"/*.jar 2>/dev/null | head -n 1 || true)"
+
+if [ -z "$JAR" ]; then
+  echo "Aucun jar extrait dans $CDS_DIR : lancer d'abord mvn -Pcds package" >&2
+  exit 1
+fi
+
+# L'archive n'est valide que pour ce jar, ce classpath et cette JVM : elle est ignorée sinon
+if [ -f "$CDS_DIR/application.jsa" ]; then
+  exec java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" ${JAVA_OPTS:-} -jar "$JAR" "$@"
+fi
+
+echo "Archive $CDS_DIR/application.jsa absente, démarrage sans CDS" >&2
+exec java ${JAVA_OPTS:-} -jar "$JAR" "$@"
@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Compare le temps de démarrage du contexte Spring avec et sans l'archive CDS.
+# Prérequis : mvn -Pcds package. Usage : scripts/startup-benchmark.sh [nombre de démarrages par mode]
+#
+# Chaque démarrage s'arrête après le rafraîchissement du contexte et ne se connecte pas à la base,
+# comme le run d'entraînement : les mesures sont reproductibles et ne dépendent que de la JVM et du disque.
+set -euo pipefail
+
+RUNS="${1:-5}"
+CDS_DIR="$(cd "$(dirname "$0")/.." && pwd)/target/cds"
+JAR="$(ls "$CDS_DIR"/*.jar 2>/dev/null | head -n 1 || true)"
+
+if [ -z "$JAR" ] || [ ! -f "$CDS_DIR/application.jsa" ]; then
+  echo "Jar extrait ou archive absents dans $CDS_DIR : lancer d'abord mvn -Pcds package" >&2
+  exit 1
+fi
+
+APP_OPTS=(
+  -Dspring.context.exit=onRefresh
+  -Dspring.jpa.database-platform=org.hibernate.dialect.MySQLDialect
+  -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false
+  -Dspring.jpa.hibernate.ddl-auto=none
+  -Dlogging.level.root=warn
+)
+
+# Durée d'un démarrage, en millisecondes
+measure() {
+  local start end
+  start=$(date +%s%N)
+  java "$@" "${APP_OPTS[@]}" -jar "$JAR" > /dev/null
+  end=$(date +%s%N)
+  echo $(( (end - start) / 1000000 ))
+}
+
+run_mode() {
+  local label="$1"; shift
+  local total=0 min="" ms
+  # Premier démarrage non mesuré : remplit le cache disque
+  measure "$@" > /dev/null
+  for _ in $(seq "$RUNS"); do
+    ms=$(measure "$@")
+    total=$((total + ms))
+    if [ -z "$min" ] || [ "$ms" -lt "$min" ]; then min=$ms; fi
+  done
+  printf '%-12s runs=%d mean=%d ms min=%d ms\n' "$label" "$RUNS" $((total / RUNS)) "$min"
+}
+
+run_mode "without-cds" -Xshare:auto
+run_mode "with-cds" -XX:SharedArchiveFile="$CDS_DIR/application.jsa"
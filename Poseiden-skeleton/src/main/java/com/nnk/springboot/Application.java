@@ -2,6 +2,9 @@ package com.nnk.springboot;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principale de l'application Spring Boot pour Poseidon Capital Solutions.
@@ -10,17 +13,29 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - @Configuration
  * - @EnableAutoConfiguration
  * - @ComponentScan
+ * L'annotation @EnableScheduling active les traitements planifiés (exécution des règles),
+ * et @EnableAsync les traitements différés après le démarrage (création de l'administrateur par défaut).
  */
 @SpringBootApplication
+@EnableScheduling
+@EnableAsync
 public class Application {
 
+    /**
+     * Nombre maximal d'étapes de démarrage conservées pour l'endpoint actuator {@code startup}
+     */
+    private static final int STARTUP_STEPS_CAPACITY = 4096;
+
     /**
      * Point d'entrée principal de l'application.
-     * Cette méthode démarre l'application Spring Boot avec la configuration spécifiée.
+     * Cette méthode démarre l'application Spring Boot avec la configuration spécifiée,
+     * en enregistrant la durée de chaque étape du démarrage (phases du contexte, création des beans).
      *
      * @param args Arguments de ligne de commande passés à l'application
      */
     public static void main(String[] args) {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
 }
@@ -0,0 +1,171 @@
+package com.nnk.springboot.configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite adaptative du nombre de requêtes traitées en même temps, réglée sur la latence observée.
+ *
+ * <p>Les latences sont agrégées par fenêtre de {@code windowNanos} (au moins {@code minSamples}
+ * mesures). La latence de référence est la plus basse latence moyenne de fenêtre observée, qui
+ * remonte lentement pour suivre un changement durable. À la fin de chaque fenêtre :</p>
+ * <ul>
+ *     <li>latence moyenne au-delà de {@code tolerance} fois la référence : la limite est
+ *     multipliée par {@code backoffRatio} (diminution multiplicative) ;</li>
+ *     <li>sinon, si la moitié de la limite au moins a été utilisée, elle augmente de sa racine
+ *     carrée (augmentation additive).</li>
+ * </ul>
+ * <p>La limite reste entre {@code minLimit} et {@code maxLimit}. Une demande au-delà de la limite
+ * est refusée immédiatement par {@link #tryAcquire()}.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Part de l'écart comblée à chaque fenêtre quand la latence dépasse la référence
+     */
+    private static final double BASELINE_DRIFT = 0.02;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double backoffRatio;
+
+    private final long windowNanos;
+
+    private final int minSamples;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    /**
+     * Limite non arrondie, modifiée sous verrou
+     */
+    private double exactLimit;
+
+    private double baselineNanos = Double.NaN;
+
+    private long windowStart;
+
+    private long windowTotalNanos;
+
+    private int windowSamples;
+
+    private int windowMaxInFlight;
+
+    /**
+     * @param initialLimit limite de départ
+     * @param minLimit     limite minimale
+     * @param maxLimit     limite maximale
+     * @param tolerance    rapport entre latence de fenêtre et référence au-delà duquel la limite baisse
+     * @param backoffRatio facteur appliqué à la limite en cas de hausse de la latence
+     * @param windowNanos  durée minimale d'une fenêtre de mesure
+     * @param minSamples   nombre minimal de mesures d'une fenêtre
+     * @param nanoClock    horloge, {@code System::nanoTime} hors tests
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio,
+                                      long windowNanos, int minSamples, LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance <= 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limiter settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = windowNanos;
+        this.minSamples = minSamples;
+        this.nanoClock = nanoClock;
+        this.exactLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) exactLimit;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * Réserve une place si le nombre de requêtes en cours est sous la limite.
+     *
+     * @return vrai si la requête peut être traitée ; elle doit alors être terminée par {@link #release(long)}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libère une place réservée et enregistre la latence de la requête.
+     *
+     * @param startNanos instant de début de la requête, selon l'horloge du limiteur
+     */
+    public void release(long startNanos) {
+        long now = nanoClock.getAsLong();
+        int released = inFlight.getAndDecrement();
+        record(now - startNanos, released, now);
+    }
+
+    /**
+     * @return l'instant courant selon l'horloge du limiteur
+     */
+    public long now() {
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * @return la limite courante
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return le nombre de requêtes en cours
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return la latence de référence en millisecondes, ou NaN avant la première fenêtre
+     */
+    public synchronized double getBaselineMillis() {
+        return baselineNanos / 1_000_000.0;
+    }
+
+    private synchronized void record(long latencyNanos, int inFlightBefore, long now) {
+        windowTotalNanos += latencyNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+        if (now - windowStart < windowNanos || windowSamples < minSamples) {
+            return;
+        }
+
+        double average = (double) windowTotalNanos / windowSamples;
+        if (Double.isNaN(baselineNanos) || average < baselineNanos) {
+            baselineNanos = average;
+        } else {
+            baselineNanos += (average - baselineNanos) * BASELINE_DRIFT;
+        }
+
+        if (average > baselineNanos * tolerance) {
+            exactLimit = Math.max(minLimit, exactLimit * backoffRatio);
+        } else if (windowMaxInFlight * 2 >= limit) {
+            exactLimit = Math.min(maxLimit, exactLimit + Math.sqrt(exactLimit));
+        }
+        limit = (int) exactLimit;
+
+        windowStart = now;
+        windowTotalNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.nnk.springboot.configuration;
+
+import com.nnk.springboot.service.ApiTokenService;
+import com.nnk.springboot.service.CustomUserDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Configuration de l'authentification sans état des clients de l'API ({@code /api/**}).
+ * Activée par {@code poseidon.security.api-token.enabled=true}.
+ *
+ * <p>Un client obtient un jeton signé une seule fois par {@code POST /api/token} avec ses identifiants
+ * en HTTP Basic (une seule vérification BCrypt), puis le présente en {@code Authorization: Bearer}
+ * sur chaque requête. Aucune session n'est créée et aucune requête en base n'est faite pour
+ * authentifier un appel. Ces chaînes passent avant la chaîne de connexion par formulaire
+ * de {@link SecurityConfiguration}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "poseidon.security.api-token", name = "enabled", havingValue = "true")
+public class ApiSecurityConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiSecurityConfiguration.class);
+
+    /**
+     * Crée le service des jetons. Sans secret configuré, une clé aléatoire est générée :
+     * les jetons ne survivent alors pas à un redémarrage et ne sont pas partagés entre instances.
+     *
+     * @param secret     clé de signature encodée en base64 (au moins 32 octets)
+     * @param ttlMinutes durée de validité des jetons, en minutes
+     * @return le service des jetons
+     */
+    @Bean
+    public ApiTokenService apiTokenService(@Value("${poseidon.security.api-token.secret:}") String secret,
+                                           @Value("${poseidon.security.api-token.ttl-minutes:60}") long ttlMinutes) {
+        byte[] key;
+        if (secret.isBlank()) {
+            logger.warn("No api token secret configured, tokens are signed with a random key until restart");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret.trim());
+        }
+        return new ApiTokenService(key, Duration.ofMinutes(ttlMinutes), Clock.systemUTC());
+    }
+
+    /**
+     * Chaîne d'émission des jetons : {@code POST /api/token} authentifié en HTTP Basic.
+     * Chaque demande vérifie un mot de passe : elle est limitée comme une connexion, par adresse
+     * du client, avant la vérification.
+     *
+     * @param http                     l'instance de {@link HttpSecurity}
+     * @param customUserDetailsService le service de chargement des utilisateurs
+     * @param userRateLimiter          la limitation de débit, groupe {@code LOGIN}
+     * @return la chaîne de filtres
+     * @throws Exception si une erreur de configuration survient
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiTokenIssueFilterChain(HttpSecurity http, CustomUserDetailsService customUserDetailsService,
+                                                        UserRateLimiter userRateLimiter) throws Exception {
+        http
+                .securityMatcher("/api/token")
+                .authorizeHttpRequests(authorization -> authorization.anyRequest().authenticated())
+                .addFilterBefore(new UserRateLimitFilter(userRateLimiter), BasicAuthenticationFilter.class)
+                .httpBasic(basic -> basic.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .userDetailsService(customUserDetailsService)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+
+    /**
+     * Chaîne des appels de l'API : authentifiés par jeton signé, sans session.
+     *
+     * @param http            l'instance de {@link HttpSecurity}
+     * @param apiTokenService le service des jetons
+     * @param userRateLimiter la limitation de débit par utilisateur, appliquée une fois le jeton vérifié
+     * @return la chaîne de filtres
+     * @throws Exception si une erreur de configuration survient
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, ApiTokenService apiTokenService,
+                                              UserRateLimiter userRateLimiter) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                .authorizeHttpRequests(authorization -> authorization.anyRequest().authenticated())
+                .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new UserRateLimitFilter(userRateLimiter), AuthorizationFilter.class)
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.nnk.springboot.configuration;
+
+import com.nnk.springboot.service.CrudService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure chaque appel aux méthodes de {@link CrudService}, pour toutes les entités.
+ *
+ * <p>Le timer {@code poseidon.service} (nombre d'appels, durée max, percentiles 50/95/99) et le
+ * compteur {@code poseidon.service.errors} (par type d'exception) sont tagués par entité
+ * ({@code BidListService} donne {@code bidList}) et par opération (nom de la méthode).
+ * Ils sont consultables par {@code /actuator/metrics/poseidon.service?tag=entity:trade}.</p>
+ */
+@Aspect
+@Component
+public class CrudServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Timers déjà enregistrés, par classe de service et méthode
+     */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public CrudServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Chronomètre l'appel et compte ses erreurs.
+     *
+     * @param joinPoint l'appel intercepté
+     * @return le résultat de l'appel
+     * @throws Throwable l'exception levée par le service, inchangée
+     */
+    @Around("execution(* com.nnk.springboot.service.CrudService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> serviceClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.computeIfAbsent(serviceClass.getName() + "#" + method.getName(),
+                key -> Timer.builder("poseidon.service")
+                        .description("Durée des opérations CRUD des services")
+                        .tag("entity", entity(serviceClass))
+                        .tag("operation", method.getName())
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry));
+
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            Counter.builder("poseidon.service.errors")
+                    .description("Erreurs des opérations CRUD des services")
+                    .tag("entity", entity(serviceClass))
+                    .tag("operation", method.getName())
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param serviceClass classe du service, par exemple {@code CurvePointService}
+     * @return nom de l'entité, par exemple {@code curvePoint}
+     */
+    static String entity(Class<?> serviceClass) {
+        String name = serviceClass.getSimpleName();
+        if (name.endsWith("Service")) {
+            name = name.substring(0, name.length() - "Service".length());
+        }
+        return name.isEmpty() ? name : Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -2,18 +2,23 @@ package com.nnk.springboot.configuration;
 
 import com.nnk.springboot.domain.User;
 import com.nnk.springboot.service.UserService;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * Configuration pour la création automatique d'un utilisateur administrateur par défaut
- * lors du démarrage de l'application.
+ * lors du démarrage de l'application. Désactivable par
+ * {@code poseidon.default-admin.enabled=false}.
  */
 @Configuration
+@ConditionalOnProperty(prefix = "poseidon.default-admin", name = "enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class DefaultAdminUserConfig {
 
@@ -24,28 +29,34 @@ public class DefaultAdminUserConfig {
     /**
      * Initialise un utilisateur administrateur par défaut si aucun utilisateur avec
      * le nom d'utilisateur spécifié n'existe déjà dans le système. Cette méthode est
-     * exécutée automatiquement après l'initialisation des dépendances de la classe
-     * grâce à l'annotation {@code @PostConstruct}.
+     * exécutée une fois l'application démarrée, sur un thread du pool de tâches
+     * asynchrones : la requête en base et le hachage du mot de passe ne retardent
+     * plus l'initialisation du contexte.
      *
      */
 
-    @PostConstruct
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
     public void initDefaultAdmin() {
-        /* Vérifier si l'utilisateur par défaut existe */
-        String stef = "Stef";
-        if (userService.findByUsername(stef).isEmpty()) {
-            /* Créer l'utilisateur admin par défaut */
-            User defaultAdmin = new User();
-            defaultAdmin.setFullname(stef);
-            defaultAdmin.setUsername(stef);
-            defaultAdmin.setPassword(passwordEncoder.encode("P@ssw0rd"));
-            defaultAdmin.setRole("ADMIN");
-            /* Sauvegarder l'utilisateur */
-            userService.save(defaultAdmin);
-            logger.debug("Utilisateur admin par défaut créé : " + stef);
-        } else {
-            logger.debug("L'utilisateur admin par défaut existe déjà.");
+        try {
+            /* Vérifier si l'utilisateur par défaut existe */
+            String stef = "Stef";
+            if (userService.findByUsername(stef).isEmpty()) {
+                /* Créer l'utilisateur admin par défaut */
+                User defaultAdmin = new User();
+                defaultAdmin.setFullname(stef);
+                defaultAdmin.setUsername(stef);
+                defaultAdmin.setPassword(passwordEncoder.encode("P@ssw0rd"));
+                defaultAdmin.setRole("ADMIN");
+                /* Sauvegarder l'utilisateur */
+                userService.save(defaultAdmin);
+                logger.debug("Utilisateur admin par défaut créé : " + stef);
+            } else {
+                logger.debug("L'utilisateur admin par défaut existe déjà.");
 
+            }
+        } catch (RuntimeException e) {
+            logger.error("Création de l'utilisateur admin par défaut impossible", e);
         }
     }
-}
\ No newline at end of file
+}
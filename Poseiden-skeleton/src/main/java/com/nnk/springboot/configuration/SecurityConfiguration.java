@@ -1,16 +1,25 @@
 package com.nnk.springboot.configuration;
 
+import com.nnk.springboot.service.BoundedPasswordEncoder;
+import com.nnk.springboot.service.CalibratedPasswordEncoder;
 import com.nnk.springboot.service.CustomUserDetailsService;
+import com.nnk.springboot.service.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 
 @Configuration
@@ -30,17 +39,21 @@ public class SecurityConfiguration {
      * Elle définit également une page de connexion personnalisée, une redirection après succès, et une
      * URL de déconnexion personnalisée qui invalide la session et supprime les cookies.</p>
      *
-     * @param http l'instance de {@link HttpSecurity} pour la configuration de la sécurité HTTP
+     * @param http            l'instance de {@link HttpSecurity} pour la configuration de la sécurité HTTP
+     * @param userRateLimiter la limitation de débit par utilisateur, appliquée avant la connexion par formulaire
      * @return une instance de {@link SecurityFilterChain} configurée pour gérer la sécurité HTTP
      * @throws Exception si une erreur de configuration survient lors de la création de la chaîne de filtres
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, UserRateLimiter userRateLimiter) throws Exception {
         http
+                .addFilterBefore(new UserRateLimitFilter(userRateLimiter), UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(authorization -> authorization
                         .requestMatchers("/css/**").permitAll() // Accès public
                         .requestMatchers("/", "/app/login").permitAll() // Accès public
                         .requestMatchers("/user/**").hasRole("ADMIN") // accès restreint aux administrateurs
+                        .requestMatchers("/ruleName/sql/**").hasRole("ADMIN") // exécute la requête SQL d'une règle
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // endpoints de supervision
                         .anyRequest().authenticated() // Toutes les autres requêtes doivent être authentifiées
                 )
                 .exceptionHandling(exception -> exception
@@ -49,6 +62,7 @@ public class SecurityConfiguration {
                 .formLogin(form -> form
                         .loginPage("/app/login")
                         .defaultSuccessUrl("/bidList/list", true) // Page de connexion personnalisée avec redirection forcée
+                        .failureHandler(loginFailureHandler())
                         .permitAll()
                 )
                 // Associe le service d'utilisateurs personnalisé
@@ -65,12 +79,50 @@ public class SecurityConfiguration {
     /**
      * Crée un encodeur de mots de passe basé sur BCrypt.
      * Cet encodeur est utilisé pour hacher et vérifier les mots de passe utilisateur de manière sécurisée.
+     * Le hachage s'exécute sur un pool dédié et borné, hors des threads de traitement des requêtes.
      *
+     * <p>Le facteur de coût est fixé par {@code poseidon.security.password.strength}, ou calibré au démarrage
+     * si une durée de vérification cible est configurée ({@code poseidon.security.password.target-ms}).
+     * Les mots de passe hachés avec un autre coût sont hachés de nouveau à la connexion suivante.</p>
+     *
+     * @param meterRegistry le registre des métriques
+     * @param threads       nombre de hachages exécutés en parallèle (par défaut, le nombre de processeurs)
+     * @param queueCapacity nombre maximal de demandes de hachage en attente
+     * @param timeoutMillis délai maximal d'attente d'une demande de hachage, en millisecondes
+     * @param strength      facteur de coût BCrypt, utilisé sans calibration
+     * @param targetMillis  durée de vérification cible pour la calibration, en millisecondes (0 pour ne pas calibrer)
      * @return Un encodeur BCrypt pour hacher les mots de passe.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${poseidon.security.password.threads:0}") int threads,
+                                           @Value("${poseidon.security.password.queue-capacity:64}") int queueCapacity,
+                                           @Value("${poseidon.security.password.timeout-ms:5000}") long timeoutMillis,
+                                           @Value("${poseidon.security.password.strength:10}") int strength,
+                                           @Value("${poseidon.security.password.target-ms:0}") long targetMillis) {
         logger.debug("Création du bean BCryptPasswordEncoder pour le hachage des mots de passe.");
-        return new BCryptPasswordEncoder(); // Pour hacher les mots de passe
+        CalibratedPasswordEncoder bcrypt = targetMillis > 0
+                ? CalibratedPasswordEncoder.calibrated(targetMillis)
+                : new CalibratedPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(bcrypt, poolSize, queueCapacity, timeoutMillis, meterRegistry);
+    }
+
+    /**
+     * Gestionnaire d'échec de connexion : redirige vers la page de connexion en cas d'identifiants invalides,
+     * et répond 503 avec un en-tête Retry-After lorsque le hachage du mot de passe a été refusé faute de capacité.
+     *
+     * @return le gestionnaire d'échec de connexion
+     */
+    private AuthenticationFailureHandler loginFailureHandler() {
+        AuthenticationFailureHandler defaultHandler = new SimpleUrlAuthenticationFailureHandler("/app/login?error");
+        return (request, response, exception) -> {
+            if (exception instanceof PasswordHashingRejectedException) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            } else {
+                defaultHandler.onAuthenticationFailure(request, response, exception);
+            }
+        };
     }
 }
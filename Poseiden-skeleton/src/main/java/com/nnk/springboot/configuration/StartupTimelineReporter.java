@@ -0,0 +1,61 @@
+package com.nnk.springboot.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.Comparator;
+import java.util.stream.StreamSupport;
+
+/**
+ * Résume dans les logs les étapes de démarrage les plus longues (création des beans, phases du contexte).
+ * Le détail complet reste disponible par l'endpoint actuator {@code /actuator/startup}.
+ * Sans effet si l'application n'a pas été démarrée avec un {@link BufferingApplicationStartup}.
+ */
+@Configuration
+public class StartupTimelineReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimelineReporter.class);
+
+    private final int limit;
+
+    /**
+     * @param limit nombre d'étapes les plus longues à afficher
+     */
+    public StartupTimelineReporter(@Value("${poseidon.startup.report-limit:10}") int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Affiche les étapes de démarrage les plus longues une fois l'application prête.
+     *
+     * @param event l'événement de fin de démarrage
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        logger.info("Application ready in {} ms", event.getTimeTaken() == null ? "?" : event.getTimeTaken().toMillis());
+        timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(limit)
+                .forEach(step -> logger.info("Startup step {} ms : {}{}",
+                        step.getDuration().toMillis(), step.getStartupStep().getName(), describe(step.getStartupStep())));
+    }
+
+    private static String describe(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> tag.getKey().equals("beanName"))
+                .map(tag -> " " + tag.getValue())
+                .findFirst()
+                .orElse("");
+    }
+}
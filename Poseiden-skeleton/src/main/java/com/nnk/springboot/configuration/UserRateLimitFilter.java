@@ -0,0 +1,89 @@
+package com.nnk.springboot.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applique {@link UserRateLimiter} dans les chaînes de sécurité, une fois l'utilisateur connu :
+ * une requête au-delà du débit de son utilisateur reçoit un 429 avec un en-tête Retry-After.
+ *
+ * <p>Groupes : {@code LOGIN} pour {@code POST /app/login} et {@code POST /api/token} (par adresse
+ * du client, avant la vérification du mot de passe), {@code WRITE} pour les autres POST et les
+ * suppressions, {@code LIST} pour les listes et l'API en lecture, par utilisateur authentifié.
+ * Les autres pages ne sont pas limitées.</p>
+ *
+ * <p>L'adresse du client est {@link HttpServletRequest#getRemoteAddr()}. Derrière un proxy ou un
+ * répartiteur de charge, {@code server.forward-headers-strategy} ({@code native} ou {@code framework})
+ * doit être défini pour qu'elle soit lue dans {@code X-Forwarded-For} ; sans cela, tous les clients
+ * partagent le seau de l'adresse du proxy. Ne le définir que si le proxy remplace cet en-tête, sans
+ * quoi un client peut choisir son adresse.</p>
+ */
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final UserRateLimiter rateLimiter;
+
+    public UserRateLimitFilter(UserRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        UserRateLimiter.Group group = group(request);
+        String key = group == null ? null : group == UserRateLimiter.Group.LOGIN ? request.getRemoteAddr() : username();
+        if (key != null) {
+            long waitNanos = rateLimiter.tryAcquire(group, key);
+            if (waitNanos > 0) {
+                // Délai arrondi à la seconde supérieure
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * @return le groupe de la requête, ou {@code null} si elle n'est pas limitée
+     */
+    static UserRateLimiter.Group group(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if ("POST".equals(request.getMethod())) {
+            return "/app/login".equals(path) || "/api/token".equals(path)
+                    ? UserRateLimiter.Group.LOGIN : UserRateLimiter.Group.WRITE;
+        }
+        if (PATH_MATCHER.match("/*/delete/*", path)) {
+            return UserRateLimiter.Group.WRITE;
+        }
+        if (PATH_MATCHER.match("/*/list", path) || PATH_MATCHER.match("/api/**", path)) {
+            return UserRateLimiter.Group.LIST;
+        }
+        return null;
+    }
+
+    /**
+     * @return le nom de l'utilisateur authentifié, ou {@code null} pour un visiteur anonyme
+     */
+    private static String username() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
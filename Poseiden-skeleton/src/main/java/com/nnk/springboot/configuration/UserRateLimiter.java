@@ -0,0 +1,208 @@
+package com.nnk.springboot.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitation du débit des requêtes par utilisateur, par seau à jetons et par groupe de pages.
+ *
+ * <p>Chaque utilisateur dispose, dans chaque groupe ({@link Group}), d'un seau de {@code burst}
+ * jetons qui se remplit de {@code rate-per-second} jetons par seconde. Le seau tient dans un seul
+ * {@link AtomicLong} : l'instant auquel il sera de nouveau plein (algorithme GCRA, équivalent au
+ * seau à jetons). Prendre un jeton est une simple comparaison suivie d'un {@code compareAndSet},
+ * sans verrou ni allocation.</p>
+ *
+ * <p>Les seaux sont gardés dans une table bornée à {@code poseidon.rate-limit.max-keys} entrées par
+ * groupe : une fois la table pleine, les seaux redevenus pleins (utilisateurs inactifs) sont retirés,
+ * et s'il n'y en a pas, les nouveaux utilisateurs partagent le seau {@code <other>} du groupe. La table
+ * n'est parcourue qu'une fois par durée de remplissage d'un seau : entre deux parcours, aucun seau ne
+ * pourrait s'y être vidé, et les nouveaux utilisateurs vont directement au seau partagé.</p>
+ *
+ * <p>Métriques : {@code poseidon.ratelimit.rejected} et {@code poseidon.ratelimit.keys}, par groupe.</p>
+ */
+@Component
+public class UserRateLimiter {
+
+    /**
+     * Clé partagée par les utilisateurs au-delà de la taille maximale de la table
+     */
+    static final String OVERFLOW_KEY = "<other>";
+
+    private final Logger logger = LoggerFactory.getLogger(UserRateLimiter.class);
+
+    /**
+     * Groupes de pages limités séparément.
+     */
+    public enum Group {
+        /**
+         * Listes et lectures de l'API
+         */
+        LIST,
+        /**
+         * Ajouts, modifications et suppressions
+         */
+        WRITE,
+        /**
+         * Tentatives de connexion et demandes de jeton d'API, par adresse du client
+         */
+        LOGIN;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Débit et capacité d'un groupe.
+     *
+     * @param ratePerSecond jetons ajoutés par seconde
+     * @param burst         nombre maximal de jetons (requêtes acceptées d'affilée)
+     */
+    public record Limit(double ratePerSecond, int burst) {
+    }
+
+    /**
+     * Seau à jetons d'un utilisateur : instant (horloge du limiteur) auquel il sera de nouveau plein.
+     */
+    private static final class Bucket {
+
+        private final AtomicLong fullAt;
+
+        private Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+    }
+
+    private final boolean enabled;
+
+    private final int maxKeys;
+
+    private final LongSupplier nanoClock;
+
+    private final Map<Group, GroupBuckets> groups = new EnumMap<>(Group.class);
+
+    private final class GroupBuckets {
+
+        private final long intervalNanos;
+
+        private final long capacityNanos;
+
+        private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+        /**
+         * Instant à partir duquel la table pleine peut de nouveau être parcourue
+         */
+        private final AtomicLong nextSweepAt;
+
+        private final Counter rejected;
+
+        private GroupBuckets(Group group, Limit limit, MeterRegistry meterRegistry, long now) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.ratePerSecond());
+            this.capacityNanos = intervalNanos * limit.burst();
+            this.nextSweepAt = new AtomicLong(now);
+            this.rejected = Counter.builder("poseidon.ratelimit.rejected")
+                    .description("Requêtes refusées par la limitation de débit par utilisateur")
+                    .tag("group", group.tag())
+                    .register(meterRegistry);
+            Gauge.builder("poseidon.ratelimit.keys", buckets, Map::size)
+                    .description("Utilisateurs suivis par la limitation de débit")
+                    .tag("group", group.tag())
+                    .register(meterRegistry);
+        }
+
+        private Bucket bucket(String key, long now) {
+            Bucket bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxKeys) {
+                long sweepAt = nextSweepAt.get();
+                if (now - sweepAt >= 0 && nextSweepAt.compareAndSet(sweepAt, now + capacityNanos)) {
+                    // Un seau redevenu plein équivaut à un seau neuf : il peut être oublié
+                    buckets.values().removeIf(idle -> idle.fullAt.get() - now <= 0);
+                }
+                if (buckets.size() >= maxKeys) {
+                    logger.debug("Rate limit table full, {} shares the overflow bucket", key);
+                    return buckets.computeIfAbsent(OVERFLOW_KEY, k -> new Bucket(now));
+                }
+            }
+            return buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+    }
+
+    @Autowired
+    public UserRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${poseidon.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${poseidon.rate-limit.max-keys:10000}") int maxKeys,
+                           @Value("${poseidon.rate-limit.list.rate-per-second:20}") double listRate,
+                           @Value("${poseidon.rate-limit.list.burst:50}") int listBurst,
+                           @Value("${poseidon.rate-limit.write.rate-per-second:10}") double writeRate,
+                           @Value("${poseidon.rate-limit.write.burst:30}") int writeBurst,
+                           @Value("${poseidon.rate-limit.login.rate-per-second:1}") double loginRate,
+                           @Value("${poseidon.rate-limit.login.burst:10}") int loginBurst) {
+        this(meterRegistry, enabled, maxKeys, Map.of(
+                Group.LIST, new Limit(listRate, listBurst),
+                Group.WRITE, new Limit(writeRate, writeBurst),
+                Group.LOGIN, new Limit(loginRate, loginBurst)), System::nanoTime);
+    }
+
+    /**
+     * @param meterRegistry registre des métriques
+     * @param enabled       faux pour accepter toutes les requêtes
+     * @param maxKeys       nombre maximal de seaux par groupe
+     * @param limits        débit et capacité de chaque groupe
+     * @param nanoClock     horloge, {@code System::nanoTime} hors tests
+     */
+    public UserRateLimiter(MeterRegistry meterRegistry, boolean enabled, int maxKeys, Map<Group, Limit> limits,
+                           LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        for (Group group : Group.values()) {
+            groups.put(group, new GroupBuckets(group, limits.get(group), meterRegistry, now));
+        }
+    }
+
+    /**
+     * Prend un jeton dans le seau d'un utilisateur.
+     *
+     * @param group le groupe de la page demandée
+     * @param key   l'utilisateur (nom, ou adresse du client pour la connexion)
+     * @return 0 si la requête est acceptée, sinon le délai avant le prochain jeton, en nanosecondes
+     */
+    public long tryAcquire(Group group, String key) {
+        if (!enabled) {
+            return 0;
+        }
+        GroupBuckets buckets = groups.get(group);
+        long now = nanoClock.getAsLong();
+        AtomicLong fullAt = buckets.bucket(key, now).fullAt;
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + buckets.intervalNanos;
+            long excess = next - now - buckets.capacityNanos;
+            if (excess > 0) {
+                buckets.rejected.increment();
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
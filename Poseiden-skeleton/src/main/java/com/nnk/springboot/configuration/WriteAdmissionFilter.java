@@ -0,0 +1,116 @@
+package com.nnk.springboot.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contrôle d'admission des requêtes d'écriture : ajouts, modifications, suppressions.
+ *
+ * <p>Quand la base ralentit, ces requêtes s'accumulent sur les threads de Tomcat et dégradent
+ * toutes les pages. Leur nombre simultané est borné par une {@link AdaptiveConcurrencyLimiter},
+ * qui baisse la limite quand leur latence augmente et la relève quand elle redevient normale ;
+ * au-delà, la requête est refusée immédiatement par un 503 avec un en-tête Retry-After.
+ * Les requêtes qui hachent un mot de passe (connexion, jeton d'API, création et modification
+ * d'un utilisateur) en sont exclues : leur latence, celle du hachage, ferait baisser la limite
+ * des autres écritures, et elles ont leur propre garde-fou
+ * ({@link com.nnk.springboot.service.BoundedPasswordEncoder}).</p>
+ *
+ * <p>Métriques : {@code poseidon.admission.limit}, {@code poseidon.admission.inflight} et
+ * {@code poseidon.admission.rejected}. Désactivable par {@code poseidon.admission.enabled=false}.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+@ConditionalOnProperty(prefix = "poseidon.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WriteAdmissionFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * POST dont le coût est le hachage d'un mot de passe
+     */
+    private static final List<String> PASSWORD_HASHING_PATHS =
+            List.of("/app/login", "/api/token", "/user/validate", "/user/update/*");
+
+    private final Logger logger = LoggerFactory.getLogger(WriteAdmissionFilter.class);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Counter rejectedCounter;
+
+    private final String retryAfterSeconds;
+
+    public WriteAdmissionFilter(MeterRegistry meterRegistry,
+                                @Value("${poseidon.admission.initial-limit:20}") int initialLimit,
+                                @Value("${poseidon.admission.min-limit:2}") int minLimit,
+                                @Value("${poseidon.admission.max-limit:200}") int maxLimit,
+                                @Value("${poseidon.admission.tolerance:2.0}") double tolerance,
+                                @Value("${poseidon.admission.backoff-ratio:0.9}") double backoffRatio,
+                                @Value("${poseidon.admission.window-ms:1000}") long windowMillis,
+                                @Value("${poseidon.admission.min-samples:10}") int minSamples,
+                                @Value("${poseidon.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, backoffRatio,
+                TimeUnit.MILLISECONDS.toNanos(windowMillis), minSamples, System::nanoTime);
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        Gauge.builder("poseidon.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Nombre maximal de requêtes d'écriture traitées en même temps")
+                .register(meterRegistry);
+        Gauge.builder("poseidon.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requêtes d'écriture en cours de traitement")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("poseidon.admission.rejected")
+                .description("Requêtes d'écriture refusées au-delà de la limite")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Seules les requêtes d'écriture sont limitées : tout POST hors hachage d'un mot de passe,
+     * et les suppressions ({@code GET /{entité}/delete/{id}}).
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if ("POST".equals(request.getMethod())) {
+            return PASSWORD_HASHING_PATHS.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+        }
+        return !PATH_MATCHER.match("/*/delete/*", path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            rejectedCounter.increment();
+            logger.debug("{} {} rejected : limit of {} write requests in flight reached", request.getMethod(),
+                    request.getRequestURI(), limiter.getLimit());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        long start = limiter.now();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(start);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routage des lectures vers une réplique, activé par {@code poseidon.datasource.replica.enabled=true}.
+ *
+ * <p>La base principale reste le pool {@code interactive} ({@link WorkloadDataSourceConfiguration}),
+ * la réplique est configurée par {@code poseidon.datasource.replica.*} (propriétés Hikari :
+ * {@code jdbc-url}, {@code username}, {@code password}, {@code maximum-pool-size}...). Les transactions en lecture seule
+ * ({@code @Transactional(readOnly = true)}) obtiennent leur connexion de la réplique, les autres
+ * de la base principale : la connexion n'est ouverte qu'à la première requête
+ * ({@link LazyConnectionDataSourceProxy}), une fois le caractère lecture seule de la transaction connu.</p>
+ *
+ * <p>La connexion est gardée jusqu'à la fin de la transaction ; sans transaction englobant toute la
+ * requête HTTP ({@code spring.jpa.open-in-view=false}), une lecture préalable ne fixe pas la source des
+ * écritures suivantes. Les mises à jour et suppressions lisent et écrivent dans une même transaction,
+ * sur la base principale.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "poseidon.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("poseidon.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("interactiveDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${poseidon.datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+                                               @Value("${poseidon.datasource.replica.check-interval-ms:5000}") long checkIntervalMillis,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(new JdbcTemplate(primary), new JdbcTemplate(replica), maxLagMillis,
+                checkIntervalMillis, meterRegistry, System::currentTimeMillis);
+    }
+
+    /**
+     * Source des connexions interactives : base principale, réplique pour les lectures.
+     */
+    @Bean
+    public DataSource replicaRoutingDataSource(@Qualifier("interactiveDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaFallbackDataSource(replica, primary, replicaLagMonitor));
+        return dataSource;
+    }
+}
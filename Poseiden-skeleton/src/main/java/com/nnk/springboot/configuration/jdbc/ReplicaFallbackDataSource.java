@@ -0,0 +1,51 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source de données des transactions en lecture seule : la réplique tant que
+ * {@link ReplicaLagMonitor} la juge utilisable, la base principale sinon ou si la connexion
+ * à la réplique échoue.
+ */
+public class ReplicaFallbackDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+
+    private final DataSource primary;
+
+    private final ReplicaLagMonitor monitor;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor monitor) {
+        this.replica = replica;
+        this.primary = primary;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (monitor.isReplicaUsable()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                monitor.markFailed(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (monitor.isReplicaUsable()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                monitor.markFailed(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+}
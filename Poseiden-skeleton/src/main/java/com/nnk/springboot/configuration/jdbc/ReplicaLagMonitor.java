@@ -0,0 +1,156 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Surveille le retard de la réplique en lecture sur la base principale.
+ *
+ * <p>À chaque vérification, le battement répliqué est relu sur la réplique, puis un nouveau battement
+ * (heure courante) est écrit sur la base principale dans la table {@code replica_heartbeat}. Le battement
+ * relu est celui d'une vérification précédente : si c'est le dernier écrit, la réplique est à jour ;
+ * sinon, elle n'a pas encore appliqué le battement qui le suit, écrit au plus tard une période
+ * ({@code check-interval-ms}) après lui, et son retard est au moins le temps écoulé depuis. La mesure
+ * ne dépend donc pas de la période des vérifications. La réplique n'est utilisée que si elle répond et
+ * que son retard ne dépasse pas {@code max-lag-ms}, à partir de la deuxième vérification ; avec
+ * {@code max-lag-ms=0}, seule sa disponibilité est vérifiée (deux bases locales indépendantes, sans
+ * réplication).</p>
+ *
+ * <p>Métriques : {@code poseidon.datasource.replica.lag} (ms) et {@code poseidon.datasource.replica.usable}.</p>
+ */
+public class ReplicaLagMonitor {
+
+    private final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+
+    private final JdbcTemplate replica;
+
+    private final long maxLagMillis;
+
+    private final long checkIntervalMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * Faux jusqu'à la première vérification réussie : les lectures vont d'abord à la base principale
+     */
+    private volatile boolean replicaUsable;
+
+    private volatile long lagMillis = -1;
+
+    private boolean heartbeatTableReady;
+
+    /**
+     * Heure du dernier battement écrit sur la base principale, -1 avant le premier
+     */
+    private long lastBeatMillis = -1;
+
+    /**
+     * @param primary             la base principale
+     * @param replica             la réplique en lecture
+     * @param maxLagMillis        retard maximal toléré, en millisecondes (0 : pas de mesure du retard)
+     * @param checkIntervalMillis délai entre deux vérifications, en millisecondes
+     * @param meterRegistry       registre des métriques
+     * @param clock               horloge en millisecondes, {@code System::currentTimeMillis} hors tests
+     */
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, long maxLagMillis, long checkIntervalMillis,
+                             MeterRegistry meterRegistry, LongSupplier clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.clock = clock;
+        Gauge.builder("poseidon.datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Retard de la réplique en lecture, en millisecondes (-1 si inconnu)")
+                .register(meterRegistry);
+        Gauge.builder("poseidon.datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("1 si les lectures sont envoyées à la réplique")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return vrai si les transactions en lecture seule peuvent être envoyées à la réplique
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Écarte la réplique jusqu'à la prochaine vérification réussie, après un échec de connexion.
+     *
+     * @param cause l'échec constaté
+     */
+    public void markFailed(Exception cause) {
+        if (replicaUsable) {
+            logger.warn("Replica connection failed, reads fall back to the primary : {}", cause.getMessage());
+        }
+        replicaUsable = false;
+    }
+
+    /**
+     * Mesure le retard de la réplique et décide si elle peut être utilisée.
+     */
+    @Scheduled(fixedDelayString = "${poseidon.datasource.replica.check-interval-ms:5000}")
+    public void check() {
+        boolean usable;
+        try {
+            if (maxLagMillis > 0) {
+                long now = clock.getAsLong();
+                // Relu avant d'écrire le battement suivant, qui ne peut pas encore être répliqué
+                Long replicated = lastBeatMillis < 0 ? null
+                        : replica.queryForObject("select beat_millis from replica_heartbeat where id = 1", Long.class);
+                lagMillis = replicated == null ? -1 : lag(now, replicated);
+                usable = replicated != null && lagMillis <= maxLagMillis;
+                beat(now);
+            } else {
+                replica.queryForObject("select 1", Integer.class);
+                lagMillis = 0;
+                usable = true;
+            }
+        } catch (DataAccessException e) {
+            logger.debug("Replica check failed", e);
+            lagMillis = -1;
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Replica usable again (lag {} ms), read-only transactions use the replica", lagMillis);
+            } else {
+                logger.warn("Replica lagging or unavailable (lag {} ms), reads fall back to the primary", lagMillis);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    /**
+     * @param now        l'heure de la vérification
+     * @param replicated le battement relu sur la réplique
+     * @return le retard minimal de la réplique, 0 si elle a appliqué le dernier battement écrit
+     */
+    private long lag(long now, long replicated) {
+        if (replicated >= lastBeatMillis) {
+            return 0;
+        }
+        return Math.max(0, now - Math.min(lastBeatMillis, replicated + checkIntervalMillis));
+    }
+
+    private void beat(long now) {
+        if (!heartbeatTableReady) {
+            primary.execute("create table if not exists replica_heartbeat (id int primary key, beat_millis bigint not null)");
+            heartbeatTableReady = true;
+        }
+        if (primary.update("update replica_heartbeat set beat_millis = ? where id = 1", now) == 0) {
+            primary.update("insert into replica_heartbeat (id, beat_millis) values (1, ?)", now);
+        }
+        lastBeatMillis = now;
+    }
+}
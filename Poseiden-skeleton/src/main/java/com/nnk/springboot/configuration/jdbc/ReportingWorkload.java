@@ -0,0 +1,20 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exécute la méthode annotée avec les connexions du pool {@code reporting}
+ * (voir {@link WorkloadRoutingAspect}), transaction comprise.
+ * Sans effet sur les appels internes à la classe, qui ne passent pas par le proxy, et dans une
+ * transaction déjà ouverte, qui garde sa connexion : l'appelant ne doit pas être transactionnel
+ * ({@code spring.jpa.open-in-view=false}).
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReportingWorkload {
+}
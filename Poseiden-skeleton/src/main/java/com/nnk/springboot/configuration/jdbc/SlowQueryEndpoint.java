@@ -0,0 +1,35 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint actuator {@code /actuator/slowqueries} : requêtes SQL de plus grande durée cumulée,
+ * avec leurs percentiles de latence ({@code ?limit=20} par défaut). Une requête DELETE remet
+ * les statistiques à zéro.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.Offender> topOffenders(@Nullable Integer limit) {
+        return slowQueryLog.topOffenders(limit == null ? 20 : limit);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+}
@@ -0,0 +1,162 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Journal des requêtes SQL lentes, en remplacement de {@code spring.jpa.show-sql} en production.
+ *
+ * <p>Seules les requêtes plus longues que {@code poseidon.sql.slow-query.threshold-ms} sont
+ * loguées (logger {@code poseidon.sql.slow}, niveau WARN) ; une fraction
+ * {@code poseidon.sql.slow-query.sample-rate} des requêtes rapides l'est au niveau DEBUG.
+ * Chaque exécution alimente l'histogramme des latences de son empreinte ({@link SqlFingerprint}),
+ * consultable par l'endpoint actuator {@code /actuator/slowqueries}. Le nombre d'empreintes
+ * suivies est borné : au-delà, les requêtes sont regroupées sous {@code <other>}.</p>
+ */
+@Component
+public class SlowQueryLog implements StatementListener {
+
+    private static final Logger logger = LoggerFactory.getLogger("poseidon.sql.slow");
+
+    private static final String OTHER = "<other>";
+
+    /**
+     * Latence maximale suivie par les histogrammes : une minute, en microsecondes
+     */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final long thresholdNanos;
+
+    private final double sampleRate;
+
+    private final int maxFingerprints;
+
+    /**
+     * Statistiques par empreinte
+     */
+    private final Map<String, FingerprintStats> statsByFingerprint = new ConcurrentHashMap<>();
+
+    /**
+     * Statistiques par requête brute : évite de recalculer l'empreinte des requêtes préparées déjà vues
+     */
+    private final Map<String, FingerprintStats> statsBySql = new ConcurrentHashMap<>();
+
+    /**
+     * Latences d'une empreinte.
+     */
+    static final class FingerprintStats {
+
+        private final String fingerprint;
+
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 2);
+
+        private final LongAdder slowCount = new LongAdder();
+
+        private final LongAdder totalMicros = new LongAdder();
+
+        private FingerprintStats(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * Requête la plus coûteuse, telle que présentée par l'endpoint.
+     *
+     * @param fingerprint l'empreinte de la requête
+     * @param count       nombre d'exécutions
+     * @param slowCount   nombre d'exécutions au-delà du seuil
+     * @param totalMillis durée cumulée, en millisecondes
+     * @param p50Millis   latence médiane, en millisecondes
+     * @param p99Millis   latence au 99e percentile, en millisecondes
+     * @param maxMillis   latence maximale, en millisecondes
+     */
+    public record Offender(String fingerprint, long count, long slowCount, double totalMillis,
+                           double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    /**
+     * @param thresholdMillis seuil de latence d'une requête lente, en millisecondes
+     * @param sampleRate      fraction des requêtes rapides loguées (0 pour aucune)
+     * @param maxFingerprints nombre maximal d'empreintes suivies
+     */
+    public SlowQueryLog(@Value("${poseidon.sql.slow-query.threshold-ms:200}") long thresholdMillis,
+                        @Value("${poseidon.sql.slow-query.sample-rate:0}") double sampleRate,
+                        @Value("${poseidon.sql.slow-query.max-fingerprints:500}") int maxFingerprints) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    @Override
+    public void afterExecute(String sql, long elapsedNanos) {
+        FingerprintStats stats = statsBySql.get(sql);
+        if (stats == null) {
+            stats = statsFor(sql);
+        }
+        long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)), MAX_LATENCY_MICROS);
+        stats.latencies.recordValue(micros);
+        stats.totalMicros.add(micros);
+
+        if (elapsedNanos >= thresholdNanos) {
+            stats.slowCount.increment();
+            logger.warn("Slow sql ({} ms) : {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql);
+        } else if (sampleRate > 0 && logger.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.debug("Sampled sql ({} us) : {}", micros, sql);
+        }
+    }
+
+    /**
+     * @param limit nombre maximal de requêtes retournées
+     * @return les requêtes de plus grande durée cumulée, la plus coûteuse en premier
+     */
+    public List<Offender> topOffenders(int limit) {
+        return statsByFingerprint.values().stream()
+                .map(SlowQueryLog::toOffender)
+                .sorted(Comparator.comparingDouble(Offender::totalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Remet à zéro toutes les statistiques.
+     */
+    public void reset() {
+        statsBySql.clear();
+        statsByFingerprint.clear();
+    }
+
+    private FingerprintStats statsFor(String sql) {
+        String fingerprint = SqlFingerprint.of(sql);
+        FingerprintStats stats = statsByFingerprint.get(fingerprint);
+        if (stats == null) {
+            String key = statsByFingerprint.size() < maxFingerprints ? fingerprint : OTHER;
+            stats = statsByFingerprint.computeIfAbsent(key, FingerprintStats::new);
+        }
+        // Les requêtes brutes sont bornées comme les empreintes (littéraux non paramétrés)
+        if (statsBySql.size() < maxFingerprints * 4) {
+            statsBySql.put(sql, stats);
+        }
+        return stats;
+    }
+
+    private static Offender toOffender(FingerprintStats stats) {
+        Histogram latencies = stats.latencies;
+        return new Offender(stats.fingerprint, latencies.getTotalCount(), stats.slowCount.sum(),
+                stats.totalMicros.sum() / 1000.0,
+                latencies.getValueAtPercentile(50) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+    }
+}
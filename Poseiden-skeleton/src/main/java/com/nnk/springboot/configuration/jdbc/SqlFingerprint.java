@@ -0,0 +1,36 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Empreinte d'une requête SQL : la requête normalisée, sans valeurs littérales, pour regrouper
+ * les exécutions d'une même requête quels que soient ses paramètres.
+ *
+ * <p>Les chaînes et les nombres littéraux deviennent {@code ?}, les listes {@code IN (?, ?, ...)}
+ * sont réduites à {@code IN (?)}, les blancs sont normalisés et la requête passe en minuscules.</p>
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {
+    }
+
+    /**
+     * @param sql la requête
+     * @return son empreinte
+     */
+    public static String of(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = WHITESPACE.matcher(fingerprint.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return IN_LIST.matcher(fingerprint).replaceAll("in (?)");
+    }
+}
@@ -0,0 +1,105 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rattache à chaque requête HTTP les requêtes SQL qu'elle a exécutées : nombre et durée JDBC
+ * cumulée, dans la ligne de log de la requête et dans les métriques
+ * {@code poseidon.http.sql.statements} et {@code poseidon.http.sql.time} (tags {@code method}, {@code uri}).
+ *
+ * <p>Un avertissement est logué au-delà de {@code poseidon.sql.warn-statements} requêtes, ou quand
+ * une même requête est répétée plus de {@code poseidon.sql.warn-repeated} fois (N+1 probable).
+ * Placé avant la chaîne de sécurité pour compter aussi le chargement de l'utilisateur.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class SqlStatementLoggingFilter extends OncePerRequestFilter {
+
+    private final Logger logger = LoggerFactory.getLogger(SqlStatementLoggingFilter.class);
+
+    private final SqlStatementStatistics statistics;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int warnStatements;
+
+    private final int warnRepeated;
+
+    /**
+     * @param statistics     le compteur des requêtes SQL du thread courant
+     * @param meterRegistry  registre des métriques
+     * @param warnStatements nombre de requêtes SQL au-delà duquel une requête HTTP est signalée
+     * @param warnRepeated   nombre d'exécutions d'une même requête SQL au-delà duquel un N+1 est signalé
+     */
+    public SqlStatementLoggingFilter(SqlStatementStatistics statistics,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${poseidon.sql.warn-statements:20}") int warnStatements,
+                                     @Value("${poseidon.sql.warn-repeated:10}") int warnRepeated) {
+        this.statistics = statistics;
+        this.meterRegistry = meterRegistry;
+        this.warnStatements = warnStatements;
+        this.warnRepeated = warnRepeated;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statistics.start();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            SqlStatementStatistics.Snapshot snapshot = statistics.stop();
+            record(request, response, snapshot, elapsedMillis);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response,
+                        SqlStatementStatistics.Snapshot snapshot, long elapsedMillis) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("poseidon.http.sql.statements")
+                .description("Requêtes SQL exécutées par requête HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(snapshot.statements());
+        Timer.builder("poseidon.http.sql.time")
+                .description("Durée JDBC cumulée par requête HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(snapshot.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        long jdbcMillis = TimeUnit.NANOSECONDS.toMillis(snapshot.jdbcNanos());
+        if (snapshot.statements() > warnStatements) {
+            logger.warn("{} {} -> {} : {} sql statements, {} ms jdbc, {} ms total", request.getMethod(),
+                    request.getRequestURI(), response.getStatus(), snapshot.statements(), jdbcMillis, elapsedMillis);
+        } else {
+            logger.debug("{} {} -> {} : {} sql statements, {} ms jdbc, {} ms total", request.getMethod(),
+                    request.getRequestURI(), response.getStatus(), snapshot.statements(), jdbcMillis, elapsedMillis);
+        }
+        if (snapshot.mostRepeatedCount() > warnRepeated) {
+            logger.warn("Possible N+1 on {} {} : statement executed {} times : {}", request.getMethod(),
+                    request.getRequestURI(), snapshot.mostRepeatedCount(), snapshot.mostRepeated());
+        }
+    }
+}
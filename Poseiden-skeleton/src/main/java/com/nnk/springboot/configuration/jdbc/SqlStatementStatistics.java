@@ -0,0 +1,78 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compte les requêtes SQL exécutées sur le thread courant, entre {@link #start()} et {@link #stop()},
+ * par exemple le temps d'une requête HTTP.
+ *
+ * <p>Le nombre d'exécutions de chaque requête distincte est aussi retenu : une même requête
+ * répétée de nombreuses fois dans une seule requête HTTP est la signature d'un problème N+1.</p>
+ */
+@Component
+public class SqlStatementStatistics implements StatementListener {
+
+    private final ThreadLocal<Counters> current = new ThreadLocal<>();
+
+    /**
+     * Requêtes SQL exécutées pendant la période mesurée.
+     *
+     * @param statements     nombre de requêtes
+     * @param jdbcNanos      durée cumulée des exécutions, en nanosecondes
+     * @param mostRepeated   requête exécutée le plus de fois, ou {@code null}
+     * @param mostRepeatedCount nombre d'exécutions de cette requête
+     */
+    public record Snapshot(int statements, long jdbcNanos, String mostRepeated, int mostRepeatedCount) {
+    }
+
+    private static final class Counters {
+
+        private int statements;
+
+        private long jdbcNanos;
+
+        private final Map<String, Integer> executions = new HashMap<>();
+    }
+
+    /**
+     * Démarre le comptage sur le thread courant.
+     */
+    public void start() {
+        current.set(new Counters());
+    }
+
+    /**
+     * Arrête le comptage sur le thread courant.
+     *
+     * @return les requêtes exécutées depuis {@link #start()}
+     */
+    public Snapshot stop() {
+        Counters counters = current.get();
+        current.remove();
+        if (counters == null) {
+            return new Snapshot(0, 0, null, 0);
+        }
+        String mostRepeated = null;
+        int mostRepeatedCount = 0;
+        for (Map.Entry<String, Integer> entry : counters.executions.entrySet()) {
+            if (entry.getValue() > mostRepeatedCount) {
+                mostRepeated = entry.getKey();
+                mostRepeatedCount = entry.getValue();
+            }
+        }
+        return new Snapshot(counters.statements, counters.jdbcNanos, mostRepeated, mostRepeatedCount);
+    }
+
+    @Override
+    public void afterExecute(String sql, long elapsedNanos) {
+        Counters counters = current.get();
+        if (counters != null) {
+            counters.statements++;
+            counters.jdbcNanos += elapsedNanos;
+            counters.executions.merge(sql, 1, Integer::sum);
+        }
+    }
+}
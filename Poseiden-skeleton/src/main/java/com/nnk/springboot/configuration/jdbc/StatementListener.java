@@ -0,0 +1,18 @@
+package com.nnk.springboot.configuration.jdbc;
+
+/**
+ * Notifié après chaque exécution d'une requête SQL sur la source de données observée
+ * ({@link StatementObservingDataSource}).
+ *
+ * <p>Appelé sur le thread qui exécute la requête : une implémentation doit être rapide
+ * et ne pas lever d'exception.</p>
+ */
+@FunctionalInterface
+public interface StatementListener {
+
+    /**
+     * @param sql          la requête exécutée, telle que préparée (paramètres non substitués)
+     * @param elapsedNanos durée de l'exécution, en nanosecondes
+     */
+    void afterExecute(String sql, long elapsedNanos);
+}
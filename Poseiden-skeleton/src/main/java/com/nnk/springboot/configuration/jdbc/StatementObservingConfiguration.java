@@ -0,0 +1,53 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Enveloppe les sources de données de l'application dans une {@link StatementObservingDataSource}
+ * qui notifie tous les {@link StatementListener} déclarés comme beans. Seuls les pools sont
+ * enveloppés : une source composite (routage, connexion différée) n'ajoute pas de seconde mesure.
+ */
+@Configuration
+public class StatementObservingConfiguration {
+
+    /**
+     * Les écouteurs sont résolus au premier appel : le post-processeur est créé avant eux.
+     *
+     * @param listeners les écouteurs des requêtes SQL
+     * @return le post-processeur des sources de données
+     */
+    @Bean
+    public static BeanPostProcessor statementObservingPostProcessor(ObjectProvider<StatementListener> listeners) {
+        return new BeanPostProcessor() {
+
+            private volatile List<StatementListener> resolved;
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Les sources composites délèguent à des sources déjà observées
+                if (!(bean instanceof DataSource dataSource)
+                        || bean instanceof DelegatingDataSource || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                return StatementObservingDataSource.wrap(dataSource, (sql, elapsedNanos) -> {
+                    List<StatementListener> current = resolved;
+                    if (current == null) {
+                        current = listeners.orderedStream().toList();
+                        resolved = current;
+                    }
+                    for (StatementListener listener : current) {
+                        listener.afterExecute(sql, elapsedNanos);
+                    }
+                });
+            }
+        };
+    }
+}
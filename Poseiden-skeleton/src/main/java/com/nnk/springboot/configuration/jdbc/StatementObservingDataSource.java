@@ -0,0 +1,85 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Enveloppe une {@link DataSource} pour mesurer chaque requête SQL exécutée.
+ *
+ * <p>Les connexions et les requêtes sont des proxies dynamiques du JDK : seules les méthodes
+ * {@code execute*} des requêtes sont chronométrées, puis signalées au {@link StatementListener} ;
+ * tous les autres appels (dont {@code unwrap}) sont transmis sans changement.</p>
+ */
+public final class StatementObservingDataSource {
+
+    private StatementObservingDataSource() {
+    }
+
+    /**
+     * @param dataSource la source de données à observer
+     * @param listener   notifié après chaque requête
+     * @return la source de données observée
+     */
+    public static DataSource wrap(DataSource dataSource, StatementListener listener) {
+        // AutoCloseable conservé pour que le pool soit fermé à l'arrêt du contexte
+        Class<?>[] extra = dataSource instanceof AutoCloseable ? new Class<?>[]{AutoCloseable.class} : new Class<?>[0];
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? wrap(connection, listener) : result;
+        }, extra);
+    }
+
+    /**
+     * @param connection la connexion à observer
+     * @param listener   notifié après chaque requête
+     * @return la connexion observée
+     */
+    static Connection wrap(Connection connection, StatementListener listener) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "prepareCall" -> wrap(CallableStatement.class, (CallableStatement) result, (String) args[0], listener);
+                case "prepareStatement" -> wrap(PreparedStatement.class, (PreparedStatement) result, (String) args[0], listener);
+                case "createStatement" -> wrap(Statement.class, (Statement) result, null, listener);
+                default -> result;
+            };
+        });
+    }
+
+    private static <S extends Statement> S wrap(Class<S> type, S statement, String preparedSql, StatementListener listener) {
+        return proxy(type, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String executed ? executed : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                listener.afterExecute(sql == null ? "<batch>" : sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler, Class<?>... extraInterfaces) {
+        Class<?>[] interfaces = new Class<?>[extraInterfaces.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extraInterfaces, 0, interfaces, 1, extraInterfaces.length);
+        return type.cast(Proxy.newProxyInstance(StatementObservingDataSource.class.getClassLoader(), interfaces, handler));
+    }
+}
@@ -0,0 +1,64 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import java.util.function.Supplier;
+
+/**
+ * Nature du travail en cours sur le thread, qui décide du pool de connexions utilisé
+ * par {@link WorkloadRoutingDataSource}.
+ */
+public enum Workload {
+
+    /**
+     * Saisie et consultation par les utilisateurs : pool {@code interactive}, par défaut
+     */
+    INTERACTIVE,
+
+    /**
+     * Requêtes longues des règles et traitements planifiés : pool {@code reporting}
+     */
+    REPORTING;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return la nature du travail en cours sur le thread, {@link #INTERACTIVE} par défaut
+     */
+    public static Workload current() {
+        Workload current = CURRENT.get();
+        return current == null ? INTERACTIVE : current;
+    }
+
+    /**
+     * Exécute une action avec cette nature de travail, puis rétablit la précédente.
+     * Les transactions doivent être ouvertes dans l'action pour utiliser le bon pool.
+     *
+     * @param action l'action à exécuter
+     * @param <T>    type du résultat
+     * @return le résultat de l'action
+     */
+    public <T> T run(Supplier<T> action) {
+        Workload previous = enter();
+        try {
+            return action.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    /**
+     * @return la nature du travail remplacée, à rétablir par {@link #exit(Workload)}
+     */
+    Workload enter() {
+        Workload previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    static void exit(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
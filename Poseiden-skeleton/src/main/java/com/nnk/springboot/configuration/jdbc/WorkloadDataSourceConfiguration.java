@@ -0,0 +1,60 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Pools de connexions séparés pour la saisie interactive et pour les rapports.
+ *
+ * <p>Les deux pools se connectent à la base {@code spring.datasource.*} mais sont dimensionnés
+ * indépendamment : {@code spring.datasource.hikari.*} pour le pool {@code interactive} (CRUD des
+ * contrôleurs), {@code poseidon.datasource.reporting.*} pour le pool {@code reporting} (requêtes
+ * des règles), dont {@code jdbc-url} peut aussi désigner une autre base. Une requête longue ne peut
+ * ainsi occuper que les connexions du pool {@code reporting}, qui sont en lecture seule sauf si
+ * {@code poseidon.datasource.reporting.read-only=false}. Chaque pool publie ses métriques
+ * {@code hikaricp.connections.*} sous son nom.</p>
+ *
+ * <p>La source de données de l'application ({@link WorkloadRoutingDataSource}) choisit le pool
+ * selon {@link Workload#current()} ; côté interactif, les lectures passent par la réplique si elle
+ * est activée ({@link ReplicaDataSourceConfiguration}).</p>
+ */
+@Configuration
+public class WorkloadDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("interactive");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("poseidon.datasource.reporting")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("reporting");
+        // Les requêtes des règles ne doivent jamais écrire
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Source de données de l'application (JPA, JDBC).
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactive,
+                                 @Qualifier("replicaRoutingDataSource") ObjectProvider<DataSource> replicaRouting,
+                                 @Qualifier("reportingDataSource") DataSource reporting) {
+        return new WorkloadRoutingDataSource(replicaRouting.getIfAvailable(() -> interactive), reporting);
+    }
+}
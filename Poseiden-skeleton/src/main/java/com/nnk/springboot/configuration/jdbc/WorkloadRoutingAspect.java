@@ -0,0 +1,33 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Place les méthodes {@link ReportingWorkload} sur le pool {@code reporting}.
+ * Appliqué avant l'ouverture de la transaction, pour que sa connexion vienne déjà du bon pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadRoutingAspect {
+
+    /**
+     * @param joinPoint l'appel intercepté
+     * @return le résultat de l'appel
+     * @throws Throwable l'exception levée par la méthode, inchangée
+     */
+    @Around("@annotation(com.nnk.springboot.configuration.jdbc.ReportingWorkload)")
+    public Object routeToReporting(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload previous = Workload.REPORTING.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Workload.exit(previous);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Source de données de l'application : chaque connexion est prise dans le pool correspondant
+ * à la nature du travail en cours ({@link Workload#current()}), le pool interactif par défaut.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * @param interactive source des connexions interactives
+     * @param reporting   source des connexions des rapports et traitements planifiés
+     */
+    public WorkloadRoutingDataSource(DataSource interactive, DataSource reporting) {
+        setTargetDataSources(Map.of(Workload.INTERACTIVE, interactive, Workload.REPORTING, reporting));
+        setDefaultTargetDataSource(interactive);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Workload.current();
+    }
+}
@@ -0,0 +1,37 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.service.ApiTokenService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur d'émission des jetons d'accès des clients de l'API.
+ * Le client s'authentifie une fois en HTTP Basic et reçoit un jeton signé à présenter
+ * en {@code Authorization: Bearer} sur les appels {@code /api/**}.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "poseidon.security.api-token", name = "enabled", havingValue = "true")
+public class ApiTokenController {
+
+    private final Logger logger = LoggerFactory.getLogger(ApiTokenController.class);
+
+    private final ApiTokenService apiTokenService;
+
+    /**
+     * Émet un jeton pour l'utilisateur authentifié.
+     *
+     * @param authentication l'authentification HTTP Basic de l'utilisateur
+     * @return le jeton et sa durée de validité en secondes
+     */
+    @PostMapping("/api/token")
+    public ApiTokenService.IssuedToken issueToken(Authentication authentication) {
+        logger.atInfo().setMessage("Api token issued").addKeyValue("username", authentication::getName).log();
+        return apiTokenService.issue(authentication);
+    }
+}
@@ -0,0 +1,40 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.service.TradeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * API en lecture des transactions (Trade) pour les clients automatisés,
+ * authentifiés par jeton signé (voir {@link ApiTokenController}).
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "poseidon.security.api-token", name = "enabled", havingValue = "true")
+public class ApiTradeController {
+
+    private final TradeService tradeService;
+
+    /**
+     * @return la liste de toutes les transactions
+     */
+    @GetMapping("/api/trades")
+    public List<Trade> getTrades() {
+        return tradeService.getAll();
+    }
+
+    /**
+     * @param id identifiant de la transaction
+     * @return la transaction
+     */
+    @GetMapping("/api/trades/{id}")
+    public Trade getTrade(@PathVariable("id") Integer id) {
+        return tradeService.getById(id);
+    }
+}
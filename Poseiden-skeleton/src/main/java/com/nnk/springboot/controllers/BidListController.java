@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -68,15 +69,17 @@ public class BidListController {
     public String validate(@Valid BidList bidList,
             BindingResult result) {
 
-        logger.info("Request to add new Bid : {}", bidList);
+        logger.atDebug().setMessage("Request to add new Bid").addKeyValue("account", bidList::getAccount).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "bidList/add";
         }
 
         bidListService.save(bidList);
-        logger.info("Bid added : {}", bidList);
+        logger.atInfo().setMessage("Bid added").addKeyValue("id", bidList::getId).log();
         return "redirect:/bidList/list";
     }
 
@@ -107,16 +110,18 @@ public class BidListController {
     public String updateBid(@PathVariable("id") Integer id, @Valid BidList bidList,
                             BindingResult result, Model model) {
 
-        logger.info("Request to update Bid : {}", bidList);
+        logger.atDebug().setMessage("Request to update Bid").addKeyValue("id", id).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             model.addAttribute("bidList", bidList);
             return "bidList/update";
         }
 
         bidListService.update(id, bidList);
-        logger.info("Bid updated : {}", id);
+        logger.atInfo().setMessage("Bid updated").addKeyValue("id", id).log();
 
         return "redirect:/bidList/list";
     }
@@ -129,9 +134,9 @@ public class BidListController {
      */
     @GetMapping("/bidList/delete/{id}")
     public String deleteBid(@PathVariable("id") Integer id) {
-        logger.info("Request to delete Bid : {}", id);
+        logger.atDebug().setMessage("Request to delete Bid").addKeyValue("id", id).log();
         bidListService.delete(id);
-        logger.info("Bid deleted : {}", id);
+        logger.atInfo().setMessage("Bid deleted").addKeyValue("id", id).log();
         return "redirect:/bidList/list";
     }
 }
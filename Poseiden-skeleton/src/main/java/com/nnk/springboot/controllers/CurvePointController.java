@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -67,15 +68,17 @@ public class CurvePointController {
     @PostMapping("/curvePoint/validate")
     public String validate(@Valid CurvePoint curvePoint, BindingResult result, Model model) {
 
-        logger.info("Request to add CurvePoint: {}", curvePoint);
+        logger.atDebug().setMessage("Request to add CurvePoint").addKeyValue("curveId", curvePoint::getCurveId).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "curvePoint/add";
         }
 
         curveService.save(curvePoint);
-        logger.info("New curve point added : {}", curvePoint);
+        logger.atInfo().setMessage("New curve point added").addKeyValue("id", curvePoint::getId).log();
         return "redirect:/curvePoint/list";
     }
 
@@ -107,15 +110,17 @@ public class CurvePointController {
     @PostMapping("/curvePoint/update/{id}")
     public String updateCurve(@PathVariable("id") Integer id, @Valid CurvePoint curvePoint,
                               BindingResult result, Model model) {
-        logger.info("Request to update curve point : {}", curvePoint);
+        logger.atDebug().setMessage("Request to update curve point").addKeyValue("id", id).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "curvePoint/update";
         }
 
         curveService.update(id, curvePoint);
-        logger.info("Curve point updated : {}", curvePoint);
+        logger.atInfo().setMessage("Curve point updated").addKeyValue("id", id).log();
         return "redirect:/curvePoint/list";
     }
 
@@ -128,9 +133,9 @@ public class CurvePointController {
      */
     @GetMapping("/curvePoint/delete/{id}")
     public String deleteCurve(@PathVariable("id") Integer id, Model model) {
-        logger.info("Request to delete curve point : {}", id);
+        logger.atDebug().setMessage("Request to delete curve point").addKeyValue("id", id).log();
         curveService.delete(id);
-        logger.info("Curve point deleted : {}", id);
+        logger.atInfo().setMessage("Curve point deleted").addKeyValue("id", id).log();
         return "redirect:/curvePoint/list";
     }
 }
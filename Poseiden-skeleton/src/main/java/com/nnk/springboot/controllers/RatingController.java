@@ -2,6 +2,8 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.Rating;
 import com.nnk.springboot.service.RatingService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -9,12 +11,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.security.Principal;
+import java.util.List;
 
 
 /**
@@ -67,15 +72,17 @@ public class RatingController {
     @PostMapping("/rating/validate")
     public String validate(@Valid Rating rating, BindingResult result, Model model) {
 
-        logger.info("Request to add Rating: {}", rating);
+        logger.atDebug().setMessage("Request to add Rating").addKeyValue("orderNumber", rating::getOrderNumber).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "rating/add";
         }
 
         ratingService.save(rating);
-        logger.info("New rating added : {}", rating);
+        logger.atInfo().setMessage("New rating added").addKeyValue("id", rating::getId).log();
         return "redirect:/rating/list";
     }
 
@@ -106,15 +113,17 @@ public class RatingController {
     public String updateRating(@PathVariable("id") Integer id, @Valid Rating rating,
                                BindingResult result, Model model) {
 
-        logger.info("Request to update Rating: {}", rating);
+        logger.atDebug().setMessage("Request to update Rating").addKeyValue("id", id).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "rating/update";
         }
 
         ratingService.update(id, rating);
-        logger.info("Rating updated : {}", id);
+        logger.atInfo().setMessage("Rating updated").addKeyValue("id", id).log();
         return "redirect:/rating/list";
     }
 
@@ -127,9 +136,43 @@ public class RatingController {
      */
     @GetMapping("/rating/delete/{id}")
     public String deleteRating(@PathVariable("id") Integer id, Model model) {
-        logger.info("Request to delete Rating with id: {}", id);
+        logger.atDebug().setMessage("Request to delete Rating").addKeyValue("id", id).log();
         ratingService.delete(id);
-        logger.info("Rating deleted : {}", id);
+        logger.atInfo().setMessage("Rating deleted").addKeyValue("id", id).log();
         return "redirect:/rating/list";
     }
+
+    /**
+     * Réordonne les évaluations en une seule opération
+     *
+     * @param ids       Les identifiants des évaluations dans le nouvel ordre
+     * @param model     Le modèle pour la vue
+     * @param principal L'utilisateur connecté
+     * @param response  La réponse HTTP, en 400 ou 404 si l'ordre est refusé
+     * @return Redirection vers la liste des évaluations, ou la liste avec l'erreur si l'ordre est refusé
+     */
+    @PostMapping("/rating/reorder")
+    public String reorderRatings(@RequestParam("ids") List<Integer> ids, Model model, Principal principal,
+                                 HttpServletResponse response) {
+        logger.atDebug().setMessage("Request to reorder Ratings").addKeyValue("ids", ids).log();
+        try {
+            ratingService.reorder(ids);
+        } catch (EntityNotFoundException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return reorderRejected(e.getMessage(), model, principal);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return reorderRejected(e.getMessage(), model, principal);
+        }
+        return "redirect:/rating/list";
+    }
+
+    /**
+     * Réaffiche la liste des évaluations avec le motif du refus de l'ordre demandé
+     */
+    private String reorderRejected(String message, Model model, Principal principal) {
+        logger.atWarn().setMessage("Rating reorder rejected").addKeyValue("reason", message).log();
+        model.addAttribute("reorderError", message);
+        return home(model, principal);
+    }
 }
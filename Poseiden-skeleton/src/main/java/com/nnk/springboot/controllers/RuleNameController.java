@@ -2,24 +2,37 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.RuleName;
 import com.nnk.springboot.service.RuleNameService;
+import com.nnk.springboot.service.RuleSqlService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.security.Principal;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 
 /**
  * Contrôleur pour la gestion des règles (RuleName)
  * Gère les opérations CRUD pour les règles
+ * La requête SQL d'une règle, exécutée par l'export, ne peut être modifiée que par un administrateur
  */
 @Controller
 @RequiredArgsConstructor
@@ -29,16 +42,19 @@ public class RuleNameController {
 
     private final RuleNameService ruleNameService;
 
+    private final RuleSqlService ruleSqlService;
+
     /**
      * Affiche la liste de toutes les règles
      *
-     * @param model     Le modèle pour la vue
-     * @param principal L'utilisateur connecté
+     * @param model          Le modèle pour la vue
+     * @param authentication L'utilisateur connecté
      * @return La vue de la liste des règles
      */
     @RequestMapping("/ruleName/list")
-    public String home(Model model, Principal principal) {
-        model.addAttribute("username", principal.getName());
+    public String home(Model model, Authentication authentication) {
+        model.addAttribute("username", authentication.getName());
+        model.addAttribute("admin", isAdmin(authentication));
         model.addAttribute("ruleNames", ruleNameService.getAll());
         return "ruleName/list";
     }
@@ -58,23 +74,29 @@ public class RuleNameController {
     /**
      * Valide et enregistre une nouvelle règle
      *
-     * @param ruleName La règle à valider
-     * @param result   Le résultat de la validation
-     * @param model    Le modèle pour la vue
+     * @param ruleName       La règle à valider
+     * @param result         Le résultat de la validation
+     * @param model          Le modèle pour la vue
+     * @param authentication L'utilisateur connecté
      * @return Redirection vers la liste ou retour au formulaire si erreurs
      */
     @PostMapping("/ruleName/validate")
-    public String validate(@Valid RuleName ruleName, BindingResult result, Model model) {
+    public String validate(@Valid RuleName ruleName, BindingResult result, Model model, Authentication authentication) {
 
-        logger.info("Request to add RuleName : {}", ruleName);
+        logger.atDebug().setMessage("Request to add RuleName").addKeyValue("name", ruleName::getName).log();
+        if (!isAdmin(authentication)) {
+            rejectSqlChange(ruleName, new RuleName(), result);
+        }
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "ruleName/add";
         }
 
         ruleNameService.save(ruleName);
-        logger.info("New ruleName added : {}", ruleName);
+        logger.atInfo().setMessage("New ruleName added").addKeyValue("id", ruleName::getId).log();
         return "redirect:/ruleName/list";
     }
 
@@ -95,25 +117,31 @@ public class RuleNameController {
     /**
      * Met à jour une règle existante
      *
-     * @param id       L'identifiant de la règle à modifier
-     * @param ruleName La règle avec les nouvelles données
-     * @param result   Le résultat de la validation
-     * @param model    Le modèle pour la vue
+     * @param id             L'identifiant de la règle à modifier
+     * @param ruleName       La règle avec les nouvelles données
+     * @param result         Le résultat de la validation
+     * @param model          Le modèle pour la vue
+     * @param authentication L'utilisateur connecté
      * @return Redirection vers la liste ou retour au formulaire si erreurs
      */
     @PostMapping("/ruleName/update/{id}")
     public String updateRuleName(@PathVariable("id") Integer id, @Valid RuleName ruleName,
-                                 BindingResult result, Model model) {
+                                 BindingResult result, Model model, Authentication authentication) {
 
-        logger.info("Request to update RuleName : {}", ruleName);
+        logger.atDebug().setMessage("Request to update RuleName").addKeyValue("id", id).log();
+        if (!isAdmin(authentication)) {
+            rejectSqlChange(ruleName, ruleNameService.getById(id), result);
+        }
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "ruleName/update";
         }
 
         ruleNameService.update(id, ruleName);
-        logger.info("RuleName updated : {}", id);
+        logger.atInfo().setMessage("RuleName updated").addKeyValue("id", id).log();
         return "redirect:/ruleName/list";
     }
 
@@ -126,9 +154,79 @@ public class RuleNameController {
      */
     @GetMapping("/ruleName/delete/{id}")
     public String deleteRuleName(@PathVariable("id") Integer id, Model model) {
-        logger.info("Request to delete ruleName : {}", id);
+        logger.atDebug().setMessage("Request to delete ruleName").addKeyValue("id", id).log();
         ruleNameService.delete(id);
-        logger.info("RuleName deleted : {}", id);
+        logger.atInfo().setMessage("RuleName deleted").addKeyValue("id", id).log();
         return "redirect:/ruleName/list";
     }
+
+    /**
+     * Exécute la requête SQL d'une règle et retourne ses lignes au format CSV, écrites au fil de la lecture.
+     * Les paramètres de la requête HTTP sont liés aux paramètres nommés de la requête SQL.
+     * Réservé aux administrateurs (voir {@code SecurityConfiguration}).
+     *
+     * @param id         L'identifiant de la règle
+     * @param parameters Les valeurs des paramètres nommés
+     * @param response   La réponse HTTP
+     * @throws IOException si la réponse ne peut pas être écrite
+     */
+    @GetMapping("/ruleName/sql/{id}")
+    public void exportSql(@PathVariable("id") Integer id, @RequestParam Map<String, String> parameters,
+                          HttpServletResponse response) throws IOException {
+        RuleName ruleName = ruleNameService.getById(id);
+        RuleSqlService.PreparedRuleSql prepared;
+        try {
+            prepared = ruleSqlService.prepare(ruleName);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rule-" + prepared.ruleId() + ".csv\"");
+        PrintWriter writer = response.getWriter();
+        boolean[] header = {true};
+        long rows = ruleSqlService.stream(ruleName, parameters, row -> {
+            if (header[0]) {
+                writer.append(csvLine(row.keySet())).append('\n');
+                header[0] = false;
+            }
+            writer.append(csvLine(row.values())).append('\n');
+        });
+        logger.atInfo().setMessage("RuleName sql exported").addKeyValue("id", id).addKeyValue("rows", rows).log();
+    }
+
+    /**
+     * Refuse une requête SQL différente de celle enregistrée : seul un administrateur peut la modifier.
+     *
+     * @param ruleName La règle saisie
+     * @param current  La règle enregistrée
+     * @param result   Le résultat de la validation
+     */
+    private void rejectSqlChange(RuleName ruleName, RuleName current, BindingResult result) {
+        if (!Objects.equals(ruleName.getSqlStr(), current.getSqlStr())) {
+            result.rejectValue("sqlStr", "admin", "Only administrators can change the rule sql");
+        }
+        if (!Objects.equals(ruleName.getSqlPart(), current.getSqlPart())) {
+            result.rejectValue("sqlPart", "admin", "Only administrators can change the rule sql");
+        }
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("ROLE_ADMIN"::equals);
+    }
+
+    private static String csvLine(Collection<?> values) {
+        return values.stream().map(RuleNameController::csvValue).collect(Collectors.joining(","));
+    }
+
+    private static String csvValue(Object value) {
+        String text = value == null ? "" : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
 }
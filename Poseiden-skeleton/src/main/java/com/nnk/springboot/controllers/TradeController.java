@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -73,15 +74,17 @@ public class TradeController {
      */
     @PostMapping("/trade/validate")
     public String validate(@Valid Trade trade, BindingResult result, Model model) {
-        logger.info("Request to add Trade: {}", trade);
+        logger.atDebug().setMessage("Request to add Trade").addKeyValue("account", trade::getAccount).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "trade/add";
         }
 
         Trade savedTrade = tradeService.save(trade);
-        logger.info("New trade added : {}", savedTrade);
+        logger.atInfo().setMessage("New trade added").addKeyValue("id", savedTrade::getId).log();
         return "redirect:/trade/list";
     }
 
@@ -111,15 +114,17 @@ public class TradeController {
     @PostMapping("/trade/update/{id}")
     public String updateTrade(@PathVariable("id") Integer id, @Valid Trade trade,
                               BindingResult result, Model model) {
-        logger.info("Request to update TradeEntity: {}", trade);
+        logger.atDebug().setMessage("Request to update Trade").addKeyValue("id", id).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "trade/update";
         }
 
         tradeService.update(id, trade);
-        logger.info("TradeEntity updated : {}", trade);
+        logger.atInfo().setMessage("Trade updated").addKeyValue("id", id).log();
         return "redirect:/trade/list";
     }
 
@@ -132,9 +137,9 @@ public class TradeController {
      */
     @GetMapping("/trade/delete/{id}")
     public String deleteTrade(@PathVariable("id") Integer id, Model model) {
-        logger.info("Request to delete TradeEntity: {}", id);
+        logger.atDebug().setMessage("Request to delete TradeEntity").addKeyValue("id", id).log();
         tradeService.delete(id);
-        logger.info("TradeEntity deleted : {}", id);
+        logger.atInfo().setMessage("TradeEntity deleted").addKeyValue("id", id).log();
         return "redirect:/trade/list";
     }
 }
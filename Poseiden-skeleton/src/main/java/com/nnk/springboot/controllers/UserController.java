@@ -6,10 +6,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -28,6 +29,8 @@ public class UserController {
 
     private final UserService userService;
 
+    private final PasswordEncoder passwordEncoder;
+
     /**
      * Affiche la liste de tous les utilisateurs enregistrés
      *
@@ -63,19 +66,21 @@ public class UserController {
     @PostMapping("/user/validate")
     public String validate(@Valid User user, BindingResult result, Model model) {
     
-        logger.info("Request to add User: {}", user);
+        logger.atDebug().setMessage("Request to add User").addKeyValue("username", user::getUsername).log();
     
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            // Les valeurs rejetées (dont le mot de passe) ne sont pas loguées
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "user/add";
         }
     
         // Chiffrement du mot de passe avec BCrypt avant l'enregistrement
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        user.setPassword(encoder.encode(user.getPassword()));
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
         userService.save(user);
 
-        logger.info("New user added : {}", user);
+        logger.atInfo().setMessage("New user added").addKeyValue("id", user::getId).log();
         return "redirect:/user/list";
     }
 
@@ -99,18 +104,21 @@ public class UserController {
     public String updateUser(@PathVariable("id") Integer id, @Valid User user,
                              BindingResult result, Model model) {
 
-        logger.info("Request to update User: {}", user);
+        logger.atDebug().setMessage("Request to update User").addKeyValue("id", id).log();
 
         if (result.hasErrors()) {
-            logger.warn("Invalid data for registration : {}", result.getAllErrors());
+            // Les valeurs rejetées (dont le mot de passe) ne sont pas loguées
+            logger.atWarn().setMessage("Invalid data for registration")
+                    .addKeyValue("fields", () -> result.getFieldErrors().stream().map(FieldError::getField).toList())
+                    .log();
             return "user/update";
         }
 
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        user.setPassword(encoder.encode(user.getPassword()));
-        userService.save(user);
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        // Invalide aussi l'ancien nom en cache si l'utilisateur est renommé
+        userService.update(id, user);
 
-        logger.info("User updated : {}", id);
+        logger.atInfo().setMessage("User updated").addKeyValue("id", id).log();
         return "redirect:/user/list";
     }
 
@@ -0,0 +1,41 @@
+package com.nnk.springboot.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point de reprise d'un journal d'écriture anticipée.
+ * Enregistré dans la même transaction que les entités écrites depuis le journal :
+ * les enregistrements de séquence inférieure ou égale sont en base et ne sont pas rejoués.
+ */
+@Entity
+@Table(name = "journal_checkpoint")
+@Data
+@NoArgsConstructor
+public class JournalCheckpoint {
+
+    /**
+     * Nom du journal
+     */
+    @Id
+    private String name;
+
+    /**
+     * Séquence du dernier enregistrement écrit en base
+     */
+    private Long sequence;
+
+    /**
+     * Crée le point de reprise d'un journal
+     *
+     * @param name     Nom du journal
+     * @param sequence Séquence du dernier enregistrement écrit en base
+     */
+    public JournalCheckpoint(String name, Long sequence) {
+        this.name = name;
+        this.sequence = sequence;
+    }
+}
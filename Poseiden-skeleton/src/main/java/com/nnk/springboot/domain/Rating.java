@@ -9,7 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "rating")
+@Table(name = "rating", indexes = @Index(name = "idx_rating_order_number", columnList = "orderNumber"))
 @Data
 @NoArgsConstructor
 /**
@@ -60,6 +60,12 @@ public class RuleName {
     @NotBlank(message = "SqlPart is mandatory")
     private String sqlPart;
 
+    /**
+     * Version de la règle, incrémentée à chaque modification
+     */
+    @Version
+    private int version;
+
 
     /**
      * Constructeur avec paramètres pour créer une nouvelle règle
@@ -0,0 +1,68 @@
+package com.nnk.springboot.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * État d'exécution planifiée d'une règle.
+ * Conserve la marque haute (dernier trade traité et dernière date de révision vue)
+ * afin que chaque exécution n'évalue que les trades nouveaux ou modifiés,
+ * ainsi que les mesures de la dernière exécution.
+ */
+@Entity
+@Table(name = "rule_run_state")
+@Data
+@NoArgsConstructor
+public class RuleRunState {
+
+    /**
+     * Identifiant de la règle (RuleName) concernée
+     */
+    @Id
+    private Integer ruleId;
+
+    /**
+     * Identifiant du dernier trade évalué
+     */
+    private Integer lastTradeId;
+
+    /**
+     * Date de révision la plus récente parmi les trades modifiés évalués
+     */
+    private LocalDateTime lastRevisionDate;
+
+    /**
+     * Date de la dernière exécution
+     */
+    private LocalDateTime lastRunDate;
+
+    /**
+     * Durée de la dernière exécution, en millisecondes
+     */
+    private Long lastDurationMs;
+
+    /**
+     * Nombre de trades lus lors de la dernière exécution
+     */
+    private Long lastRowsScanned;
+
+    /**
+     * Nombre de trades satisfaisant la règle lors de la dernière exécution
+     */
+    private Long lastMatches;
+
+    /**
+     * Crée l'état initial d'une règle jamais exécutée
+     *
+     * @param ruleId Identifiant de la règle
+     */
+    public RuleRunState(Integer ruleId) {
+        this.ruleId = ruleId;
+        this.lastTradeId = 0;
+    }
+}
@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
  * Cette entité stocke les informations relatives aux transactions effectuées
  */
 @Entity
-@Table(name = "trade")
+@Table(name = "trade", indexes = @Index(name = "idx_trade_revision_date", columnList = "revisionDate"))
 @Data
 @NoArgsConstructor
 public class Trade {
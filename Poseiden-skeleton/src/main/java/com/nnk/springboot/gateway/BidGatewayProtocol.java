@@ -0,0 +1,201 @@
+package com.nnk.springboot.gateway;
+
+import com.nnk.springboot.domain.BidList;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Protocole binaire de la passerelle d'ingestion des enchères ({@link BidGatewayServer}).
+ *
+ * <p>Chaque message est une trame {@code [longueur int][type byte][corps]}, en big-endian, où la
+ * longueur compte le type et le corps et ne dépasse pas {@link #MAX_FRAME_BYTES}. Les chaînes sont
+ * en UTF-8 précédées de leur longueur ({@code short}) ; un {@code double} absent vaut NaN.</p>
+ *
+ * <ul>
+ *     <li>{@link #AUTH} : {@code [jeton string]}, jeton émis par {@code POST /api/token} ;
+ *     réponse {@link #AUTH_OK} sans corps, ou {@link #NACK} suivi de la fermeture.</li>
+ *     <li>{@link #BID} : {@code [corrélation long][bidQuantity double][askQuantity double][bid double]
+ *     [ask double][account string][type string]} ; réponse {@link #ACK}
+ *     {@code [corrélation long][id int]} ou {@link #NACK} {@code [corrélation long][raison byte]}.</li>
+ * </ul>
+ *
+ * <p>La corrélation est choisie par le client et lui est renvoyée telle quelle ; les réponses
+ * d'une même connexion peuvent arriver dans un ordre différent des enchères.</p>
+ */
+public final class BidGatewayProtocol {
+
+    public static final int MAX_FRAME_BYTES = 1024;
+
+    public static final byte AUTH = 1;
+
+    public static final byte BID = 2;
+
+    public static final byte AUTH_OK = (byte) 0x81;
+
+    public static final byte ACK = (byte) 0x82;
+
+    public static final byte NACK = (byte) 0x83;
+
+    /**
+     * Raison d'un {@link #NACK} : enchère invalide
+     */
+    public static final byte INVALID = 1;
+
+    /**
+     * Raison d'un {@link #NACK} : jeton absent, invalide ou expiré
+     */
+    public static final byte UNAUTHENTICATED = 2;
+
+    /**
+     * Raison d'un {@link #NACK} : enchère non enregistrée, à soumettre de nouveau
+     */
+    public static final byte UNAVAILABLE = 3;
+
+    /**
+     * Taille de la plus grande réponse à une enchère, longueur comprise
+     */
+    public static final int RESPONSE_BYTES = Integer.BYTES + 1 + Long.BYTES + Integer.BYTES;
+
+    private BidGatewayProtocol() {
+    }
+
+    /**
+     * Trame d'enchère décodée.
+     *
+     * @param correlationId corrélation choisie par le client
+     * @param bidList       l'enchère
+     */
+    public record BidFrame(long correlationId, BidList bidList) {
+    }
+
+    /**
+     * Écrit une trame {@link #AUTH}.
+     *
+     * @param buffer le tampon de destination
+     * @param token  le jeton d'accès
+     */
+    public static void writeAuth(ByteBuffer buffer, String token) {
+        int start = begin(buffer, AUTH);
+        putString(buffer, token);
+        end(buffer, start);
+    }
+
+    /**
+     * Écrit une trame {@link #BID}.
+     *
+     * @param buffer        le tampon de destination
+     * @param correlationId corrélation renvoyée dans la réponse
+     * @param bidList       l'enchère
+     */
+    public static void writeBid(ByteBuffer buffer, long correlationId, BidList bidList) {
+        int start = begin(buffer, BID);
+        buffer.putLong(correlationId)
+                .putDouble(orNaN(bidList.getBidQuantity()))
+                .putDouble(orNaN(bidList.getAskQuantity()))
+                .putDouble(orNaN(bidList.getBid()))
+                .putDouble(orNaN(bidList.getAsk()));
+        putString(buffer, bidList.getAccount());
+        putString(buffer, bidList.getType());
+        end(buffer, start);
+    }
+
+    /**
+     * Lit le corps d'une trame {@link #BID}, le type déjà lu.
+     *
+     * @param buffer le tampon positionné sur le corps
+     * @return l'enchère décodée
+     * @throws BufferUnderflowException si le corps est tronqué
+     */
+    public static BidFrame readBid(ByteBuffer buffer) {
+        long correlationId = buffer.getLong();
+        BidList bidList = new BidList();
+        bidList.setBidQuantity(orNull(buffer.getDouble()));
+        bidList.setAskQuantity(orNull(buffer.getDouble()));
+        bidList.setBid(orNull(buffer.getDouble()));
+        bidList.setAsk(orNull(buffer.getDouble()));
+        bidList.setAccount(getString(buffer));
+        bidList.setType(getString(buffer));
+        return new BidFrame(correlationId, bidList);
+    }
+
+    /**
+     * Lit le corps d'une trame {@link #AUTH}, le type déjà lu.
+     *
+     * @param buffer le tampon positionné sur le corps
+     * @return le jeton
+     * @throws BufferUnderflowException si le corps est tronqué
+     */
+    public static String readAuth(ByteBuffer buffer) {
+        return getString(buffer);
+    }
+
+    /**
+     * Écrit une trame {@link #AUTH_OK}.
+     *
+     * @param buffer le tampon de destination
+     */
+    public static void writeAuthOk(ByteBuffer buffer) {
+        end(buffer, begin(buffer, AUTH_OK));
+    }
+
+    /**
+     * Écrit une trame {@link #ACK}.
+     *
+     * @param buffer        le tampon de destination
+     * @param correlationId corrélation de l'enchère
+     * @param id            identifiant de l'enchère enregistrée
+     */
+    public static void writeAck(ByteBuffer buffer, long correlationId, int id) {
+        int start = begin(buffer, ACK);
+        buffer.putLong(correlationId).putInt(id);
+        end(buffer, start);
+    }
+
+    /**
+     * Écrit une trame {@link #NACK}.
+     *
+     * @param buffer        le tampon de destination
+     * @param correlationId corrélation de l'enchère, 0 pour une authentification
+     * @param reason        {@link #INVALID}, {@link #UNAUTHENTICATED} ou {@link #UNAVAILABLE}
+     */
+    public static void writeNack(ByteBuffer buffer, long correlationId, byte reason) {
+        int start = begin(buffer, NACK);
+        buffer.putLong(correlationId).put(reason);
+        end(buffer, start);
+    }
+
+    private static int begin(ByteBuffer buffer, byte type) {
+        int start = buffer.position();
+        buffer.putInt(0).put(type);
+        return start;
+    }
+
+    private static void end(ByteBuffer buffer, int start) {
+        buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static double orNaN(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
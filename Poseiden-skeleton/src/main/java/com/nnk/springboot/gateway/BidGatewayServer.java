@@ -0,0 +1,512 @@
+package com.nnk.springboot.gateway;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.service.ApiTokenService;
+import com.nnk.springboot.service.BidIngestRejectedException;
+import com.nnk.springboot.service.BidListService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Passerelle d'ingestion des enchères sur un port dédié, en protocole binaire ({@link BidGatewayProtocol}),
+ * activée par {@code poseidon.gateway.enabled=true}. Elle requiert les jetons de l'API
+ * ({@code poseidon.security.api-token.enabled=true}) : chaque connexion s'authentifie par un jeton
+ * émis par {@code POST /api/token}.
+ *
+ * <p>Un seul thread sert toutes les connexions en NIO non bloquant. Chaque connexion prend dans un
+ * pool deux tampons directs préalloués, de lecture et d'écriture, rendus à sa fermeture ; les enchères
+ * sont décodées directement dans le tampon de lecture, validées, puis soumises par
+ * {@link BidListService#submit(BidList, String)} sur les threads {@code workers}, pour ne jamais
+ * bloquer le thread réseau sur la base. Les réponses sont écrites par le thread réseau, regroupées :
+ * une écriture par connexion pour toutes les réponses d'un tour.</p>
+ *
+ * <p>Au-delà de {@code max-in-flight} enchères sans réponse sur une connexion, sa lecture est suspendue
+ * jusqu'aux réponses suivantes : le client est freiné par TCP plutôt que par des files en mémoire.
+ * Les limitations de débit et d'admission des requêtes HTTP ne s'appliquent pas à la passerelle.</p>
+ *
+ * <p>Métriques : {@code poseidon.gateway.connections} et {@code poseidon.gateway.bids} (par résultat,
+ * {@code ack} ou {@code nack}).</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "poseidon.gateway", name = "enabled", havingValue = "true")
+public class BidGatewayServer {
+
+    private final Logger logger = LoggerFactory.getLogger(BidGatewayServer.class);
+
+    private final BidListService bidListService;
+
+    private final ApiTokenService apiTokenService;
+
+    private final Validator validator;
+
+    private final Clock clock;
+
+    private final InetSocketAddress address;
+
+    private final int maxInFlight;
+
+    private final ExecutorService workers;
+
+    /**
+     * Tampons directs libres, manipulés par le seul thread réseau
+     */
+    private final Queue<ByteBuffer> bufferPool = new ArrayDeque<>();
+
+    /**
+     * Réponses des enchères soumises, à écrire par le thread réseau
+     */
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Évite un réveil du sélecteur par réponse quand il est déjà demandé
+     */
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    /**
+     * Connexions dont le tampon d'écriture a été rempli pendant le tour courant
+     */
+    private List<Connection> dirty = new ArrayList<>();
+
+    /**
+     * Connexions en cours d'écriture, échangée avec {@link #dirty} à chaque vidage
+     */
+    private List<Connection> flushing = new ArrayList<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Counter ackCounter;
+
+    private final Counter nackCounter;
+
+    private Selector selector;
+
+    private ServerSocketChannel serverChannel;
+
+    private Thread thread;
+
+    private volatile boolean running;
+
+    public BidGatewayServer(BidListService bidListService,
+                            ApiTokenService apiTokenService,
+                            Validator validator,
+                            MeterRegistry meterRegistry,
+                            @Value("${poseidon.gateway.host:127.0.0.1}") String host,
+                            @Value("${poseidon.gateway.port:9090}") int port,
+                            @Value("${poseidon.gateway.max-connections:64}") int maxConnections,
+                            @Value("${poseidon.gateway.max-in-flight:1024}") int maxInFlight,
+                            @Value("${poseidon.gateway.buffer-size-kb:64}") int bufferSizeKb,
+                            @Value("${poseidon.gateway.workers:4}") int workers) {
+        int bufferSize = bufferSizeKb * 1024;
+        // Le tampon d'écriture doit pouvoir recevoir la réponse de chaque enchère sans réponse
+        if (bufferSize < (maxInFlight + 1) * BidGatewayProtocol.RESPONSE_BYTES
+                || bufferSize < BidGatewayProtocol.MAX_FRAME_BYTES + Integer.BYTES) {
+            throw new IllegalArgumentException("Gateway buffer of " + bufferSizeKb + " KB too small for "
+                    + maxInFlight + " bids in flight");
+        }
+        this.bidListService = bidListService;
+        this.apiTokenService = apiTokenService;
+        this.validator = validator;
+        this.clock = Clock.systemUTC();
+        this.address = new InetSocketAddress(host, port);
+        this.maxInFlight = maxInFlight;
+        for (int i = 0; i < 2 * maxConnections; i++) {
+            bufferPool.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread worker = new Thread(runnable, "bid-gateway-worker-" + workerCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        });
+        Gauge.builder("poseidon.gateway.connections", connections, AtomicInteger::get)
+                .description("Connexions ouvertes sur la passerelle d'ingestion")
+                .register(meterRegistry);
+        this.ackCounter = Counter.builder("poseidon.gateway.bids").tag("result", "ack")
+                .description("Enchères reçues par la passerelle d'ingestion")
+                .register(meterRegistry);
+        this.nackCounter = Counter.builder("poseidon.gateway.bids").tag("result", "nack")
+                .description("Enchères reçues par la passerelle d'ingestion")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ouvre le port et démarre le thread réseau.
+     *
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        thread = new Thread(this::run, "bid-gateway");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Bid gateway listening on {}", serverChannel.getLocalAddress());
+    }
+
+    /**
+     * @return le port d'écoute, utile quand le port configuré est 0
+     */
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Ferme le port et toutes les connexions ; les enchères déjà soumises restent enregistrées sans réponse.
+     *
+     * @throws InterruptedException si l'arrêt est interrompu
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                wakeupPending.set(false);
+                Runnable completion;
+                while ((completion = completions.poll()) != null) {
+                    completion.run();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isWritable()) {
+                            connection.flush();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read();
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+                // Une écriture qui vide le tampon reprend les trames en attente, dont les réponses
+                // marquent de nouveau la connexion : elles sont écrites au passage suivant, dans ce tour
+                while (!dirty.isEmpty()) {
+                    List<Connection> written = dirty;
+                    dirty = flushing;
+                    flushing = written;
+                    for (Connection connection : written) {
+                        connection.queued = false;
+                        connection.flush();
+                    }
+                    written.clear();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Bid gateway stopped", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    connection.close();
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                logger.warn("Bid gateway not closed cleanly : {}", e.getMessage());
+            }
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel = null;
+        try {
+            channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            if (bufferPool.size() < 2) {
+                logger.warn("Bid gateway connection from {} refused, too many connections", channel.getRemoteAddress());
+                channel.close();
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel, bufferPool.poll(), bufferPool.poll());
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.incrementAndGet();
+        } catch (IOException e) {
+            logger.warn("Bid gateway connection not accepted : {}", e.getMessage());
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Connexion déjà perdue
+                }
+            }
+        }
+    }
+
+    /**
+     * Remet une réponse au thread réseau, appelé à la fin de l'enregistrement d'une enchère.
+     */
+    private void complete(Connection connection, long correlationId, BidList saved, Throwable error) {
+        completions.add(() -> connection.respond(correlationId, saved, error));
+        if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Connexion d'un client, manipulée par le seul thread réseau
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+
+        private final ByteBuffer readBuffer;
+
+        private final ByteBuffer writeBuffer;
+
+        private SelectionKey key;
+
+        private String username;
+
+        private long expiresAt;
+
+        private int inFlight;
+
+        private boolean closeAfterFlush;
+
+        /**
+         * Vrai quand la connexion est dans {@link #dirty}
+         */
+        private boolean queued;
+
+        private boolean closed;
+
+        private Connection(SocketChannel channel, ByteBuffer readBuffer, ByteBuffer writeBuffer) {
+            this.channel = channel;
+            this.readBuffer = readBuffer.clear();
+            this.writeBuffer = writeBuffer.clear();
+        }
+
+        private void read() {
+            try {
+                if (channel.read(readBuffer) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            decode();
+        }
+
+        /**
+         * Traite les trames complètes du tampon de lecture, tant que les réponses ont leur place réservée.
+         */
+        private void decode() {
+            readBuffer.flip();
+            while (!closeAfterFlush && readBuffer.remaining() >= Integer.BYTES && hasRoomForResponse()) {
+                int start = readBuffer.position();
+                int length = readBuffer.getInt(start);
+                if (length <= 0 || length > BidGatewayProtocol.MAX_FRAME_BYTES) {
+                    logger.warn("Bid gateway frame of {} bytes from {}, closing", length, username);
+                    close();
+                    return;
+                }
+                if (readBuffer.remaining() < Integer.BYTES + length) {
+                    break;
+                }
+                int limit = readBuffer.limit();
+                int end = start + Integer.BYTES + length;
+                readBuffer.position(start + Integer.BYTES).limit(end);
+                try {
+                    handle(readBuffer.get());
+                } catch (BufferUnderflowException e) {
+                    logger.warn("Malformed bid gateway frame from {}, closing", username);
+                    close();
+                    return;
+                }
+                readBuffer.limit(limit).position(end);
+            }
+            readBuffer.compact();
+            // Lecture suspendue tant que les réponses attendues n'ont pas de place
+            key.interestOps(hasRoomForResponse() && !closeAfterFlush
+                    ? key.interestOps() | SelectionKey.OP_READ
+                    : key.interestOps() & ~SelectionKey.OP_READ);
+        }
+
+        private boolean hasRoomForResponse() {
+            return inFlight < maxInFlight && writeBuffer.remaining() >= (inFlight + 1) * BidGatewayProtocol.RESPONSE_BYTES;
+        }
+
+        private void handle(byte type) {
+            switch (type) {
+                case BidGatewayProtocol.AUTH -> authenticate(BidGatewayProtocol.readAuth(readBuffer));
+                case BidGatewayProtocol.BID -> submit(BidGatewayProtocol.readBid(readBuffer));
+                default -> {
+                    logger.warn("Unknown bid gateway frame type {} from {}, closing", type, username);
+                    closeAfterFlush = true;
+                }
+            }
+        }
+
+        private void authenticate(String token) {
+            apiTokenService.verify(token).ifPresentOrElse(apiToken -> {
+                username = apiToken.username();
+                expiresAt = apiToken.expiresAt();
+                BidGatewayProtocol.writeAuthOk(writeBuffer);
+            }, () -> {
+                logger.warn("Invalid token on bid gateway from {}", remoteAddress());
+                BidGatewayProtocol.writeNack(writeBuffer, 0, BidGatewayProtocol.UNAUTHENTICATED);
+                closeAfterFlush = true;
+            });
+            markDirty();
+        }
+
+        private void submit(BidGatewayProtocol.BidFrame frame) {
+            if (username == null || clock.instant().getEpochSecond() >= expiresAt) {
+                nack(frame.correlationId(), BidGatewayProtocol.UNAUTHENTICATED);
+                return;
+            }
+            if (!validator.validate(frame.bidList()).isEmpty()) {
+                nack(frame.correlationId(), BidGatewayProtocol.INVALID);
+                return;
+            }
+            inFlight++;
+            String submitter = username;
+            CompletableFuture.supplyAsync(() -> bidListService.submit(frame.bidList(), submitter), workers)
+                    .thenCompose(result -> result)
+                    .whenComplete((saved, error) -> complete(this, frame.correlationId(), saved, error));
+        }
+
+        /**
+         * Écrit la réponse d'une enchère soumise, sur le thread réseau.
+         */
+        private void respond(long correlationId, BidList saved, Throwable error) {
+            inFlight--;
+            if (closed) {
+                return;
+            }
+            if (error == null) {
+                BidGatewayProtocol.writeAck(writeBuffer, correlationId, saved.getId());
+                ackCounter.increment();
+                markDirty();
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof ConstraintViolationException || cause instanceof BidIngestRejectedException)) {
+                    logger.warn("Bid from {} not saved : {}", username, cause.getMessage());
+                }
+                nack(correlationId, cause instanceof ConstraintViolationException
+                        ? BidGatewayProtocol.INVALID
+                        : BidGatewayProtocol.UNAVAILABLE);
+            }
+            // Reprend les trames en attente dans le tampon de lecture
+            decode();
+        }
+
+        private void nack(long correlationId, byte reason) {
+            BidGatewayProtocol.writeNack(writeBuffer, correlationId, reason);
+            nackCounter.increment();
+            markDirty();
+        }
+
+        private void markDirty() {
+            if (!queued) {
+                queued = true;
+                dirty.add(this);
+            }
+        }
+
+        private void flush() {
+            if (closed) {
+                return;
+            }
+            try {
+                writeBuffer.flip();
+                channel.write(writeBuffer);
+                writeBuffer.compact();
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            boolean pending = writeBuffer.position() > 0;
+            if (!pending && closeAfterFlush) {
+                close();
+                return;
+            }
+            key.interestOps(pending
+                    ? key.interestOps() | SelectionKey.OP_WRITE
+                    : key.interestOps() & ~SelectionKey.OP_WRITE);
+            if (!pending) {
+                decode();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Bid gateway connection not closed cleanly : {}", e.getMessage());
+            }
+            bufferPool.add(readBuffer.clear());
+            bufferPool.add(writeBuffer.clear());
+            connections.decrementAndGet();
+        }
+
+        private Object remoteAddress() {
+            try {
+                return channel.getRemoteAddress();
+            } catch (IOException e) {
+                return "?";
+            }
+        }
+    }
+}
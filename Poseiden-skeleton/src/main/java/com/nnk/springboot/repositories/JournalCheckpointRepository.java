@@ -0,0 +1,9 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -4,7 +4,16 @@ import com.nnk.springboot.domain.Rating;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Integer> {
 
+    /**
+     * Récupère toutes les notations triées par numéro d'ordre croissant.
+     * La lecture s'appuie sur l'index {@code idx_rating_order_number}.
+     *
+     * @return la liste des notations ordonnées
+     */
+    List<Rating> findAllByOrderByOrderNumberAsc();
 }
@@ -1,8 +1,42 @@
-package com.nnk.springboot.repositories;
-
-import com.nnk.springboot.domain.Trade;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-public interface TradeRepository extends JpaRepository<Trade, Integer> {
-}
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.Trade;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TradeRepository extends JpaRepository<Trade, Integer> {
+
+    /**
+     * Récupère les trades créés après un identifiant donné, par ordre d'identifiant.
+     * Utilisé pour parcourir la table par pages successives (pagination par clé).
+     *
+     * @param id       identifiant du dernier trade déjà traité
+     * @param pageable taille de la page
+     * @return les trades suivants
+     */
+    List<Trade> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+    /**
+     * Récupère une page de trades déjà traités révisés depuis une position donnée, par date de
+     * révision puis identifiant. La position ({@code since}, {@code afterId}) est celle du dernier
+     * trade de la page précédente, pour parcourir la table par pages successives (pagination par clé).
+     * S'appuie sur l'index {@code idx_trade_revision_date}.
+     *
+     * @param lastId   identifiant du dernier trade déjà traité
+     * @param since    date de révision de départ
+     * @param afterId  identifiant du dernier trade lu à la date {@code since}, 0 au départ
+     * @param pageable taille de la page
+     * @return les trades révisés suivants
+     */
+    @Query("select t from Trade t where t.id <= :lastId"
+            + " and (t.revisionDate > :since or (t.revisionDate = :since and t.id > :afterId))"
+            + " order by t.revisionDate, t.id")
+    List<Trade> findRevisedSince(@Param("lastId") Integer lastId, @Param("since") LocalDateTime since,
+                                 @Param("afterId") Integer afterId, Pageable pageable);
+}
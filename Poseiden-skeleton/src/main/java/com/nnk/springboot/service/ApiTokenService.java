@@ -0,0 +1,143 @@
+package com.nnk.springboot.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Émission et vérification des jetons d'accès sans état des clients de l'API.
+ *
+ * <p>Un jeton est {@code base64url(charge).base64url(signature)} : la charge contient le nom
+ * d'utilisateur, ses rôles et la date d'expiration, la signature est un HMAC-SHA256 de la charge.
+ * La vérification ne fait qu'un calcul de HMAC, sans accès à la base ni à une session : un
+ * changement de rôle ou une suppression d'utilisateur ne prend donc effet qu'à l'expiration
+ * des jetons déjà émis, d'où une durée de validité courte.</p>
+ */
+public class ApiTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Une instance de {@link Mac} par thread, ces instances n'étant pas utilisables en parallèle
+     */
+    private final ThreadLocal<Mac> mac;
+
+    private final Duration ttl;
+
+    private final Clock clock;
+
+    /**
+     * Jeton vérifié.
+     *
+     * @param username    nom d'utilisateur
+     * @param authorities rôles de l'utilisateur
+     * @param expiresAt   date d'expiration, en secondes depuis l'epoch
+     */
+    public record ApiToken(String username, List<GrantedAuthority> authorities, long expiresAt) {
+    }
+
+    /**
+     * Jeton émis.
+     *
+     * @param token     le jeton signé
+     * @param expiresIn durée de validité, en secondes
+     */
+    public record IssuedToken(String token, long expiresIn) {
+    }
+
+    /**
+     * @param secret clé de signature (au moins 32 octets)
+     * @param ttl    durée de validité des jetons
+     * @param clock  horloge utilisée pour l'expiration
+     */
+    public ApiTokenService(byte[] secret, Duration ttl, Clock clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Api token secret must be at least 32 bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Émet un jeton pour un utilisateur authentifié.
+     *
+     * @param authentication l'authentification de l'utilisateur
+     * @return le jeton émis
+     */
+    public IssuedToken issue(Authentication authentication) {
+        StringBuilder payload = new StringBuilder(authentication.getName());
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            payload.append('\n').append(authority.getAuthority());
+        }
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        payload.append('\n').append(expiresAt);
+
+        String encodedPayload = ENCODER.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload)), ttl.toSeconds());
+    }
+
+    /**
+     * Vérifie la signature et l'expiration d'un jeton.
+     *
+     * @param token le jeton
+     * @return le jeton vérifié, vide si le jeton est mal formé, falsifié ou expiré
+     */
+    public Optional<ApiToken> verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String encodedPayload = token.substring(0, separator);
+        byte[] signature;
+        String[] parts;
+        try {
+            signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(encodedPayload), signature)) {
+                return Optional.empty();
+            }
+            parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\n");
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        long expiresAt = Long.parseLong(parts[parts.length - 1]);
+        if (clock.instant().getEpochSecond() >= expiresAt) {
+            return Optional.empty();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(parts.length - 2);
+        for (int i = 1; i < parts.length - 1; i++) {
+            authorities.add(new SimpleGrantedAuthority(parts[i]));
+        }
+        return Optional.of(new ApiToken(parts[0], authorities, expiresAt));
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,18 @@
+package com.nnk.springboot.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception rendue lorsqu'une nouvelle enchère est refusée faute de place dans la chaîne d'ingestion.
+ *
+ * <p>L'enchère n'est pas enregistrée et peut être soumise de nouveau : la passerelle répond par un
+ * refus {@code UNAVAILABLE}, et l'exception se traduit par une réponse 503 lorsqu'elle remonte d'un contrôleur.</p>
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BidIngestRejectedException extends RuntimeException {
+
+    public BidIngestRejectedException(String message) {
+        super(message);
+    }
+}
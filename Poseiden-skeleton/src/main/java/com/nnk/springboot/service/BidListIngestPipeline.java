@@ -0,0 +1,442 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.repositories.BidListRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Chaîne d'ingestion des nouvelles enchères (BidList) en étapes, activée par
+ * {@code poseidon.bidlist.pipeline.enabled=true}.
+ *
+ * <p>Les enchères soumises sont placées dans un anneau de cases préallouées, puis traversent trois
+ * étapes, chacune sur son propre thread : validation (contraintes de {@link BidList}),
+ * enrichissement ({@code creationName}, {@code creationDate}) et écriture en base. Chaque étape
+ * avance son propre curseur dans l'anneau et suit celui de l'étape précédente, sans verrou ni file
+ * intermédiaire. L'écriture prend d'un coup tout ce que l'enrichissement a terminé, dans la limite de
+ * {@code batch-size} : plus la charge monte, plus les lots sont grands. Une étape sans travail attend
+ * brièvement en actif, puis s'endort jusqu'à ce que l'étape précédente, ou un producteur, la réveille.</p>
+ *
+ * <p>Un lot refusé par la base est réécrit enchère par enchère : seules les enchères encore refusées
+ * sont rendues en erreur. Si la base elle-même est en cause, les enchères restantes du lot sont rendues
+ * en erreur sans nouvel essai.</p>
+ *
+ * <p>Le résultat est rendu par un {@link CompletableFuture} complété sur le thread d'écriture : ses
+ * suites doivent rester courtes. Quand l'anneau est plein, {@link #tryPublish(BidList, String)}
+ * refuse l'enchère plutôt que d'attendre.</p>
+ *
+ * <p>Métriques : {@code poseidon.bidlist.pipeline.stage} (attente et traitement de chaque enchère,
+ * par étape), {@code poseidon.bidlist.pipeline.batch} (taille des lots écrits),
+ * {@code poseidon.bidlist.pipeline.backlog} et {@code poseidon.bidlist.pipeline.rejected}.</p>
+ */
+@Service
+@ConditionalOnProperty(prefix = "poseidon.bidlist.pipeline", name = "enabled", havingValue = "true")
+public class BidListIngestPipeline {
+
+    /**
+     * Attentes actives d'une étape sans travail avant de s'endormir
+     */
+    private static final int SPINS = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(BidListIngestPipeline.class);
+
+    private final BidListRepository bidListRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final int batchSize;
+
+    private final Slot[] slots;
+
+    private final int mask;
+
+    /**
+     * Dernière séquence réservée par un producteur
+     */
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * Séquence publiée dans chaque case : une case est lisible quand elle porte la séquence attendue
+     */
+    private final AtomicLongArray published;
+
+    private final AtomicLong validated = new AtomicLong(-1);
+
+    private final AtomicLong enriched = new AtomicLong(-1);
+
+    private final AtomicLong persisted = new AtomicLong(-1);
+
+    private final Timer validateTimer;
+
+    private final Timer enrichTimer;
+
+    private final Timer persistTimer;
+
+    private final DistributionSummary batchSummary;
+
+    private final Counter rejectedCounter;
+
+    private final StageWorker validateStage;
+
+    private final StageWorker enrichStage;
+
+    private final StageWorker persistStage;
+
+    private volatile boolean running;
+
+    /**
+     * Étape de la chaîne, sur son propre thread : traite les séquences que l'étape précédente a terminées
+     */
+    private static final class StageWorker implements Runnable {
+
+        private final String name;
+
+        private final AtomicLong cursor;
+
+        private final LongSupplier upstream;
+
+        private final Stage stage;
+
+        /**
+         * Étape suivante, réveillée quand celle-ci avance
+         */
+        private final StageWorker next;
+
+        private Thread thread;
+
+        /**
+         * Vrai pendant que le thread s'endort faute de travail
+         */
+        private volatile boolean sleeping;
+
+        private StageWorker(String name, AtomicLong cursor, LongSupplier upstream, Stage stage, StageWorker next) {
+            this.name = name;
+            this.cursor = cursor;
+            this.upstream = upstream;
+            this.stage = stage;
+            this.next = next;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                long first = cursor.get() + 1;
+                long available = upstream.getAsLong();
+                if (available < first) {
+                    if (++idle < SPINS) {
+                        Thread.onSpinWait();
+                    } else {
+                        sleeping = true;
+                        // Relit après l'annonce : une avance publiée entre-temps réveille le thread ou est vue ici
+                        if (upstream.getAsLong() < first) {
+                            LockSupport.park(this);
+                        }
+                        sleeping = false;
+                    }
+                    continue;
+                }
+                idle = 0;
+                cursor.set(stage.process(first, available));
+                if (next != null) {
+                    next.wake();
+                }
+            }
+        }
+
+        private void wake() {
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Case de l'anneau, réutilisée d'un tour à l'autre
+     */
+    private static final class Slot {
+        private BidList bidList;
+        private String username;
+        private CompletableFuture<BidList> result;
+        private RuntimeException failure;
+        private long stageStartNanos;
+    }
+
+    public BidListIngestPipeline(BidListRepository bidListRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 Validator validator,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${poseidon.bidlist.pipeline.capacity:1024}") int capacity,
+                                 @Value("${poseidon.bidlist.pipeline.batch-size:256}") int batchSize) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Pipeline capacity must be a power of two : " + capacity);
+        }
+        this.bidListRepository = bidListRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.validateTimer = stageTimer(meterRegistry, "validate");
+        this.enrichTimer = stageTimer(meterRegistry, "enrich");
+        this.persistTimer = stageTimer(meterRegistry, "persist");
+        this.batchSummary = DistributionSummary.builder("poseidon.bidlist.pipeline.batch")
+                .description("Nombre d'enchères écrites par lot")
+                .register(meterRegistry);
+        Gauge.builder("poseidon.bidlist.pipeline.backlog", this, pipeline -> pipeline.claimed.get() - pipeline.persisted.get())
+                .description("Enchères soumises pas encore écrites en base")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("poseidon.bidlist.pipeline.rejected")
+                .description("Enchères refusées, anneau plein ou chaîne arrêtée")
+                .register(meterRegistry);
+        this.persistStage = new StageWorker("persist", persisted, enriched::get, this::persist, null);
+        this.enrichStage = new StageWorker("enrich", enriched, validated::get, this::enrich, persistStage);
+        this.validateStage = new StageWorker("validate", validated, this::lastPublished, this::validate, enrichStage);
+        this.running = true;
+    }
+
+    /**
+     * Démarre un thread par étape.
+     */
+    @PostConstruct
+    public void start() {
+        for (StageWorker worker : List.of(validateStage, enrichStage, persistStage)) {
+            worker.thread = new Thread(worker, "bidlist-pipeline-" + worker.name);
+            worker.thread.setDaemon(true);
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Soumet une nouvelle enchère à la chaîne.
+     *
+     * @param bidList  l'enchère à enregistrer
+     * @param username l'utilisateur qui la soumet, repris dans {@code creationName}
+     * @return le résultat, complété avec l'enchère enregistrée ou en erreur
+     * ({@link ConstraintViolationException} si elle est invalide), ou {@code null} si l'anneau est plein
+     */
+    public CompletableFuture<BidList> tryPublish(BidList bidList, String username) {
+        long sequence;
+        do {
+            sequence = claimed.get() + 1;
+            // La case ne doit plus être en cours d'écriture du tour précédent
+            if (!running || sequence - slots.length > persisted.get()) {
+                rejectedCounter.increment();
+                return null;
+            }
+        } while (!claimed.compareAndSet(sequence - 1, sequence));
+
+        Slot slot = slots[(int) sequence & mask];
+        CompletableFuture<BidList> result = new CompletableFuture<>();
+        slot.bidList = bidList;
+        slot.username = username;
+        slot.result = result;
+        slot.failure = null;
+        slot.stageStartNanos = System.nanoTime();
+        published.set((int) sequence & mask, sequence);
+        validateStage.wake();
+        return result;
+    }
+
+    /**
+     * Arrête la chaîne après l'écriture des enchères déjà soumises, dans la limite de dix secondes ;
+     * les enchères restantes, ou toutes si la chaîne n'a pas été démarrée, sont rendues en erreur.
+     *
+     * @throws InterruptedException si l'arrêt est interrompu
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        boolean started = persistStage.thread != null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (started && persisted.get() < claimed.get() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        for (StageWorker worker : List.of(validateStage, enrichStage, persistStage)) {
+            if (worker.thread != null) {
+                worker.thread.interrupt();
+                worker.thread.join();
+            }
+        }
+        for (long sequence = persisted.get() + 1; sequence <= claimed.get(); sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            if (published.get((int) sequence & mask) == sequence) {
+                slot.result.completeExceptionally(new IllegalStateException("Bid pipeline stopped"));
+            }
+        }
+        if (claimed.get() > persisted.get()) {
+            logger.warn("{} bids not saved, bid pipeline stopped", claimed.get() - persisted.get());
+        }
+    }
+
+    /**
+     * Traite les séquences de {@code first} à {@code available} et retourne la dernière séquence traitée.
+     */
+    @FunctionalInterface
+    private interface Stage {
+        long process(long first, long available);
+    }
+
+    /**
+     * @return la dernière séquence publiée sans trou, les producteurs pouvant publier dans le désordre
+     */
+    private long lastPublished() {
+        long sequence = validated.get();
+        while (published.get((int) (sequence + 1) & mask) == sequence + 1) {
+            sequence++;
+        }
+        return sequence;
+    }
+
+    private long validate(long first, long available) {
+        for (long sequence = first; sequence <= available; sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            try {
+                Set<ConstraintViolation<BidList>> violations = validator.validate(slot.bidList);
+                if (!violations.isEmpty()) {
+                    slot.failure = new ConstraintViolationException(violations);
+                }
+            } catch (RuntimeException e) {
+                slot.failure = e;
+            }
+            slot.stageStartNanos = record(validateTimer, slot.stageStartNanos);
+        }
+        return available;
+    }
+
+    private long enrich(long first, long available) {
+        LocalDateTime now = LocalDateTime.now();
+        for (long sequence = first; sequence <= available; sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            if (slot.failure == null) {
+                BidListService.enrich(slot.bidList, slot.username, now);
+            }
+            slot.stageStartNanos = record(enrichTimer, slot.stageStartNanos);
+        }
+        return available;
+    }
+
+    private long persist(long first, long available) {
+        long last = Math.min(available, first + batchSize - 1);
+        List<BidList> batch = new ArrayList<>((int) (last - first + 1));
+        for (long sequence = first; sequence <= last; sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            if (slot.failure == null) {
+                batch.add(slot.bidList);
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                save(batch);
+                batchSummary.record(batch.size());
+            } catch (RuntimeException e) {
+                logger.warn("Batch of {} bids not saved, saving them one by one : {}", batch.size(), e.getMessage());
+                saveOneByOne(first, last);
+            }
+        }
+        for (long sequence = first; sequence <= last; sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            record(persistTimer, slot.stageStartNanos);
+            CompletableFuture<BidList> result = slot.result;
+            RuntimeException error = slot.failure;
+            BidList bidList = slot.bidList;
+            // Libère la case avant de rendre la main à l'appelant
+            slot.bidList = null;
+            slot.username = null;
+            slot.result = null;
+            slot.failure = null;
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(bidList);
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Enregistre une à une les enchères valides des séquences {@code first} à {@code last}, chacune dans
+     * sa transaction, et note l'échec de chacune. Dès qu'un échec ne tient pas à l'enchère elle-même,
+     * les suivantes sont notées en échec sans nouvel essai.
+     */
+    private void saveOneByOne(long first, long last) {
+        RuntimeException unavailable = null;
+        for (long sequence = first; sequence <= last; sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            if (slot.failure != null) {
+                continue;
+            }
+            if (unavailable != null) {
+                slot.failure = unavailable;
+                continue;
+            }
+            try {
+                save(List.of(slot.bidList));
+            } catch (RuntimeException e) {
+                slot.failure = e;
+                if (!(e instanceof DataIntegrityViolationException)) {
+                    unavailable = e;
+                }
+            }
+        }
+    }
+
+    private void save(List<BidList> bids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> bidListRepository.saveAll(bids));
+        } catch (RuntimeException e) {
+            // Identifiants attribués par la transaction annulée
+            bids.forEach(bidList -> bidList.setId(null));
+            throw e;
+        }
+    }
+
+    private static long record(Timer timer, long startNanos) {
+        long now = System.nanoTime();
+        timer.record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("poseidon.bidlist.pipeline.stage")
+                .description("Attente et traitement d'une enchère par étape")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,339 @@
+package com.nnk.springboot.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal d'écriture anticipée des enchères, dans un fichier projeté en mémoire de taille fixe.
+ *
+ * <p>Le fichier commence par un en-tête {@code [format int][taille d'un segment int][identifiant long]},
+ * suivi de deux segments. L'identifiant, tiré au hasard à la création du fichier, distingue les journaux
+ * de plusieurs instances. La taille des segments est fixée à la création du fichier et relue à chaque ouverture :
+ * une autre capacité demandée ensuite ne s'applique qu'à un nouveau fichier, pour que les enregistrements
+ * du second segment soient toujours relus au même endroit. Chaque enregistrement est ajouté à la suite des précédents
+ * dans le segment actif : {@code [longueur int][séquence long][crc32c int][données]}, suivi d'une longueur
+ * nulle qui marque la fin du segment. À l'ouverture, les enregistrements de chaque segment sont relus
+ * jusqu'au premier enregistrement invalide (longueur nulle, somme de contrôle fausse ou séquence non
+ * consécutive) : un ajout interrompu par un arrêt brutal est ainsi ignoré.</p>
+ *
+ * <p>Les enregistrements écrits en base sont signalés par {@link #release(long)} : un segment dont tous
+ * les enregistrements sont libérés est vidé. Quand le segment actif est plein, les ajouts passent à
+ * l'autre s'il est vide. Sous une charge continue, l'espace est ainsi réutilisé au fil des points de
+ * reprise, sans attendre que le journal entier soit en base.</p>
+ *
+ * <p>Les ajouts ne sont pas forcés sur disque : ils survivent à un arrêt du processus, mais pas à celui
+ * de la machine. {@link #takeSync()} puis {@link #force(Sync)} forcent ensemble tous les ajouts faits
+ * depuis le précédent {@link #takeSync()}.</p>
+ *
+ * <p>Non synchronisé : les appels doivent être sérialisés par l'appelant, sauf {@link #force(Sync)}.</p>
+ */
+public class BidListJournal implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    /**
+     * En-tête du fichier : format, taille d'un segment, puis identifiant du journal
+     */
+    private static final int FILE_HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Format du fichier, « BLJ1 »
+     */
+    private static final int FORMAT = 0x424C4A31;
+
+    /**
+     * Enregistrement relu du journal.
+     *
+     * @param sequence numéro de séquence
+     * @param payload  données de l'enregistrement
+     */
+    public record Entry(long sequence, byte[] payload) {
+    }
+
+    /**
+     * Partie du fichier modifiée, à forcer sur disque.
+     *
+     * @param from     début de la partie
+     * @param to       fin de la partie, exclue
+     * @param sequence séquence du dernier enregistrement ajouté, sur disque une fois la partie forcée
+     */
+    public record Sync(int from, int to, long sequence) {
+    }
+
+    /**
+     * Segment du fichier, rempli de son début vers sa fin
+     */
+    private static final class Segment {
+
+        private final int start;
+
+        private final int end;
+
+        private int position;
+
+        /**
+         * Séquence du dernier enregistrement du segment, -1 s'il est vide
+         */
+        private long lastSequence = -1;
+
+        private Segment(int start, int end) {
+            this.start = start;
+            this.end = end;
+            this.position = start;
+        }
+
+        private boolean fits(int size) {
+            return position + size + Integer.BYTES <= end;
+        }
+    }
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final Segment[] segments;
+
+    private final long id;
+
+    private Segment active;
+
+    private List<Entry> recovered = new ArrayList<>();
+
+    private long lastSequence;
+
+    /**
+     * Partie modifiée depuis le dernier {@link #takeSync()}, vide si {@code dirtyFrom >= dirtyTo}
+     */
+    private int dirtyFrom = Integer.MAX_VALUE;
+
+    private int dirtyTo;
+
+    /**
+     * Ouvre le journal, en le créant au besoin, et relit ses enregistrements valides.
+     *
+     * @param file     le fichier du journal
+     * @param capacity taille du fichier à sa création, en octets ; un fichier existant garde la sienne
+     * @throws IOException si le fichier ne peut pas être ouvert ou projeté, ou n'est pas un journal
+     */
+    public BidListJournal(Path file, int capacity) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int segmentSize = readSegmentSize(file);
+        boolean created = segmentSize == 0;
+        if (created) {
+            segmentSize = (capacity - FILE_HEADER_BYTES) / 2;
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_BYTES + 2L * segmentSize);
+        if (created) {
+            buffer.putInt(Integer.BYTES, segmentSize);
+            buffer.putLong(Integer.BYTES + Integer.BYTES, UUID.randomUUID().getMostSignificantBits());
+            buffer.putInt(0, FORMAT);
+            buffer.force(0, FILE_HEADER_BYTES);
+        }
+        this.id = buffer.getLong(Integer.BYTES + Integer.BYTES);
+        int middle = FILE_HEADER_BYTES + segmentSize;
+        this.segments = new Segment[]{new Segment(FILE_HEADER_BYTES, middle), new Segment(middle, middle + segmentSize)};
+        recover();
+    }
+
+    /**
+     * @return l'identifiant du journal, fixé à la création du fichier
+     */
+    public long id() {
+        return id;
+    }
+
+    /**
+     * @return la taille du fichier utilisée par le journal, en octets
+     */
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Retourne une seule fois les enregistrements relus à l'ouverture, pour libérer leur mémoire ensuite.
+     *
+     * @return les enregistrements relus à l'ouverture, dans l'ordre d'ajout
+     */
+    public List<Entry> takeRecovered() {
+        List<Entry> entries = recovered;
+        recovered = List.of();
+        return entries;
+    }
+
+    /**
+     * @return la séquence du dernier enregistrement ajouté
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Fait commencer les séquences suivantes après {@code sequence} si elle est plus grande,
+     * pour qu'un journal vidé ne réutilise pas des séquences déjà écrites en base.
+     *
+     * @param sequence la dernière séquence connue
+     */
+    public void startAfter(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    /**
+     * Ajoute un enregistrement au segment actif, ou à l'autre segment s'il est plein et que l'autre est vide.
+     *
+     * @param payload les données
+     * @return la séquence de l'enregistrement, ou -1 si le journal est plein
+     */
+    public long append(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (!active.fits(size)) {
+            Segment other = active == segments[0] ? segments[1] : segments[0];
+            if (other.lastSequence >= 0 || !other.fits(size)) {
+                return -1;
+            }
+            active = other;
+        }
+        int start = active.position;
+        long sequence = lastSequence + 1;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        // Marqueur de fin d'abord, longueur en dernier : un ajout interrompu reste invisible à la relecture
+        buffer.putInt(start + size, 0);
+        buffer.putLong(start + Integer.BYTES, sequence);
+        buffer.putInt(start + Integer.BYTES + Long.BYTES, (int) crc.getValue());
+        buffer.put(start + HEADER_BYTES, payload);
+        buffer.putInt(start, payload.length);
+        markDirty(start, start + size + Integer.BYTES);
+
+        active.position = start + size;
+        active.lastSequence = sequence;
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Libère les enregistrements écrits en base jusqu'à {@code sequence} : chaque segment dont tous les
+     * enregistrements sont libérés est vidé, et ses ajouts suivants repartent de son début.
+     *
+     * @param sequence la séquence du dernier enregistrement écrit en base
+     */
+    public void release(long sequence) {
+        for (Segment segment : segments) {
+            if (segment.lastSequence >= 0 && segment.lastSequence <= sequence) {
+                buffer.putInt(segment.start, 0);
+                markDirty(segment.start, segment.start + Integer.BYTES);
+                segment.position = segment.start;
+                segment.lastSequence = -1;
+            }
+        }
+    }
+
+    /**
+     * Prend la partie du fichier modifiée depuis l'appel précédent, à forcer par {@link #force(Sync)}.
+     *
+     * @return la partie modifiée, ou {@code null} si rien n'a été modifié
+     */
+    public Sync takeSync() {
+        if (dirtyFrom >= dirtyTo) {
+            return null;
+        }
+        Sync sync = new Sync(dirtyFrom, dirtyTo, lastSequence);
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = 0;
+        return sync;
+    }
+
+    /**
+     * Force sur disque une partie du fichier. Peut être appelé pendant les ajouts suivants :
+     * ceux-ci seront forcés par leur propre {@link #takeSync()}.
+     *
+     * @param sync la partie prise par {@link #takeSync()}
+     */
+    public void force(Sync sync) {
+        buffer.force(sync.from(), sync.to() - sync.from());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return la taille d'un segment lue dans l'en-tête, 0 pour un fichier pas encore initialisé
+     */
+    private int readSegmentSize(Path file) throws IOException {
+        if (channel.size() < FILE_HEADER_BYTES) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        int format = header.getInt(0);
+        int segmentSize = header.getInt(Integer.BYTES);
+        if (format == 0 && segmentSize == 0) {
+            // Fichier agrandi mais en-tête jamais écrit : aucun enregistrement n'a pu y être ajouté
+            return 0;
+        }
+        if (format != FORMAT || segmentSize <= 0 || FILE_HEADER_BYTES + 2L * segmentSize > channel.size()) {
+            channel.close();
+            throw new IOException("Not a bid journal, or journal of an unsupported format : " + file);
+        }
+        return segmentSize;
+    }
+
+    private void markDirty(int from, int to) {
+        dirtyFrom = Math.min(dirtyFrom, from);
+        dirtyTo = Math.max(dirtyTo, to);
+    }
+
+    private void recover() {
+        for (Segment segment : segments) {
+            recover(segment);
+        }
+        recovered.sort(Comparator.comparingLong(Entry::sequence));
+        active = segments[1].lastSequence > segments[0].lastSequence ? segments[1] : segments[0];
+        lastSequence = Math.max(active.lastSequence, 0);
+    }
+
+    private void recover(Segment segment) {
+        int position = segment.start;
+        long previous = -1;
+        while (position + HEADER_BYTES <= segment.end) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segment.end) {
+                break;
+            }
+            long sequence = buffer.getLong(position + Integer.BYTES);
+            int checksum = buffer.getInt(position + Integer.BYTES + Long.BYTES);
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum || (previous >= 0 && sequence != previous + 1)) {
+                break;
+            }
+            recovered.add(new Entry(sequence, payload));
+            previous = sequence;
+            position += HEADER_BYTES + length;
+        }
+        segment.position = position;
+        segment.lastSequence = previous;
+    }
+}
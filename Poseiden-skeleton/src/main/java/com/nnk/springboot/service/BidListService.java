@@ -3,12 +3,22 @@ package com.nnk.springboot.service;
 import com.nnk.springboot.domain.BidList;
 import com.nnk.springboot.repositories.BidListRepository;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -16,32 +26,126 @@ import java.util.List;
  * Fournit les opérations CRUD pour les enchères
  */
 @Service
-@RequiredArgsConstructor
 public class BidListService implements CrudService<BidList>{
 
     public final Logger logger = LoggerFactory.getLogger(BidListService.class);
 
     private final BidListRepository bidListRepository;
 
+    private final Validator validator;
+
+    /**
+     * Écriture différée des nouvelles enchères, {@code null} si elle n'est pas activée
+     */
+    private final BidListWriteBehind bidListWriteBehind;
+
+    /**
+     * Chaîne d'ingestion des nouvelles enchères, {@code null} si elle n'est pas activée
+     */
+    private final BidListIngestPipeline bidListIngestPipeline;
+
+    /**
+     * @param bidListRepository     Le dépôt des enchères
+     * @param validator             Le validateur des enchères soumises sans la chaîne d'ingestion
+     * @param bidListWriteBehind    L'écriture différée, si elle est activée
+     * @param bidListIngestPipeline La chaîne d'ingestion, si elle est activée
+     */
+    public BidListService(BidListRepository bidListRepository,
+                          Validator validator,
+                          ObjectProvider<BidListWriteBehind> bidListWriteBehind,
+                          ObjectProvider<BidListIngestPipeline> bidListIngestPipeline) {
+        this.bidListRepository = bidListRepository;
+        this.validator = validator;
+        this.bidListWriteBehind = bidListWriteBehind.getIfAvailable();
+        this.bidListIngestPipeline = bidListIngestPipeline.getIfAvailable();
+    }
+
     /**
      * Récupère toutes les enchères existantes
      *
      * @return Liste de toutes les enchères
      */
+    @Transactional(readOnly = true)
     public List<BidList> getAll() {
         return bidListRepository.findAll();
     }
 
     /**
-     * Enregistre une nouvelle enchère
+     * Enregistre une nouvelle enchère.
+     * En écriture différée ({@link BidListWriteBehind}), la nouvelle enchère est complétée au nom de
+     * l'utilisateur connecté puis acquittée une fois journalisée : elle est retournée sans identifiant
+     * et n'est écrite en base que par le lot suivant, avec l'utilisateur et la date de sa soumission.
+     * Sinon, avec la chaîne d'ingestion ({@link BidListIngestPipeline}), la nouvelle enchère est validée,
+     * complétée et écrite par la chaîne, au nom de l'utilisateur connecté.
      *
      * @param bid L'enchère à sauvegarder
      * @return L'enchère sauvegardée
+     * @throws ConstraintViolationException si la chaîne d'ingestion refuse l'enchère
+     * @throws BidIngestRejectedException   si la chaîne d'ingestion est pleine
      */
     public BidList save(BidList bid) {
+        if (bidListWriteBehind != null && bid.getId() == null) {
+            // Complétée avant d'être journalisée, que le journal l'accepte ou non
+            enrich(bid, currentUsername(), LocalDateTime.now());
+            if (bidListWriteBehind.append(bid)) {
+                return bid;
+            }
+        }
+        if (bidListIngestPipeline != null && bid.getId() == null) {
+            try {
+                return submit(bid, currentUsername()).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
         return bidListRepository.save(bid);
     }
 
+    /**
+     * Soumet une nouvelle enchère sans attendre son enregistrement.
+     * Avec la chaîne d'ingestion, l'enchère y est publiée ; si la chaîne est pleine, elle est refusée
+     * pour que l'appelant ralentisse et la soumette de nouveau. Sans la chaîne, elle est validée,
+     * complétée et enregistrée directement, comme par la chaîne.
+     *
+     * @param bid      L'enchère à enregistrer
+     * @param username L'utilisateur qui la soumet
+     * @return Le résultat de l'enregistrement, en erreur si l'enchère est invalide
+     * ({@link ConstraintViolationException}) ou si la chaîne est pleine ({@link BidIngestRejectedException})
+     */
+    public CompletableFuture<BidList> submit(BidList bid, String username) {
+        if (bidListIngestPipeline != null) {
+            CompletableFuture<BidList> result = bidListIngestPipeline.tryPublish(bid, username);
+            return result != null ? result : CompletableFuture.failedFuture(new BidIngestRejectedException("Bid pipeline full"));
+        }
+        try {
+            Set<ConstraintViolation<BidList>> violations = validator.validate(bid);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            enrich(bid, username, LocalDateTime.now());
+            return CompletableFuture.completedFuture(bidListRepository.save(bid));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+    /**
+     * Complète une nouvelle enchère avec l'utilisateur qui la soumet et la date de soumission.
+     *
+     * @param bid      L'enchère soumise
+     * @param username L'utilisateur qui la soumet
+     * @param now      La date de soumission
+     */
+    static void enrich(BidList bid, String username, LocalDateTime now) {
+        bid.setCreationName(username);
+        bid.setCreationDate(now);
+    }
+
     /**
      * Récupère une enchère par son identifiant
      *
@@ -49,6 +153,7 @@ public class BidListService implements CrudService<BidList>{
      * @return L'enchère trouvée
      * @throws EntityNotFoundException si l'enchère n'existe pas
      */
+    @Transactional(readOnly = true)
     public BidList getById(int id) {
         return bidListRepository.findById(id)
                 .orElseThrow(() -> {
@@ -65,6 +170,7 @@ public class BidListService implements CrudService<BidList>{
      * @return L'enchère mise à jour
      * @throws EntityNotFoundException si l'enchère n'existe pas
      */
+    @Transactional
     public BidList update(int id, BidList bid) {
         // Récupère l'enchère existante
         BidList bidToUpdate = getById(id);
@@ -83,6 +189,7 @@ public class BidListService implements CrudService<BidList>{
      * @param id Identifiant de l'enchère à supprimer
      * @throws EntityNotFoundException si l'enchère n'existe pas
      */
+    @Transactional
     public void delete(int id) {
         // Vérifie l'existence de l'enchère avant la suppression
         if (!bidListRepository.existsById(id)) {
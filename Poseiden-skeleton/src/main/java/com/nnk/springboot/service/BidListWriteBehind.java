@@ -0,0 +1,404 @@
+package com.nnk.springboot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.JournalCheckpoint;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.JournalCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écriture différée des nouvelles enchères (BidList), activée par
+ * {@code poseidon.bidlist.write-behind.enabled=true}.
+ *
+ * <p>{@link BidListService#save(BidList)} ajoute l'enchère au {@link BidListJournal} et l'acquitte
+ * sans attendre la base ; un thread dédié l'écrit ensuite en base par lots, toutes les
+ * {@code flush-interval-ms}. Chaque lot est enregistré dans la même transaction que le point de
+ * reprise du journal ({@link JournalCheckpoint}) : au redémarrage, les enregistrements du journal
+ * postérieurs au point de reprise sont rejoués, une seule fois. Chaque point de reprise libère la
+ * place des enregistrements écrits dans le journal. Le point de reprise est propre au journal
+ * ({@link BidListJournal#id()}) : plusieurs instances partageant la base ont chacune le leur.</p>
+ *
+ * <p>Avec {@code force}, une enchère n'est acquittée qu'une fois sur disque. Les ajouts faits pendant
+ * qu'un thread force le journal sont forcés ensemble par le suivant : un seul accès disque pour
+ * toutes les enchères arrivées entre-temps.</p>
+ *
+ * <p>Un lot refusé par la base pour une contrainte non respectée est réécrit enchère par enchère ;
+ * les enchères encore refusées sont mises de côté dans le fichier {@code <journal>.rejected}, et le
+ * point de reprise passe au-delà pour ne pas bloquer les suivantes. Sur tout autre échec, la base
+ * indisponible par exemple, le lot reste en tête et est réessayé.</p>
+ *
+ * <p>Une enchère acquittée n'a pas encore d'identifiant et n'apparaît dans les listes qu'après
+ * l'écriture de son lot. Si le journal est plein, l'enchère est enregistrée directement.</p>
+ *
+ * <p>Métriques : {@code poseidon.bidlist.writebehind.pending}, {@code poseidon.bidlist.writebehind.flush}
+ * (durée d'écriture d'un lot), {@code poseidon.bidlist.writebehind.overflow} (journal plein) et
+ * {@code poseidon.bidlist.writebehind.rejected} (enchères mises de côté).</p>
+ */
+@Service
+@ConditionalOnProperty(prefix = "poseidon.bidlist.write-behind", name = "enabled", havingValue = "true")
+public class BidListWriteBehind {
+
+    /**
+     * Préfixe du point de reprise du journal des enchères, suivi de l'identifiant du journal
+     */
+    static final String CHECKPOINT_PREFIX = "bidlist-";
+
+    private final Logger logger = LoggerFactory.getLogger(BidListWriteBehind.class);
+
+    private final BidListRepository bidListRepository;
+
+    private final JournalCheckpointRepository journalCheckpointRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Path journalFile;
+
+    private final Path rejectedFile;
+
+    private final int journalBytes;
+
+    private final boolean force;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final Timer flushTimer;
+
+    private final Counter overflowCounter;
+
+    private final Counter rejectedCounter;
+
+    /**
+     * Enchères acquittées en attente d'écriture, dans l'ordre du journal ; lues par le seul thread d'écriture
+     */
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Sérialise les ajouts au journal avec leur mise en attente, et la libération du journal
+     */
+    private final Object journalLock = new Object();
+
+    /**
+     * Un seul thread force le journal à la fois, pour tous les ajouts en attente
+     */
+    private final Object forceLock = new Object();
+
+    /**
+     * Séquence du dernier enregistrement forcé sur disque
+     */
+    private volatile long durableSequence;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bidlist-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BidListJournal journal;
+
+    /**
+     * Nom du point de reprise du journal ouvert
+     */
+    private String checkpointName;
+
+    private record Pending(long sequence, BidList bidList) {
+    }
+
+    public BidListWriteBehind(BidListRepository bidListRepository,
+                              JournalCheckpointRepository journalCheckpointRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${poseidon.bidlist.write-behind.journal:data/bidlist.journal}") Path journalFile,
+                              @Value("${poseidon.bidlist.write-behind.journal-size-mb:64}") int journalSizeMb,
+                              @Value("${poseidon.bidlist.write-behind.force:true}") boolean force,
+                              @Value("${poseidon.bidlist.write-behind.batch-size:500}") int batchSize,
+                              @Value("${poseidon.bidlist.write-behind.flush-interval-ms:100}") long flushIntervalMillis) {
+        this.bidListRepository = bidListRepository;
+        this.journalCheckpointRepository = journalCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.journalFile = journalFile;
+        this.rejectedFile = journalFile.resolveSibling(journalFile.getFileName() + ".rejected");
+        this.journalBytes = journalSizeMb * 1024 * 1024;
+        this.force = force;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        Gauge.builder("poseidon.bidlist.writebehind.pending", pending, Queue::size)
+                .description("Enchères acquittées pas encore écrites en base")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("poseidon.bidlist.writebehind.flush")
+                .description("Durée d'écriture d'un lot d'enchères")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("poseidon.bidlist.writebehind.overflow")
+                .description("Enchères enregistrées directement, journal plein")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("poseidon.bidlist.writebehind.rejected")
+                .description("Enchères refusées par la base, mises de côté")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ouvre le journal, rejoue les enchères acquittées mais pas encore en base, puis démarre l'écriture périodique.
+     *
+     * @throws IOException si le journal ne peut pas être ouvert
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        journal = new BidListJournal(journalFile, journalBytes);
+        checkpointName = CHECKPOINT_PREFIX + String.format("%016x", journal.id());
+        long checkpoint = journalCheckpointRepository.findById(checkpointName)
+                .map(JournalCheckpoint::getSequence)
+                .orElse(0L);
+        journal.startAfter(checkpoint);
+        if (journal.capacity() != journalBytes) {
+            logger.warn("Journal {} keeps its size of {} bytes instead of {} : delete it once empty to resize it",
+                    journalFile, journal.capacity(), journalBytes);
+        }
+
+        int replayed = 0;
+        for (BidListJournal.Entry entry : journal.takeRecovered()) {
+            if (entry.sequence() > checkpoint) {
+                pending.add(new Pending(entry.sequence(), objectMapper.readValue(entry.payload(), BidList.class)));
+                replayed++;
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Replaying {} bids from journal {} after sequence {}", replayed, journalFile, checkpoint);
+        }
+        // Libère ce qui est déjà en base
+        journal.release(checkpoint);
+        writer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return le nom du point de reprise du journal ouvert
+     */
+    String checkpointName() {
+        return checkpointName;
+    }
+
+    /**
+     * Ajoute une nouvelle enchère au journal ; elle sera écrite en base par le prochain lot.
+     * Avec {@code force}, attend qu'elle soit sur disque.
+     *
+     * @param bidList l'enchère à enregistrer
+     * @return vrai si l'enchère est acquittée, faux si le journal est plein
+     */
+    public boolean append(BidList bidList) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(bidList);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Bid cannot be journaled", e);
+        }
+        long sequence;
+        synchronized (journalLock) {
+            sequence = journal.append(payload);
+            if (sequence < 0) {
+                overflowCounter.increment();
+                return false;
+            }
+            pending.add(new Pending(sequence, bidList));
+        }
+        if (force) {
+            awaitDurable(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * Attend que l'enregistrement {@code sequence} soit sur disque. Le thread qui obtient le verrou force
+     * tous les ajouts faits jusque-là, ceux des autres threads compris : ils trouvent ensuite le leur déjà forcé.
+     *
+     * @param sequence la séquence de l'enregistrement
+     */
+    private void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            BidListJournal.Sync sync;
+            synchronized (journalLock) {
+                sync = journal.takeSync();
+            }
+            // Hors du verrou du journal : les ajouts continuent pendant l'accès disque
+            if (sync != null) {
+                journal.force(sync);
+                durableSequence = sync.sequence();
+            }
+        }
+    }
+
+    /**
+     * Écrit en base toutes les enchères en attente, par lots.
+     *
+     * @return le nombre d'enchères écrites
+     */
+    public synchronized int flush() {
+        int written = 0;
+        List<Pending> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        while (true) {
+            batch.clear();
+            Iterator<Pending> iterator = pending.iterator();
+            while (batch.size() < batchSize && iterator.hasNext()) {
+                batch.add(iterator.next());
+            }
+            if (batch.isEmpty()) {
+                return written;
+            }
+            try {
+                write(batch);
+                written += batch.size();
+            } catch (RuntimeException e) {
+                if (!isRejected(e)) {
+                    throw e;
+                }
+                logger.warn("Journaled bid batch rejected, writing its {} bids one by one : {}", batch.size(), e.getMessage());
+                for (Pending entry : batch) {
+                    try {
+                        write(List.of(entry));
+                        written++;
+                    } catch (RuntimeException entryFailure) {
+                        if (!isRejected(entryFailure)) {
+                            throw entryFailure;
+                        }
+                        reject(entry, entryFailure);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Écrit des enchères de tête de file avec le point de reprise, dans une transaction,
+     * puis les retire de la file et libère leur place dans le journal.
+     *
+     * @param entries les premières enchères de la file, dans l'ordre
+     */
+    private void write(List<Pending> entries) {
+        long sequence = entries.get(entries.size() - 1).sequence();
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                bidListRepository.saveAll(entries.stream().map(Pending::bidList).toList());
+                journalCheckpointRepository.save(new JournalCheckpoint(checkpointName, sequence));
+            }));
+        } catch (RuntimeException e) {
+            // Identifiants attribués par la transaction annulée : les enchères seront de nouveau insérées
+            entries.forEach(entry -> entry.bidList().setId(null));
+            throw e;
+        }
+        // Retirées seulement une fois en base : un lot en échec reste en tête de file
+        release(entries.size(), sequence);
+    }
+
+    /**
+     * Met de côté une enchère refusée par la base : elle est ajoutée au fichier des enchères refusées,
+     * puis le point de reprise passe au-delà pour qu'elle ne soit pas rejouée.
+     *
+     * @param entry la première enchère de la file
+     * @param cause le refus de la base
+     */
+    private void reject(Pending entry, RuntimeException cause) {
+        try {
+            Files.write(rejectedFile, (objectMapper.writeValueAsString(entry.bidList()) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Rejected bid cannot be written to " + rejectedFile, e);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                journalCheckpointRepository.save(new JournalCheckpoint(checkpointName, entry.sequence())));
+        rejectedCounter.increment();
+        logger.error("Journaled bid {} rejected by the database, moved to {} : {}", entry.sequence(), rejectedFile, cause.getMessage());
+        release(1, entry.sequence());
+    }
+
+    private void release(int count, long sequence) {
+        for (int i = 0; i < count; i++) {
+            pending.poll();
+        }
+        synchronized (journalLock) {
+            journal.release(sequence);
+        }
+    }
+
+    /**
+     * @return vrai si l'échec tient aux enchères elles-mêmes, contrainte de la base ou validation :
+     * les réessayer telles quelles ne sert à rien
+     */
+    private static boolean isRejected(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Écrit les enchères en attente puis ferme le journal, à l'arrêt du contexte.
+     *
+     * @throws IOException si le journal ne peut pas être fermé
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Pending bids left in journal {}, replayed on restart : {}", journalFile, e.getMessage());
+        }
+        journal.close();
+    }
+
+    private void flushQuietly() {
+        try {
+            int written = flush();
+            if (written > 0) {
+                logger.debug("{} journaled bids written", written);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Journaled bids not written, retrying : {}", e.getMessage());
+        }
+    }
+}
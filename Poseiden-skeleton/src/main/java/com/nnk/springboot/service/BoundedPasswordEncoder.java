@@ -0,0 +1,146 @@
+package com.nnk.springboot.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodeur de mots de passe qui exécute le hachage et la vérification sur un pool dédié et borné.
+ *
+ * <p>Le hachage BCrypt est volontairement coûteux : exécuté sur les threads de Tomcat, un afflux de
+ * connexions les occupe tous et bloque les autres pages. Ici, au plus {@code threads} hachages
+ * s'exécutent en même temps, au plus {@code queueCapacity} attendent, et toute demande au-delà,
+ * ou qui attend plus de {@code timeoutMillis}, est refusée immédiatement par une
+ * {@link PasswordHashingRejectedException}.</p>
+ *
+ * <p>Métriques : {@code poseidon.password.queue.depth} (demandes en attente),
+ * {@code poseidon.password.hash} (durée du hachage, par opération) et
+ * {@code poseidon.password.rejected} (demandes refusées).</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejectedCounter;
+
+    /**
+     * Construit l'encodeur et son pool dédié.
+     *
+     * @param delegate      l'encodeur qui effectue le hachage
+     * @param threads       nombre de hachages exécutés en parallèle
+     * @param queueCapacity nombre maximal de demandes en attente
+     * @param timeoutMillis délai maximal d'attente d'une demande, en millisecondes
+     * @param meterRegistry le registre des métriques
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("poseidon.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Demandes de hachage en attente")
+                .register(meterRegistry);
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.rejectedCounter = Counter.builder("poseidon.password.rejected")
+                .description("Demandes de hachage refusées faute de capacité")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Indique si le hachage doit être mis à niveau ; la vérification ne hache rien
+     * et s'exécute donc sur le thread appelant.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Arrête le pool à l'arrêt du contexte.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Password hashing rejected : {} requests already queued", executor.getQueue().size());
+            throw new PasswordHashingRejectedException("Password hashing capacity exceeded", e);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            logger.warn("Password hashing timed out after {} ms", timeoutMillis);
+            throw new PasswordHashingRejectedException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("poseidon.password.hash")
+                .description("Durée de hachage ou de vérification d'un mot de passe")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
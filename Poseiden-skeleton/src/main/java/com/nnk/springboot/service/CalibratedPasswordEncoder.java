@@ -0,0 +1,121 @@
+package com.nnk.springboot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Encodeur BCrypt dont le facteur de coût peut être calibré sur la machine courante.
+ *
+ * <p>{@link #calibrate(long, int, int)} mesure une vérification au coût minimal puis retient le
+ * coût le plus élevé dont la durée estimée (chaque incrément double le travail) reste sous la
+ * cible. {@link #upgradeEncoding(String)} signale tout hachage d'un coût différent de celui de
+ * l'encodeur, plus faible ou plus élevé : le mot de passe est alors haché de nouveau à la
+ * connexion suivante (voir {@link CustomUserDetailsService#updatePassword}).</p>
+ */
+public class CalibratedPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedPasswordEncoder.class);
+
+    /**
+     * Coût minimal retenu par la calibration
+     */
+    public static final int MIN_STRENGTH = 10;
+
+    /**
+     * Coût maximal retenu par la calibration
+     */
+    public static final int MAX_STRENGTH = 16;
+
+    private static final String CALIBRATION_PASSWORD = "Calibr@tion-P4ssword";
+
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final int strength;
+
+    /**
+     * @param strength facteur de coût BCrypt (entre 4 et 31)
+     */
+    public CalibratedPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Crée un encodeur dont le coût atteint au plus la durée de vérification cible sur cette machine.
+     *
+     * @param targetMillis durée de vérification cible, en millisecondes
+     * @return l'encodeur calibré
+     */
+    public static CalibratedPasswordEncoder calibrated(long targetMillis) {
+        return new CalibratedPasswordEncoder(calibrate(targetMillis, MIN_STRENGTH, MAX_STRENGTH));
+    }
+
+    /**
+     * Détermine le facteur de coût le plus élevé dont la vérification dure au plus la cible.
+     *
+     * @param targetMillis durée de vérification cible, en millisecondes
+     * @param minStrength  coût minimal, retenu même s'il dépasse la cible
+     * @param maxStrength  coût maximal
+     * @return le facteur de coût retenu
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        String hash = encoder.encode(CALIBRATION_PASSWORD);
+
+        // Meilleure de plusieurs mesures, la première servant aussi de préchauffage
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(CALIBRATION_PASSWORD, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        double estimatedMillis = best / 1_000_000.0;
+        while (strength < maxStrength && estimatedMillis * 2 <= targetMillis) {
+            strength++;
+            estimatedMillis *= 2;
+        }
+        logger.info("BCrypt strength calibrated to {} (about {} ms per verification, target {} ms)",
+                strength, Math.round(estimatedMillis), targetMillis);
+        return strength;
+    }
+
+    /**
+     * @return le facteur de coût de l'encodeur
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Indique si un hachage a été produit avec un autre facteur de coût que celui de l'encodeur.
+     *
+     * @param encodedPassword le hachage enregistré
+     * @return {@code true} si le mot de passe doit être haché de nouveau
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        Integer encodedStrength = strengthOf(encodedPassword);
+        return encodedStrength != null && encodedStrength != strength;
+    }
+
+    /**
+     * Extrait le facteur de coût d'un hachage BCrypt ({@code $2a$10$...}).
+     *
+     * @param encodedPassword le hachage
+     * @return le facteur de coût, ou {@code null} si ce n'est pas un hachage BCrypt
+     */
+    static Integer strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return null;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 4, 6, 10);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
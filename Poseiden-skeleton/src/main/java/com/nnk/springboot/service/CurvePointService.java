@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -28,6 +29,7 @@ public class CurvePointService  implements CrudService<CurvePoint> {
      *
      * @return une liste contenant tous les points de courbe
      */
+    @Transactional(readOnly = true)
     public List<CurvePoint> getAll() {
         return curvePointRepository.findAll();
     }
@@ -51,6 +53,7 @@ public class CurvePointService  implements CrudService<CurvePoint> {
      * @return le point de courbe correspondant à l'ID
      * @throws EntityNotFoundException si aucun point de courbe n'est trouvé avec cet ID
      */
+    @Transactional(readOnly = true)
     public CurvePoint getById(int id) {
         return curvePointRepository.findById(id)
                 .orElseThrow(() -> {
@@ -67,6 +70,7 @@ public class CurvePointService  implements CrudService<CurvePoint> {
      * @return le point de courbe mis à jour
      * @throws EntityNotFoundException si aucun point de courbe n'est trouvé avec cet ID
      */
+    @Transactional
     public CurvePoint update(int id, CurvePoint curvePoint) {
         // Récupère le point de courbe existant
         CurvePoint curvePointToUpdate = getById(id);
@@ -85,6 +89,7 @@ public class CurvePointService  implements CrudService<CurvePoint> {
      * @param id l'identifiant du point de courbe à supprimer
      * @throws EntityNotFoundException si aucun point de courbe n'est trouvé avec cet ID
      */
+    @Transactional
     public void delete(int id) {
         // Vérifie l'existence du point de courbe avant la suppression
         if (!curvePointRepository.existsById(id)) {
@@ -3,15 +3,20 @@ package com.nnk.springboot.service;
 
 import com.nnk.springboot.domain.User;
 import com.nnk.springboot.repositories.UserRepository;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -21,10 +26,19 @@ import java.util.List;
  *
  * <p>Le service utilise un {@link UserRepository} pour accéder aux données des utilisateurs
  * et convertit les entités {@link User} en objets {@link UserDetails} compatibles avec Spring Security.</p>
+ *
+ * <p>Les utilisateurs chargés sont conservés dans un cache borné (les moins récemment utilisés sont
+ * évincés) pendant une durée limitée, pour éviter une requête par connexion lors des pics
+ * d'authentification. Le cache est invalidé par {@link UserChangedEvent}, publié par {@link UserService}
+ * à chaque création, modification ou suppression. Une durée nulle désactive le cache.</p>
+ *
+ * <p>En tant que {@link UserDetailsPasswordService}, il enregistre le nouveau hachage d'un mot de passe
+ * lorsque Spring Security le hache de nouveau après une connexion réussie, l'encodeur ayant signalé
+ * un hachage produit avec d'autres paramètres que les siens.</p>
  */
 @Component
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements org.springframework.security.core.userdetails.UserDetailsService {
+public class CustomUserDetailsService implements org.springframework.security.core.userdetails.UserDetailsService,
+        UserDetailsPasswordService {
 
     /**
      * Logger pour tracer les opérations de chargement des utilisateurs
@@ -36,6 +50,54 @@ public class CustomUserDetailsService implements org.springframework.security.co
      */
     private final UserRepository userRepository;
 
+    /**
+     * Durée de validité d'une entrée du cache, en nanosecondes
+     */
+    private final long ttlNanos;
+
+    /**
+     * Utilisateurs en cache, par nom d'utilisateur saisi, du moins au plus récemment utilisé
+     */
+    private final LinkedHashMap<String, CachedUser> cache;
+
+    /**
+     * Incrémenté à chaque invalidation, pour ne pas mettre en cache une lecture antérieure à celle-ci
+     */
+    private long generation;
+
+    /**
+     * Copie immuable des informations d'authentification d'un utilisateur.
+     * Les {@link UserDetails} retournés ne sont jamais partagés, Spring Security effaçant
+     * leur mot de passe après l'authentification.
+     *
+     * @param username  nom d'utilisateur enregistré
+     * @param password  mot de passe haché
+     * @param role      rôle de l'utilisateur
+     * @param expiresAt instant d'expiration ({@link System#nanoTime()})
+     */
+    private record CachedUser(String username, String password, String role, long expiresAt) {
+    }
+
+    /**
+     * Construit le service avec un cache des utilisateurs borné en taille et en durée.
+     *
+     * @param userRepository le repository des utilisateurs
+     * @param ttlSeconds     durée de validité d'une entrée, en secondes (0 pour désactiver le cache)
+     * @param maxSize        nombre maximal d'utilisateurs en cache
+     */
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${poseidon.security.user-cache.ttl-seconds:60}") long ttlSeconds,
+                                    @Value("${poseidon.security.user-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
     /**
      * Charge les détails d'un utilisateur pour l'authentification en se basant sur son nom d'utilisateur.
      * Cette méthode recherche l'utilisateur dans le référentiel {@link UserRepository} et,
@@ -51,29 +113,85 @@ public class CustomUserDetailsService implements org.springframework.security.co
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (cache) {
+            CachedUser cached = cache.get(username);
+            if (cached != null && now - cached.expiresAt() < 0) {
+                return createSecurityUser(cached);
+            }
+            loadGeneration = generation;
+        }
 
-        return userRepository.findByUsername(username)
-                .map(this::createSecurityUser)
+        User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     logger.warn("User not found with username : {}", username);
                     return new UsernameNotFoundException("User not found with username : " + username);
                 });
+        CachedUser loaded = new CachedUser(user.getUsername(), user.getPassword(), user.getRole(), now + ttlNanos);
+
+        if (ttlNanos > 0) {
+            synchronized (cache) {
+                if (generation == loadGeneration) {
+                    cache.put(username, loaded);
+                }
+            }
+        }
+        return createSecurityUser(loaded);
+    }
+
+    /**
+     * Enregistre le mot de passe d'un utilisateur haché de nouveau avec les paramètres courants de l'encodeur.
+     * Appelée par Spring Security après une connexion réussie.
+     *
+     * @param user        l'utilisateur authentifié
+     * @param newPassword le nouveau hachage du mot de passe
+     * @return l'utilisateur avec son nouveau hachage
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(entity -> {
+            entity.setPassword(newPassword);
+            userRepository.save(entity);
+            logger.info("Password of user {} rehashed with the current encoder settings", user.getUsername());
+        });
+        onUserChanged(new UserChangedEvent(user.getUsername()));
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build();
+    }
+
+    /**
+     * Invalide les entrées du cache d'un utilisateur créé, modifié ou supprimé, une fois la modification
+     * validée : un chargement concurrent ne peut plus relire l'ancien utilisateur.
+     * La comparaison ignore la casse, la recherche par nom d'utilisateur pouvant l'ignorer en base.
+     *
+     * @param event l'événement de modification de l'utilisateur
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (cache) {
+            generation++;
+            if (event.username() == null) {
+                cache.clear();
+            } else {
+                cache.values().removeIf(cached -> event.username().equalsIgnoreCase(cached.username()));
+            }
+        }
     }
 
     /**
      * Crée et retourne un utilisateur de sécurité Spring {@link org.springframework.security.core.userdetails.User} basé sur un utilisateur de l'application
-     * représenté par un {@link User}. Cette méthode extrait le rôle de l'utilisateur, le convertit en
+     * chargé depuis un {@link User}. Cette méthode extrait le rôle de l'utilisateur, le convertit en
      * autorité de sécurité, puis crée une instance de {@link org.springframework.security.core.userdetails.User} pour les contrôles d'authentification et d'autorisation.
      *
      * <p>Le rôle de l'utilisateur est préfixé avec "ROLE_" pour se conformer aux conventions de Spring Security.
      * Cette instance de {@link org.springframework.security.core.userdetails.User} est ensuite utilisée par le framework pour gérer les sessions et les contrôles d'accès.</p>
      *
-     * @param user l'entité {@link User} représentant un utilisateur dans l'application
+     * @param user la copie en cache des informations de l'utilisateur
      * @return une instance de {@link org.springframework.security.core.userdetails.User} avec le nom d'utilisateur, le mot de passe et les autorités de sécurité
      */
-    private org.springframework.security.core.userdetails.User createSecurityUser(User user) {
-        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole());
-        return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(), List.of(authority));
+    private org.springframework.security.core.userdetails.User createSecurityUser(CachedUser user) {
+        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.role());
+        return new org.springframework.security.core.userdetails.User(user.username(), user.password(), List.of(authority));
     }
 
 }
@@ -0,0 +1,25 @@
+package com.nnk.springboot.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception levée lorsque le hachage d'un mot de passe est refusé faute de capacité :
+ * file d'attente pleine ou délai d'attente dépassé.
+ *
+ * <p>Elle hérite de {@link InternalAuthenticationServiceException} pour interrompre
+ * l'authentification sans être confondue avec des identifiants invalides, et se traduit
+ * par une réponse 503 lorsqu'elle remonte d'un contrôleur.</p>
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingRejectedException extends InternalAuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -9,8 +9,14 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service pour la gestion des notations (Rating).
@@ -32,12 +38,18 @@ public class RatingService  implements CrudService<Rating>{
 
 
     /**
-     * Récupère toutes les notations existantes.
+     * Numéro d'ordre maximal accepté par l'entité {@link Rating}.
+     */
+    private static final int MAX_ORDER_NUMBER = 255;
+
+    /**
+     * Récupère toutes les notations existantes, triées par numéro d'ordre.
      *
      * @return une liste contenant toutes les notations
      */
+    @Transactional(readOnly = true)
     public List<Rating> getAll() {
-        return ratingRepository.findAll();
+        return ratingRepository.findAllByOrderByOrderNumberAsc();
     }
 
     /**
@@ -57,6 +69,7 @@ public class RatingService  implements CrudService<Rating>{
      * @return la notation correspondante à l'ID
      * @throws EntityNotFoundException si aucune notation n'est trouvée avec cet ID
      */
+    @Transactional(readOnly = true)
     public Rating getById(int id) {
         return ratingRepository.findById(id)
                 .orElseThrow(() -> {
@@ -74,6 +87,7 @@ public class RatingService  implements CrudService<Rating>{
      * @return la notation mise à jour
      * @throws EntityNotFoundException si aucune notation n'est trouvée avec cet ID
      */
+    @Transactional
     public Rating update(int id, Rating rating) {
 
         Rating ratingToUpdate = getById(id);
@@ -92,6 +106,7 @@ public class RatingService  implements CrudService<Rating>{
      * @param id l'identifiant de la notation à supprimer
      * @throws EntityNotFoundException si aucune notation n'est trouvée avec cet ID
      */
+    @Transactional
     public void delete(int id) {
 
         if (!ratingRepository.existsById(id)) {
@@ -101,4 +116,55 @@ public class RatingService  implements CrudService<Rating>{
 
         ratingRepository.deleteById(id);
     }
+
+    /**
+     * Réordonne les notations en une seule transaction.
+     * Les notations listées reçoivent les numéros 1..n dans l'ordre fourni, les autres
+     * sont placées à la suite en conservant leur ordre actuel. Toutes les notations sont
+     * lues en une seule requête et seules celles dont le numéro change sont mises à jour,
+     * en lot grâce au batching JDBC d'Hibernate.
+     *
+     * @param orderedIds les identifiants des notations dans le nouvel ordre
+     * @return les notations mises à jour
+     * @throws IllegalArgumentException si un identifiant est dupliqué ou si le nombre de notations dépasse 255
+     * @throws EntityNotFoundException  si un identifiant ne correspond à aucune notation
+     */
+    @Transactional
+    public List<Rating> reorder(List<Integer> orderedIds) {
+
+        Set<Integer> requestedIds = new LinkedHashSet<>(orderedIds);
+        if (requestedIds.size() != orderedIds.size()) {
+            logger.warn("Duplicate rating ids in reorder request : {}", orderedIds);
+            throw new IllegalArgumentException("Duplicate rating ids in reorder request");
+        }
+
+        Map<Integer, Rating> ratingsById = new LinkedHashMap<>();
+        ratingRepository.findAllByOrderByOrderNumberAsc().forEach(rating -> ratingsById.put(rating.getId(), rating));
+        if (ratingsById.size() > MAX_ORDER_NUMBER) {
+            throw new IllegalArgumentException("Cannot order more than " + MAX_ORDER_NUMBER + " ratings");
+        }
+
+        List<Rating> ordered = new ArrayList<>(ratingsById.size());
+        for (Integer id : requestedIds) {
+            Rating rating = ratingsById.remove(id);
+            if (rating == null) {
+                logger.warn("Specified rating not found for reorder : {}", id);
+                throw new EntityNotFoundException("Specified rating not found");
+            }
+            ordered.add(rating);
+        }
+        ordered.addAll(ratingsById.values());
+
+        List<Rating> changed = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            Rating rating = ordered.get(i);
+            if (rating.getOrderNumber() == null || rating.getOrderNumber() != i + 1) {
+                rating.setOrderNumber(i + 1);
+                changed.add(rating);
+            }
+        }
+
+        logger.info("Reordering ratings : {} of {} updated", changed.size(), ordered.size());
+        return ratingRepository.saveAll(changed);
+    }
 }
@@ -0,0 +1,291 @@
+package com.nnk.springboot.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Moteur d'évaluation des règles (RuleName).
+ *
+ * <p>Le champ {@code json} d'une règle décrit un prédicat sur les champs d'un {@link Trade}
+ * ou d'une {@link BidList}. Il est analysé une seule fois puis compilé en une composition de
+ * {@link Predicate} qui accèdent directement aux champs : l'évaluation ne fait ni analyse,
+ * ni réflexion, ni conversion de valeurs.</p>
+ *
+ * <p>Format : une condition {@code {"field": "buyQuantity", "op": "gt", "value": 100}}
+ * (opérateurs {@code eq, ne, gt, gte, lt, lte, in}) ou une combinaison
+ * {@code {"all": [...]}}, {@code {"any": [...]}}, {@code {"not": {...}}}.</p>
+ *
+ * <p>Les règles compilées sont mises en cache par identifiant et version ({@link VersionedRuleCache}).
+ * {@link RuleNameChangedEvent}, publié par {@link RuleNameService#update} et {@link RuleNameService#delete},
+ * invalide l'entrée d'une règle une fois la modification validée.</p>
+ */
+@Service
+public class RuleEngineService {
+
+    private final Logger logger = LoggerFactory.getLogger(RuleEngineService.class);
+
+    private final RuleNameService ruleNameService;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Règles compilées, par identifiant et version de règle
+     */
+    private final VersionedRuleCache<CompiledRule> compiledRules;
+
+    /**
+     * Règle compilée en prédicats sur chaque type d'entité supporté.
+     *
+     * @param ruleId    identifiant de la règle
+     * @param version   version de la définition compilée
+     * @param onTrade   prédicat sur un trade, {@code null} si la règle ne s'applique pas aux trades
+     * @param onBidList prédicat sur une enchère, {@code null} si la règle ne s'applique pas aux enchères
+     */
+    public record CompiledRule(int ruleId, int version, Predicate<Trade> onTrade, Predicate<BidList> onBidList) {
+    }
+
+    /**
+     * @param ruleNameService service de chargement des règles
+     * @param objectMapper    analyse des définitions JSON des règles
+     */
+    public RuleEngineService(RuleNameService ruleNameService, ObjectMapper objectMapper) {
+        this.ruleNameService = ruleNameService;
+        this.objectMapper = objectMapper;
+        this.compiledRules = new VersionedRuleCache<>(CompiledRule::version, ruleNameService::getById);
+    }
+
+    /**
+     * Évalue une règle sur un trade.
+     *
+     * @param ruleId identifiant de la règle
+     * @param trade  le trade à évaluer
+     * @return {@code true} si le trade satisfait la règle
+     * @throws IllegalArgumentException si la règle est invalide ou ne s'applique pas aux trades
+     */
+    public boolean evaluate(int ruleId, Trade trade) {
+        return predicateOf(getCompiled(ruleId).onTrade(), ruleId, "Trade").test(trade);
+    }
+
+    /**
+     * Évalue une règle sur une enchère.
+     *
+     * @param ruleId  identifiant de la règle
+     * @param bidList l'enchère à évaluer
+     * @return {@code true} si l'enchère satisfait la règle
+     * @throws IllegalArgumentException si la règle est invalide ou ne s'applique pas aux enchères
+     */
+    public boolean evaluate(int ruleId, BidList bidList) {
+        return predicateOf(getCompiled(ruleId).onBidList(), ruleId, "BidList").test(bidList);
+    }
+
+    /**
+     * Évalue une règle déjà chargée sur un trade.
+     * La forme compilée en cache est réutilisée tant que la définition n'a pas changé.
+     *
+     * @param ruleName la règle
+     * @param trade    le trade à évaluer
+     * @return {@code true} si le trade satisfait la règle
+     */
+    public boolean evaluate(RuleName ruleName, Trade trade) {
+        return predicateOf(getCompiled(ruleName).onTrade(), ruleName.getId(), "Trade").test(trade);
+    }
+
+    /**
+     * Retourne la forme compilée d'une règle, en la chargeant et en la compilant si besoin.
+     *
+     * @param ruleId identifiant de la règle
+     * @return la règle compilée
+     */
+    public CompiledRule getCompiled(int ruleId) {
+        return compiledRules.get(ruleId, this::compile);
+    }
+
+    /**
+     * Retourne la forme compilée d'une règle chargée, en la recompilant si sa version est plus récente.
+     * Une règle chargée avant sa dernière modification est relue ; elle ne remplace jamais une version plus récente.
+     *
+     * @param ruleName la règle
+     * @return la règle compilée
+     * @throws EntityNotFoundException si la règle a été supprimée depuis son chargement
+     */
+    public CompiledRule getCompiled(RuleName ruleName) {
+        return compiledRules.get(ruleName, this::compile);
+    }
+
+    /**
+     * Compile la définition JSON d'une règle.
+     *
+     * @param ruleName la règle à compiler
+     * @return la règle compilée
+     * @throws IllegalArgumentException si la définition est invalide ou ne s'applique à aucune entité
+     */
+    public CompiledRule compile(RuleName ruleName) {
+        JsonNode definition;
+        try {
+            definition = objectMapper.readTree(ruleName.getJson());
+        } catch (JsonProcessingException e) {
+            logger.warn("Invalid json for rule {} : {}", ruleName.getId(), e.getOriginalMessage());
+            throw new IllegalArgumentException("Invalid json for rule " + ruleName.getId(), e);
+        }
+
+        Predicate<Trade> onTrade = compileOrNull(definition, RuleFields.TRADE);
+        Predicate<BidList> onBidList = compileOrNull(definition, RuleFields.BID_LIST);
+        if (onTrade == null && onBidList == null) {
+            // Recompile pour remonter le message d'erreur précis
+            compileNode(definition, RuleFields.TRADE);
+        }
+
+        logger.debug("Rule {} compiled", ruleName.getId());
+        return new CompiledRule(ruleName.getId(), ruleName.getVersion(), onTrade, onBidList);
+    }
+
+    /**
+     * Invalide la forme compilée d'une règle modifiée ou supprimée, une fois la modification validée.
+     *
+     * @param event l'événement de modification de la règle
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRuleNameChanged(RuleNameChangedEvent event) {
+        if (compiledRules.invalidate(event)) {
+            logger.debug("Compiled rule {} evicted", event.ruleId());
+        }
+    }
+
+    private static <T> Predicate<T> predicateOf(Predicate<T> predicate, Integer ruleId, String target) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Rule " + ruleId + " does not apply to " + target);
+        }
+        return predicate;
+    }
+
+    private static <T> Predicate<T> compileOrNull(JsonNode node, Map<String, RuleFields.Field<T>> fields) {
+        try {
+            return compileNode(node, fields);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static <T> Predicate<T> compileNode(JsonNode node, Map<String, RuleFields.Field<T>> fields) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Rule condition must be a json object");
+        }
+        if (node.has("all")) {
+            List<Predicate<T>> operands = compileOperands(node.get("all"), fields);
+            return target -> {
+                for (Predicate<T> operand : operands) {
+                    if (!operand.test(target)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        if (node.has("any")) {
+            List<Predicate<T>> operands = compileOperands(node.get("any"), fields);
+            return target -> {
+                for (Predicate<T> operand : operands) {
+                    if (operand.test(target)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        if (node.has("not")) {
+            return compileNode(node.get("not"), fields).negate();
+        }
+        return compileCondition(node, fields);
+    }
+
+    private static <T> List<Predicate<T>> compileOperands(JsonNode operands, Map<String, RuleFields.Field<T>> fields) {
+        if (!operands.isArray() || operands.isEmpty()) {
+            throw new IllegalArgumentException("Rule combination must be a non empty json array");
+        }
+        List<Predicate<T>> predicates = new ArrayList<>(operands.size());
+        operands.forEach(operand -> predicates.add(compileNode(operand, fields)));
+        return List.copyOf(predicates);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Predicate<T> compileCondition(JsonNode node, Map<String, RuleFields.Field<T>> fields) {
+        String fieldName = node.path("field").asText();
+        RuleFields.Field<T> field = fields.get(fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown rule field : " + fieldName);
+        }
+        String op = node.path("op").asText();
+        JsonNode value = node.get("value");
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value for rule field : " + fieldName);
+        }
+
+        if ("in".equals(op)) {
+            if (!value.isArray()) {
+                throw new IllegalArgumentException("Operator in expects a json array");
+            }
+            Set<Object> accepted = new HashSet<>();
+            value.forEach(item -> accepted.add(convert(item, field.type())));
+            return target -> accepted.contains(field.getter().apply(target));
+        }
+
+        Comparable expected = (Comparable) convert(value, field.type());
+        return switch (op) {
+            case "eq" -> target -> expected.equals(field.getter().apply(target));
+            case "ne" -> target -> !expected.equals(field.getter().apply(target));
+            case "gt" -> ordered(field.getter(), expected, result -> result > 0);
+            case "gte" -> ordered(field.getter(), expected, result -> result >= 0);
+            case "lt" -> ordered(field.getter(), expected, result -> result < 0);
+            case "lte" -> ordered(field.getter(), expected, result -> result <= 0);
+            default -> throw new IllegalArgumentException("Unknown rule operator : " + op);
+        };
+    }
+
+    /**
+     * Construit une comparaison d'ordre ; une valeur de champ absente ne la satisfait jamais.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Predicate<T> ordered(Function<T, ?> getter, Comparable expected, IntPredicate accept) {
+        return target -> {
+            Object actual = getter.apply(target);
+            return actual != null && accept.test(((Comparable) actual).compareTo(expected));
+        };
+    }
+
+    private static Object convert(JsonNode value, Class<?> type) {
+        if (type == Double.class) {
+            if (!value.isNumber()) {
+                throw new IllegalArgumentException("Numeric value expected : " + value);
+            }
+            return value.asDouble();
+        }
+        if (type == LocalDateTime.class) {
+            try {
+                return LocalDateTime.parse(value.asText());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Date value expected : " + value, e);
+            }
+        }
+        return value.asText();
+    }
+}
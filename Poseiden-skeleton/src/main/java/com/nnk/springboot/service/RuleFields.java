@@ -0,0 +1,82 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.Trade;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registre des champs de {@link Trade} et {@link BidList} accessibles aux règles.
+ * Chaque champ est associé à son type et à un accesseur direct (référence de méthode),
+ * ce qui évite toute réflexion lors de l'évaluation d'une règle compilée.
+ */
+public final class RuleFields {
+
+    /**
+     * Champ accessible à une règle.
+     *
+     * @param type   type Java de la valeur du champ
+     * @param getter accesseur de la valeur sur l'entité
+     * @param <T>    type de l'entité
+     */
+    public record Field<T>(Class<?> type, Function<T, ?> getter) {
+    }
+
+    /**
+     * Champs de {@link Trade} utilisables dans une règle.
+     */
+    public static final Map<String, Field<Trade>> TRADE = Map.ofEntries(
+            Map.entry("account", new Field<>(String.class, Trade::getAccount)),
+            Map.entry("type", new Field<>(String.class, Trade::getType)),
+            Map.entry("buyQuantity", new Field<>(Double.class, Trade::getBuyQuantity)),
+            Map.entry("sellQuantity", new Field<>(Double.class, Trade::getSellQuantity)),
+            Map.entry("buyPrice", new Field<>(Double.class, Trade::getBuyPrice)),
+            Map.entry("sellPrice", new Field<>(Double.class, Trade::getSellPrice)),
+            Map.entry("tradeDate", new Field<>(LocalDateTime.class, Trade::getTradeDate)),
+            Map.entry("security", new Field<>(String.class, Trade::getSecurity)),
+            Map.entry("status", new Field<>(String.class, Trade::getStatus)),
+            Map.entry("trader", new Field<>(String.class, Trade::getTrader)),
+            Map.entry("benchmark", new Field<>(String.class, Trade::getBenchmark)),
+            Map.entry("book", new Field<>(String.class, Trade::getBook)),
+            Map.entry("creationName", new Field<>(String.class, Trade::getCreationName)),
+            Map.entry("creationDate", new Field<>(LocalDateTime.class, Trade::getCreationDate)),
+            Map.entry("revisionName", new Field<>(String.class, Trade::getRevisionName)),
+            Map.entry("revisionDate", new Field<>(LocalDateTime.class, Trade::getRevisionDate)),
+            Map.entry("dealName", new Field<>(String.class, Trade::getDealName)),
+            Map.entry("dealType", new Field<>(String.class, Trade::getDealType)),
+            Map.entry("sourceListId", new Field<>(String.class, Trade::getSourceListId)),
+            Map.entry("side", new Field<>(String.class, Trade::getSide))
+    );
+
+    /**
+     * Champs de {@link BidList} utilisables dans une règle.
+     */
+    public static final Map<String, Field<BidList>> BID_LIST = Map.ofEntries(
+            Map.entry("account", new Field<>(String.class, BidList::getAccount)),
+            Map.entry("type", new Field<>(String.class, BidList::getType)),
+            Map.entry("bidQuantity", new Field<>(Double.class, BidList::getBidQuantity)),
+            Map.entry("askQuantity", new Field<>(Double.class, BidList::getAskQuantity)),
+            Map.entry("bid", new Field<>(Double.class, BidList::getBid)),
+            Map.entry("ask", new Field<>(Double.class, BidList::getAsk)),
+            Map.entry("benchmark", new Field<>(String.class, BidList::getBenchmark)),
+            Map.entry("bidListDate", new Field<>(LocalDateTime.class, BidList::getBidListDate)),
+            Map.entry("commentary", new Field<>(String.class, BidList::getCommentary)),
+            Map.entry("security", new Field<>(String.class, BidList::getSecurity)),
+            Map.entry("status", new Field<>(String.class, BidList::getStatus)),
+            Map.entry("trader", new Field<>(String.class, BidList::getTrader)),
+            Map.entry("book", new Field<>(String.class, BidList::getBook)),
+            Map.entry("creationName", new Field<>(String.class, BidList::getCreationName)),
+            Map.entry("creationDate", new Field<>(LocalDateTime.class, BidList::getCreationDate)),
+            Map.entry("revisionName", new Field<>(String.class, BidList::getRevisionName)),
+            Map.entry("revisionDate", new Field<>(LocalDateTime.class, BidList::getRevisionDate)),
+            Map.entry("dealName", new Field<>(String.class, BidList::getDealName)),
+            Map.entry("dealType", new Field<>(String.class, BidList::getDealType)),
+            Map.entry("sourceListId", new Field<>(String.class, BidList::getSourceListId)),
+            Map.entry("side", new Field<>(String.class, BidList::getSide))
+    );
+
+    private RuleFields() {
+    }
+}
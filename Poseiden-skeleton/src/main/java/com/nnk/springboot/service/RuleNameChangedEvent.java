@@ -0,0 +1,12 @@
+package com.nnk.springboot.service;
+
+/**
+ * Événement publié par {@link RuleNameService} lorsqu'une règle est modifiée ou supprimée.
+ * Permet aux composants qui conservent une forme compilée des règles d'invalider leur cache.
+ *
+ * @param ruleId         identifiant de la règle concernée
+ * @param minimumVersion plus petite version encore valide de la règle,
+ *                       {@link Integer#MAX_VALUE} si la règle est supprimée
+ */
+public record RuleNameChangedEvent(int ruleId, int minimumVersion) {
+}
@@ -8,7 +8,9 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -24,11 +26,14 @@ public class RuleNameService  implements CrudService<RuleName> {
 
     private final RuleNameRepository ruleNameRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Récupère toutes les règles
      *
      * @return Liste de toutes les règles
      */
+    @Transactional(readOnly = true)
     public List<RuleName> getAll() {
         return ruleNameRepository.findAll();
     }
@@ -50,6 +55,7 @@ public class RuleNameService  implements CrudService<RuleName> {
      * @return La règle trouvée
      * @throws EntityNotFoundException si la règle n'existe pas
      */
+    @Transactional(readOnly = true)
     public RuleName getById(int id) {
         return ruleNameRepository.findById(id)
                 .orElseThrow(() -> {
@@ -66,6 +72,7 @@ public class RuleNameService  implements CrudService<RuleName> {
      * @return La règle mise à jour
      * @throws EntityNotFoundException si la règle n'existe pas
      */
+    @Transactional
     public RuleName update(int id, RuleName ruleName) {
         // Recherche de la règle existante
         RuleName ruleNameToUpdate = getById(id);
@@ -76,7 +83,11 @@ public class RuleNameService  implements CrudService<RuleName> {
         ruleNameToUpdate.setSqlStr(ruleName.getSqlStr());
         ruleNameToUpdate.setSqlPart(ruleName.getSqlPart());
 
-        return ruleNameRepository.save(ruleNameToUpdate);
+        // Écriture immédiate pour que la version publiée soit celle de la règle modifiée
+        RuleName updated = ruleNameRepository.saveAndFlush(ruleNameToUpdate);
+        // Les formes compilées des versions précédentes sont invalidées
+        eventPublisher.publishEvent(new RuleNameChangedEvent(id, updated.getVersion()));
+        return updated;
     }
 
     /**
@@ -85,6 +96,7 @@ public class RuleNameService  implements CrudService<RuleName> {
      * @param id L'identifiant de la règle à supprimer
      * @throws EntityNotFoundException si la règle n'existe pas
      */
+    @Transactional
     public void delete(int id) {
         // Vérification de l'existence de la règle
         if (!ruleNameRepository.existsById(id)) {
@@ -93,5 +105,6 @@ public class RuleNameService  implements CrudService<RuleName> {
         }
 
         ruleNameRepository.deleteById(id);
+        eventPublisher.publishEvent(new RuleNameChangedEvent(id, Integer.MAX_VALUE));
     }
 }
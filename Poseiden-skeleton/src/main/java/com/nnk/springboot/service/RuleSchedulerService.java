@@ -0,0 +1,334 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.configuration.jdbc.Workload;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.RuleRunState;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.RuleRunStateRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Service d'exécution planifiée et incrémentale des règles sur les trades.
+ *
+ * <p>Pour chaque règle, une marque haute ({@link RuleRunState}) retient le dernier trade
+ * évalué et la dernière date de révision vue : une exécution ne lit que les trades créés
+ * ou modifiés depuis, par pages successives. Un trade validé après un trade plus récent
+ * (date de révision ou identifiant inférieurs à la marque haute) est retrouvé en relisant les
+ * révisions d'une fenêtre de recouvrement ({@code poseidon.rules.scheduler.revision-lag-ms})
+ * avant la marque haute ; les révisions de cette fenêtre déjà évaluées sont conservées en
+ * mémoire une fois l'état enregistré et ignorées, sauf après un redémarrage où elles sont évaluées
+ * une seconde fois.
+ * L'état des règles supprimées est effacé à chaque exécution de toutes les règles.
+ * Les règles sont exécutées en parallèle sur un
+ * pool de taille bornée, et la durée ainsi que le nombre de lignes lues sont enregistrés
+ * par règle, dans l'état et dans les métriques. Les lectures des trades utilisent le pool de
+ * connexions {@code reporting} ({@link Workload#REPORTING}), en lecture seule ; l'état des règles
+ * est lu et enregistré sur le pool {@code interactive}.</p>
+ *
+ * <p>Désactivé par défaut : {@code poseidon.rules.scheduler.enabled=true} pour l'activer.</p>
+ */
+@Service
+public class RuleSchedulerService {
+
+    /**
+     * Date de révision de départ d'une règle jamais exécutée
+     */
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final Logger logger = LoggerFactory.getLogger(RuleSchedulerService.class);
+
+    private final RuleNameService ruleNameService;
+
+    private final RuleEngineService ruleEngineService;
+
+    private final RuleTemplateService ruleTemplateService;
+
+    private final TradeRepository tradeRepository;
+
+    private final RuleRunStateRepository ruleRunStateRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    /**
+     * Fenêtre de recouvrement avant la dernière date de révision vue
+     */
+    private final Duration revisionLag;
+
+    /**
+     * Révisions de la fenêtre de recouvrement déjà évaluées (identifiant du trade vers date de révision), par règle
+     */
+    private final Map<Integer, Map<Integer, LocalDateTime>> evaluatedRevisions = new ConcurrentHashMap<>();
+
+    /**
+     * Pool borné d'exécution des règles
+     */
+    private final ExecutorService executor;
+
+    public RuleSchedulerService(RuleNameService ruleNameService,
+                                RuleEngineService ruleEngineService,
+                                RuleTemplateService ruleTemplateService,
+                                TradeRepository tradeRepository,
+                                RuleRunStateRepository ruleRunStateRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${poseidon.rules.scheduler.enabled:false}") boolean enabled,
+                                @Value("${poseidon.rules.scheduler.concurrency:4}") int concurrency,
+                                @Value("${poseidon.rules.scheduler.batch-size:500}") int batchSize,
+                                @Value("${poseidon.rules.scheduler.revision-lag-ms:10000}") long revisionLagMs) {
+        this.ruleNameService = ruleNameService;
+        this.ruleEngineService = ruleEngineService;
+        this.ruleTemplateService = ruleTemplateService;
+        this.tradeRepository = tradeRepository;
+        this.ruleRunStateRepository = ruleRunStateRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.revisionLag = Duration.ofMillis(revisionLagMs);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "rule-run-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Exécution planifiée de toutes les règles, si le planificateur est activé.
+     */
+    @Scheduled(fixedDelayString = "${poseidon.rules.scheduler.delay-ms:60000}",
+            initialDelayString = "${poseidon.rules.scheduler.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (enabled) {
+            runAll();
+        }
+    }
+
+    /**
+     * Exécute toutes les règles en parallèle, dans la limite de concurrence configurée.
+     *
+     * @return l'état de chaque règle exécutée avec succès
+     */
+    public List<RuleRunState> runAll() {
+        List<RuleName> ruleNames = ruleNameService.getAll();
+        deleteStatesOfDeletedRules(ruleNames);
+
+        List<Callable<RuleRunState>> tasks = new ArrayList<>();
+        for (RuleName ruleName : ruleNames) {
+            tasks.add(() -> run(ruleName));
+        }
+
+        List<RuleRunState> states = new ArrayList<>();
+        try {
+            for (Future<RuleRunState> result : executor.invokeAll(tasks)) {
+                try {
+                    RuleRunState state = result.get();
+                    if (state != null) {
+                        states.add(state);
+                    }
+                } catch (ExecutionException e) {
+                    logger.warn("Rule run failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return states;
+    }
+
+    /**
+     * Évalue une règle sur les trades créés ou modifiés depuis sa dernière exécution,
+     * puis avance sa marque haute.
+     *
+     * @param ruleName la règle à exécuter
+     * @return l'état mis à jour, ou {@code null} si la règle ne s'applique pas aux trades
+     */
+    public RuleRunState run(RuleName ruleName) {
+        Predicate<Trade> predicate;
+        try {
+            predicate = ruleEngineService.getCompiled(ruleName).onTrade();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rule {} skipped : {}", ruleName.getId(), e.getMessage());
+            return null;
+        }
+        if (predicate == null) {
+            logger.debug("Rule {} does not apply to trades, skipped", ruleName.getId());
+            return null;
+        }
+
+        RuleRunState state = ruleRunStateRepository.findById(ruleName.getId())
+                .orElseGet(() -> new RuleRunState(ruleName.getId()));
+        // Copie retenue seulement une fois l'état enregistré : un échec ne fait pas ignorer ces révisions ensuite
+        Map<Integer, LocalDateTime> evaluated = new HashMap<>(evaluatedRevisions.getOrDefault(ruleName.getId(), Map.of()));
+        long start = System.nanoTime();
+        long scanned = 0;
+        long matches = 0;
+        int lastTradeId = state.getLastTradeId() == null ? 0 : state.getLastTradeId();
+        LocalDateTime since = state.getLastRevisionDate() == null ? EPOCH : state.getLastRevisionDate();
+        LocalDateTime lastRevisionDate = since;
+
+        // Trades déjà traités mais révisés depuis, fenêtre de recouvrement comprise, par pages successives
+        LocalDateTime afterDate = since.equals(EPOCH) ? EPOCH : since.minus(revisionLag);
+        int afterId = 0;
+        List<Trade> page;
+        do {
+            page = findRevisedSince(lastTradeId, afterDate, afterId);
+            for (Trade trade : page) {
+                afterDate = trade.getRevisionDate();
+                afterId = trade.getId();
+                if (trade.getRevisionDate().equals(evaluated.get(trade.getId()))) {
+                    // Révision déjà évaluée lors d'une exécution précédente
+                    continue;
+                }
+                scanned++;
+                matches += evaluate(ruleName, predicate, trade);
+                evaluated.put(trade.getId(), trade.getRevisionDate());
+                lastRevisionDate = latest(lastRevisionDate, trade.getRevisionDate());
+            }
+        } while (page.size() == batchSize);
+
+        // Nouveaux trades, par pages successives
+        do {
+            page = findCreatedAfter(lastTradeId);
+            for (Trade trade : page) {
+                scanned++;
+                matches += evaluate(ruleName, predicate, trade);
+                lastTradeId = trade.getId();
+                if (trade.getRevisionDate() != null) {
+                    evaluated.put(trade.getId(), trade.getRevisionDate());
+                }
+                lastRevisionDate = latest(lastRevisionDate, trade.getRevisionDate());
+            }
+        } while (page.size() == batchSize);
+
+        // Les révisions sorties de la fenêtre de recouvrement ne seront plus relues
+        LocalDateTime windowStart = lastRevisionDate.minus(revisionLag);
+        evaluated.values().removeIf(revisionDate -> revisionDate.isBefore(windowStart));
+
+        long durationNanos = System.nanoTime() - start;
+        state.setLastTradeId(lastTradeId);
+        state.setLastRevisionDate(lastRevisionDate.equals(EPOCH) ? null : lastRevisionDate);
+        state.setLastRunDate(LocalDateTime.now());
+        state.setLastDurationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        state.setLastRowsScanned(scanned);
+        state.setLastMatches(matches);
+        record(ruleName, durationNanos, scanned, matches);
+
+        RuleRunState saved = ruleRunStateRepository.save(state);
+        evaluatedRevisions.put(ruleName.getId(), evaluated);
+        logger.debug("Rule {} run : {} trades scanned, {} matches in {} ms",
+                ruleName.getId(), scanned, matches, state.getLastDurationMs());
+        return saved;
+    }
+
+    /**
+     * Lit une page de trades déjà traités et révisés depuis, sur le pool {@code reporting}.
+     */
+    private List<Trade> findRevisedSince(int lastTradeId, LocalDateTime afterDate, int afterId) {
+        return Workload.REPORTING.run(() ->
+                tradeRepository.findRevisedSince(lastTradeId, afterDate, afterId, PageRequest.of(0, batchSize)));
+    }
+
+    /**
+     * Lit une page de nouveaux trades, sur le pool {@code reporting}.
+     */
+    private List<Trade> findCreatedAfter(int lastTradeId) {
+        return Workload.REPORTING.run(() ->
+                tradeRepository.findByIdGreaterThanOrderByIdAsc(lastTradeId, PageRequest.of(0, batchSize)));
+    }
+
+    /**
+     * Supprime l'état d'exécution des règles qui n'existent plus.
+     */
+    private void deleteStatesOfDeletedRules(List<RuleName> ruleNames) {
+        Set<Integer> ruleIds = new HashSet<>();
+        for (RuleName ruleName : ruleNames) {
+            ruleIds.add(ruleName.getId());
+        }
+        List<Integer> orphans = new ArrayList<>();
+        for (RuleRunState state : ruleRunStateRepository.findAll()) {
+            if (!ruleIds.contains(state.getRuleId())) {
+                orphans.add(state.getRuleId());
+            }
+        }
+        evaluatedRevisions.keySet().retainAll(ruleIds);
+        if (!orphans.isEmpty()) {
+            ruleRunStateRepository.deleteAllById(orphans);
+            logger.debug("Run state of deleted rules {} removed", orphans);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int evaluate(RuleName ruleName, Predicate<Trade> predicate, Trade trade) {
+        if (!predicate.test(trade)) {
+            return 0;
+        }
+        String message;
+        try {
+            message = ruleTemplateService.render(ruleName, trade);
+        } catch (IllegalArgumentException e) {
+            message = ruleName.getName();
+        }
+        logger.info("Rule {} matched trade {} : {}", ruleName.getId(), trade.getId(), message);
+        return 1;
+    }
+
+    private void record(RuleName ruleName, long durationNanos, long scanned, long matches) {
+        String rule = String.valueOf(ruleName.getId());
+        Timer.builder("poseidon.rules.run")
+                .description("Durée d'exécution planifiée d'une règle")
+                .tag("rule", rule)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("poseidon.rules.rows.scanned")
+                .description("Trades lus par exécution d'une règle")
+                .tag("rule", rule)
+                .register(meterRegistry)
+                .record(scanned);
+        Counter.builder("poseidon.rules.matches")
+                .description("Trades satisfaisant une règle")
+                .tag("rule", rule)
+                .register(meterRegistry)
+                .increment(matches);
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        return candidate != null && candidate.isAfter(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,188 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.configuration.jdbc.ReportingWorkload;
+import com.nnk.springboot.domain.RuleName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Service d'exécution contrôlée des requêtes SQL des règles (RuleName).
+ *
+ * <p>La requête d'une règle est la concaténation de {@code sqlStr} et de {@code sqlPart}.
+ * Elle doit être un unique {@code SELECT} et peut utiliser des paramètres nommés
+ * ({@code :account}) dont les valeurs sont liées, jamais concaténées.</p>
+ *
+ * <p>Ce contrôle du texte ne rejette que les erreurs grossières : une fonction ou une clause
+ * {@code FOR UPDATE} passent pour un {@code SELECT}, et n'importe quelle table peut être lue.
+ * La protection est la connexion : le pool {@code reporting} est en lecture seule
+ * ({@code poseidon.datasource.reporting.read-only}), ce que le driver MySQL transmet au serveur,
+ * qui rejette alors toute écriture, et utilise un compte limité à {@code SELECT} sur les tables
+ * lues par les règles ({@code poseidon.datasource.reporting.username}, voir {@code doc/data.sql}).
+ * La requête n'est pas exécutée si la connexion obtenue n'est pas en lecture seule, ou si elle
+ * utilise le compte de l'application ({@code spring.datasource.username}), qui peut lire les
+ * utilisateurs. Seul un administrateur peut modifier ou exporter la requête d'une règle.</p>
+ *
+ * <p>Chaque requête est validée une seule fois puis mise en cache par règle ; la forme analysée
+ * des paramètres est mise en cache par {@link NamedParameterJdbcTemplate} et le plan d'exécution
+ * par le cache de prepared statements du driver ({@code cachePrepStmts}). L'exécution se fait
+ * dans une transaction en lecture seule, avec un timeout et un nombre maximal de lignes, et les
+ * lignes sont transmises une à une au consommateur sans être collectées en mémoire. La connexion
+ * est prise dans le pool {@code reporting}, pour ne pas priver la saisie des trades de connexions.</p>
+ */
+@Service
+public class RuleSqlService {
+
+    private final Logger logger = LoggerFactory.getLogger(RuleSqlService.class);
+
+    /**
+     * Une requête de règle doit commencer par SELECT
+     */
+    private static final Pattern SELECT_STATEMENT = Pattern.compile("^select\\s", Pattern.CASE_INSENSITIVE);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Compte de l'application, refusé pour les requêtes des règles
+     */
+    private final String applicationUsername;
+
+    /**
+     * Requêtes validées, par identifiant de règle
+     */
+    private final Map<Integer, PreparedRuleSql> preparedQueries = new ConcurrentHashMap<>();
+
+    /**
+     * Requête validée d'une règle.
+     *
+     * @param ruleId  identifiant de la règle
+     * @param version version de la règle validée ({@link RuleName#getVersion()})
+     * @param sql     requête SQL complète
+     */
+    public record PreparedRuleSql(int ruleId, int version, String sql) {
+    }
+
+    /**
+     * Construit le service avec un {@link JdbcTemplate} dédié, borné en temps et en volume.
+     *
+     * @param dataSource     la source de données
+     * @param timeoutSeconds timeout d'exécution d'une requête, en secondes
+     * @param maxRows        nombre maximal de lignes lues par exécution
+     * @param fetchSize           nombre de lignes ramenées par aller-retour avec la base
+     * @param applicationUsername compte de l'application, refusé pour les requêtes des règles
+     */
+    public RuleSqlService(DataSource dataSource,
+                          @Value("${poseidon.rules.sql.timeout-seconds:10}") int timeoutSeconds,
+                          @Value("${poseidon.rules.sql.max-rows:10000}") int maxRows,
+                          @Value("${poseidon.rules.sql.fetch-size:500}") int fetchSize,
+                          @Value("${spring.datasource.username:}") String applicationUsername) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout(timeoutSeconds);
+        template.setMaxRows(maxRows);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.applicationUsername = applicationUsername;
+    }
+
+    /**
+     * Exécute la requête d'une règle et transmet chaque ligne au consommateur.
+     * La connexion est libérée dès la dernière ligne lue ; le consommateur doit donc rester rapide.
+     *
+     * @param ruleName   la règle dont la requête est exécutée
+     * @param parameters valeurs des paramètres nommés de la requête
+     * @param consumer   consommateur des lignes (colonne vers valeur)
+     * @return le nombre de lignes lues
+     * @throws IllegalArgumentException si la requête de la règle n'est pas un SELECT unique
+     * @throws IllegalStateException    si la connexion obtenue n'est pas en lecture seule
+     *                                  ou utilise le compte de l'application
+     */
+    @ReportingWorkload
+    @Transactional(readOnly = true)
+    public long stream(RuleName ruleName, Map<String, ?> parameters, Consumer<Map<String, Object>> consumer) {
+        PreparedRuleSql prepared = prepare(ruleName);
+        String account = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                connection.isReadOnly() ? connection.getMetaData().getUserName() : null);
+        if (account == null) {
+            logger.warn("Rule {} sql not executed : connection is not read-only", prepared.ruleId());
+            throw new IllegalStateException("Rule sql requires a read-only connection");
+        }
+        if (isApplicationAccount(account)) {
+            logger.warn("Rule {} sql not executed : connection uses the application account", prepared.ruleId());
+            throw new IllegalStateException("Rule sql requires a restricted database account");
+        }
+        ColumnMapRowMapper rowMapper = new ColumnMapRowMapper();
+        long[] rows = {0};
+        long start = System.nanoTime();
+
+        jdbcTemplate.query(prepared.sql(), parameters, (RowCallbackHandler) resultSet -> {
+            consumer.accept(rowMapper.mapRow(resultSet, (int) rows[0]));
+            rows[0]++;
+        });
+
+        logger.debug("Rule {} sql executed : {} rows in {} ms", prepared.ruleId(), rows[0],
+                (System.nanoTime() - start) / 1_000_000);
+        return rows[0];
+    }
+
+    /**
+     * Valide et met en cache la requête d'une règle, ou retourne la requête en cache si elle a été
+     * validée pour la même version de la règle ({@link RuleName#getVersion()}, incrémentée à chaque
+     * modification enregistrée).
+     *
+     * @param ruleName la règle, telle qu'enregistrée
+     * @return la requête validée
+     * @throws IllegalArgumentException si la requête n'est pas un SELECT unique
+     */
+    public PreparedRuleSql prepare(RuleName ruleName) {
+        int version = ruleName.getVersion();
+        return preparedQueries.compute(ruleName.getId(), (id, current) ->
+                current != null && current.version() == version ? current : new PreparedRuleSql(id, version, buildSql(ruleName)));
+    }
+
+    /**
+     * Invalide la requête en cache d'une règle modifiée ou supprimée, une fois la modification validée :
+     * un chargement concurrent ne peut plus relire l'ancienne définition.
+     *
+     * @param event l'événement de modification de la règle
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRuleNameChanged(RuleNameChangedEvent event) {
+        preparedQueries.remove(event.ruleId());
+    }
+
+    /**
+     * @param account compte de la connexion, suivi de {@code @hôte} pour MySQL
+     * @return vrai si c'est le compte de l'application
+     */
+    private boolean isApplicationAccount(String account) {
+        int host = account.indexOf('@');
+        String username = host < 0 ? account : account.substring(0, host);
+        return !applicationUsername.isEmpty() && username.equalsIgnoreCase(applicationUsername);
+    }
+
+    private String buildSql(RuleName ruleName) {
+        String sqlStr = ruleName.getSqlStr() == null ? "" : ruleName.getSqlStr().trim();
+        String sqlPart = ruleName.getSqlPart() == null ? "" : ruleName.getSqlPart().trim();
+        String sql = sqlPart.isEmpty() ? sqlStr : sqlStr + " " + sqlPart;
+
+        if (!SELECT_STATEMENT.matcher(sql).lookingAt() || sql.indexOf(';') >= 0) {
+            logger.warn("Rejected sql for rule {} : only a single select statement is allowed", ruleName.getId());
+            throw new IllegalArgumentException("Rule " + ruleName.getId() + " sql must be a single select statement");
+        }
+        return sql;
+    }
+}
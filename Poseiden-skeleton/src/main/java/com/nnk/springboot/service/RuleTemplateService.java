@@ -0,0 +1,251 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Service de rendu des templates des règles (RuleName).
+ *
+ * <p>Un template contient des champs entre accolades, par exemple
+ * {@code "Trade {account} exceeds limit: {buyQuantity}"} ; une double accolade ouvrante
+ * produit une accolade littérale. Les champs disponibles sont ceux de {@link RuleFields}.</p>
+ *
+ * <p>Chaque template est analysé une seule fois en une suite de segments littéraux et
+ * d'accesseurs, mise en cache par règle et version ({@link VersionedRuleCache}) et invalidée
+ * par {@link RuleNameChangedEvent} une fois la modification validée.
+ * {@link #render(int, Trade)} ne charge la règle qu'en l'absence de template en cache.
+ * Le rendu ne fait qu'ajouter les segments dans un {@link StringBuilder} dimensionné à
+ * l'avance ; {@link #renderTo(RuleName, Trade, StringBuilder)} permet de réutiliser le même
+ * buffer sur tout un lot.</p>
+ */
+@Service
+public class RuleTemplateService {
+
+    private final Logger logger = LoggerFactory.getLogger(RuleTemplateService.class);
+
+    private final RuleNameService ruleNameService;
+
+    /**
+     * Templates compilés, par identifiant et version de règle
+     */
+    private final VersionedRuleCache<CompiledTemplates> compiledTemplates;
+
+    /**
+     * Template compilé pour un type d'entité : {@code literals[i]} précède {@code getters[i]},
+     * le dernier littéral termine le message.
+     *
+     * @param literals segments littéraux (un de plus que d'accesseurs)
+     * @param getters  accesseurs des champs insérés
+     * @param length   longueur estimée du message rendu
+     * @param <T>      type de l'entité
+     */
+    public record CompiledTemplate<T>(String[] literals, Function<T, ?>[] getters, int length) {
+
+        /**
+         * Ajoute le message rendu pour une entité au buffer fourni.
+         *
+         * @param target l'entité
+         * @param out    le buffer de sortie
+         */
+        public void renderTo(T target, StringBuilder out) {
+            for (int i = 0; i < getters.length; i++) {
+                out.append(literals[i]);
+                Object value = getters[i].apply(target);
+                if (value instanceof Double number) {
+                    out.append(number.doubleValue());
+                } else {
+                    out.append(value);
+                }
+            }
+            out.append(literals[getters.length]);
+        }
+    }
+
+    private record CompiledTemplates(int version, CompiledTemplate<Trade> onTrade, CompiledTemplate<BidList> onBidList) {
+    }
+
+    /**
+     * @param ruleNameService service de chargement des règles
+     */
+    public RuleTemplateService(RuleNameService ruleNameService) {
+        this.ruleNameService = ruleNameService;
+        this.compiledTemplates = new VersionedRuleCache<>(CompiledTemplates::version, ruleNameService::getById);
+    }
+
+    /**
+     * Rend le template d'une règle pour un trade.
+     * La règle n'est chargée que si son template n'est pas en cache.
+     *
+     * @param ruleId identifiant de la règle
+     * @param trade  le trade
+     * @return le message rendu
+     */
+    public String render(int ruleId, Trade trade) {
+        CompiledTemplate<Trade> template = tradeTemplate(compiledTemplates.get(ruleId, this::compile), ruleId);
+        StringBuilder out = new StringBuilder(template.length());
+        template.renderTo(trade, out);
+        return out.toString();
+    }
+
+    /**
+     * Rend le template d'une règle pour un trade.
+     *
+     * @param ruleName la règle
+     * @param trade    le trade
+     * @return le message rendu
+     */
+    public String render(RuleName ruleName, Trade trade) {
+        CompiledTemplate<Trade> template = forTrade(ruleName);
+        StringBuilder out = new StringBuilder(template.length());
+        template.renderTo(trade, out);
+        return out.toString();
+    }
+
+    /**
+     * Rend le template d'une règle pour un trade dans un buffer réutilisable.
+     *
+     * @param ruleName la règle
+     * @param trade    le trade
+     * @param out      le buffer de sortie
+     */
+    public void renderTo(RuleName ruleName, Trade trade, StringBuilder out) {
+        forTrade(ruleName).renderTo(trade, out);
+    }
+
+    /**
+     * Rend le template d'une règle pour une enchère.
+     *
+     * @param ruleName la règle
+     * @param bidList  l'enchère
+     * @return le message rendu
+     */
+    public String render(RuleName ruleName, BidList bidList) {
+        CompiledTemplate<BidList> template = forBidList(ruleName);
+        StringBuilder out = new StringBuilder(template.length());
+        template.renderTo(bidList, out);
+        return out.toString();
+    }
+
+    /**
+     * Retourne le template compilé d'une règle pour les trades.
+     *
+     * @param ruleName la règle
+     * @return le template compilé
+     * @throws IllegalArgumentException si le template référence un champ inconnu des trades
+     */
+    public CompiledTemplate<Trade> forTrade(RuleName ruleName) {
+        return tradeTemplate(getCompiled(ruleName), ruleName.getId());
+    }
+
+    /**
+     * Retourne le template compilé d'une règle pour les enchères.
+     *
+     * @param ruleName la règle
+     * @return le template compilé
+     * @throws IllegalArgumentException si le template référence un champ inconnu des enchères
+     */
+    public CompiledTemplate<BidList> forBidList(RuleName ruleName) {
+        CompiledTemplate<BidList> template = getCompiled(ruleName).onBidList();
+        if (template == null) {
+            throw new IllegalArgumentException("Template of rule " + ruleName.getId() + " does not apply to BidList");
+        }
+        return template;
+    }
+
+    /**
+     * Invalide le template compilé d'une règle modifiée ou supprimée, une fois la modification validée.
+     *
+     * @param event l'événement de modification de la règle
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRuleNameChanged(RuleNameChangedEvent event) {
+        compiledTemplates.invalidate(event);
+    }
+
+    private CompiledTemplates getCompiled(RuleName ruleName) {
+        return compiledTemplates.get(ruleName, this::compile);
+    }
+
+    private CompiledTemplates compile(RuleName ruleName) {
+        logger.debug("Compiling template of rule {}", ruleName.getId());
+        return new CompiledTemplates(ruleName.getVersion(),
+                compileOrNull(ruleName.getTemplate(), RuleFields.TRADE),
+                compileOrNull(ruleName.getTemplate(), RuleFields.BID_LIST));
+    }
+
+    private static CompiledTemplate<Trade> tradeTemplate(CompiledTemplates compiled, int ruleId) {
+        if (compiled.onTrade() == null) {
+            throw new IllegalArgumentException("Template of rule " + ruleId + " does not apply to Trade");
+        }
+        return compiled.onTrade();
+    }
+
+    private static <T> CompiledTemplate<T> compileOrNull(String template, Map<String, RuleFields.Field<T>> fields) {
+        try {
+            return compile(template, fields);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Analyse un template en segments littéraux et accesseurs.
+     *
+     * @param template le template
+     * @param fields   les champs disponibles
+     * @param <T>      type de l'entité
+     * @return le template compilé
+     * @throws IllegalArgumentException si le template est mal formé ou référence un champ inconnu
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledTemplate<T> compile(String template, Map<String, RuleFields.Field<T>> fields) {
+        String source = template == null ? "" : template;
+        List<String> literals = new ArrayList<>();
+        List<Function<T, ?>> getters = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = 0;
+
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '{' && i + 1 < source.length() && source.charAt(i + 1) == '{') {
+                literal.append('{');
+                i += 2;
+            } else if (c == '{') {
+                int end = source.indexOf('}', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed placeholder in template : " + source);
+                }
+                String name = source.substring(i + 1, end).trim();
+                RuleFields.Field<T> field = fields.get(name);
+                if (field == null) {
+                    throw new IllegalArgumentException("Unknown template field : " + name);
+                }
+                literals.add(literal.toString());
+                length += literal.length();
+                literal.setLength(0);
+                getters.add(field.getter());
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        length += literal.length();
+
+        // Marge moyenne par valeur insérée
+        length += getters.size() * 16;
+        return new CompiledTemplate<>(literals.toArray(new String[0]), getters.toArray(new Function[0]), length);
+    }
+}
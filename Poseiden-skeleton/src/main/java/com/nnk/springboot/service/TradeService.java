@@ -9,7 +9,9 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -29,6 +31,7 @@ public class TradeService  implements CrudService<Trade>{
      *
      * @return Liste de toutes les transactions existantes
      */
+    @Transactional(readOnly = true)
     public List<Trade> getAll() {
         return tradeRepository.findAll();
     }
@@ -40,6 +43,11 @@ public class TradeService  implements CrudService<Trade>{
      * @return La transaction sauvegardée avec son ID généré
      */
     public Trade save(Trade trade) {
+        // La création compte comme une révision : un trade validé tardivement est retrouvé par
+        // la fenêtre de recouvrement des exécutions planifiées des règles
+        LocalDateTime now = LocalDateTime.now();
+        trade.setCreationDate(now);
+        trade.setRevisionDate(now);
         return tradeRepository.save(trade);
     }
 
@@ -50,6 +58,7 @@ public class TradeService  implements CrudService<Trade>{
      * @return La transaction trouvée
      * @throws EntityNotFoundException si la transaction n'existe pas
      */
+    @Transactional(readOnly = true)
     public Trade getById(int id) {
         return tradeRepository.findById(id)
                 .orElseThrow(() -> {
@@ -66,6 +75,7 @@ public class TradeService  implements CrudService<Trade>{
      * @return La transaction mise à jour
      * @throws EntityNotFoundException si la transaction n'existe pas
      */
+    @Transactional
     public Trade update(int id, Trade trade) {
         // Récupère la transaction existante
         Trade tradeToUpdate = getById(id);
@@ -74,6 +84,8 @@ public class TradeService  implements CrudService<Trade>{
         tradeToUpdate.setAccount(trade.getAccount());
         tradeToUpdate.setType(trade.getType());
         tradeToUpdate.setBuyQuantity(trade.getBuyQuantity());
+        // La date de révision permet aux exécutions planifiées des règles de détecter la modification
+        tradeToUpdate.setRevisionDate(LocalDateTime.now());
 
         // Sauvegarde les modifications
         return tradeRepository.save(tradeToUpdate);
@@ -85,6 +97,7 @@ public class TradeService  implements CrudService<Trade>{
      * @param id L'identifiant de la transaction à supprimer
      * @throws EntityNotFoundException si la transaction n'existe pas
      */
+    @Transactional
     public void delete(int id) {
         // Vérifie l'existence de la transaction avant la suppression
         if (!tradeRepository.existsById(id)) {
@@ -0,0 +1,10 @@
+package com.nnk.springboot.service;
+
+/**
+ * Événement publié par {@link UserService} lorsqu'un utilisateur est créé, modifié ou supprimé.
+ * Permet aux composants qui conservent les informations d'authentification d'invalider leur cache.
+ *
+ * @param username nom d'utilisateur concerné, {@code null} si l'événement concerne tous les utilisateurs
+ */
+public record UserChangedEvent(String username) {
+}
@@ -8,9 +8,12 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -25,11 +28,14 @@ public class UserService  implements CrudService<User>{
 
     private final UserRepository userRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Récupère tous les utilisateurs
      *
      * @return Liste de tous les utilisateurs
      */
+    @Transactional(readOnly = true)
     public List<User> getAll() {
         return userRepository.findAll();
     }
@@ -41,7 +47,9 @@ public class UserService  implements CrudService<User>{
      * @return L'utilisateur sauvegardé avec son ID généré
      */
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+        return saved;
     }
 
     /**
@@ -51,6 +59,7 @@ public class UserService  implements CrudService<User>{
      * @return L'utilisateur trouvé
      * @throws EntityNotFoundException si l'utilisateur n'est pas trouvé
      */
+    @Transactional(readOnly = true)
     public User getById(int id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> {
@@ -66,18 +75,26 @@ public class UserService  implements CrudService<User>{
      * @param user Les nouvelles données de l'utilisateur
      * @return L'utilisateur mis à jour
      */
+    @Transactional
     public User update(int id, User user) {
         // Récupération de l'utilisateur existant
         User userToUpdate = getById(id);
+        String previousUsername = userToUpdate.getUsername();
         userToUpdate.setUsername(user.getUsername());
         userToUpdate.setFullname(user.getFullname());
         userToUpdate.setRole(user.getRole());
         userToUpdate.setPassword(user.getPassword());
     
         // Sauvegarde des modifications
-        return userRepository.save(userToUpdate);
+        User saved = userRepository.save(userToUpdate);
+        eventPublisher.publishEvent(new UserChangedEvent(previousUsername));
+        if (!Objects.equals(previousUsername, user.getUsername())) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+        }
+        return saved;
     }
 
+    @Transactional
     public void delete(int id) {
 
         if (!userRepository.existsById(id)) {
@@ -86,6 +103,8 @@ public class UserService  implements CrudService<User>{
         }
 
         userRepository.deleteById(id);
+        // Le nom de l'utilisateur supprimé n'est pas chargé : tout le cache est invalidé
+        eventPublisher.publishEvent(new UserChangedEvent(null));
     }
 
     public Optional<User> findByUsername(String defaultUsername) {
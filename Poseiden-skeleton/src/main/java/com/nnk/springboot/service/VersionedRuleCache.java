@@ -0,0 +1,117 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.RuleName;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache des formes compilées des règles (RuleName), par identifiant et version ({@link RuleName#getVersion()}).
+ *
+ * <p>Une entrée n'est remplacée que par une version plus récente. {@link #invalidate(RuleNameChangedEvent)}
+ * fixe la version minimale d'une règle modifiée ou supprimée avant d'évincer son entrée : une définition
+ * plus ancienne, chargée avant la modification, est relue et n'est plus mise en cache.</p>
+ *
+ * @param <V> type de la forme compilée
+ */
+final class VersionedRuleCache<V> {
+
+    /**
+     * Formes compilées, par identifiant de règle
+     */
+    private final Map<Integer, V> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Version minimale de chaque règle modifiée ou supprimée, par identifiant de règle
+     */
+    private final Map<Integer, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Version de la règle dont une forme compilée est issue
+     */
+    private final ToIntFunction<V> versionOf;
+
+    /**
+     * Chargement de la définition courante d'une règle
+     */
+    private final IntFunction<RuleName> loader;
+
+    /**
+     * @param versionOf version de la règle dont une forme compilée est issue
+     * @param loader    chargement de la définition courante d'une règle
+     */
+    VersionedRuleCache(ToIntFunction<V> versionOf, IntFunction<RuleName> loader) {
+        this.versionOf = versionOf;
+        this.loader = loader;
+    }
+
+    /**
+     * Retourne la forme compilée d'une règle, en la chargeant et en la compilant si elle n'est pas en cache.
+     *
+     * @param ruleId   identifiant de la règle
+     * @param compiler compilation d'une définition
+     * @return la forme compilée
+     */
+    V get(int ruleId, Function<RuleName, V> compiler) {
+        V cached = entries.get(ruleId);
+        return cached != null ? cached : get(loader.apply(ruleId), compiler);
+    }
+
+    /**
+     * Retourne la forme compilée d'une règle chargée, en la recompilant si sa version est plus récente.
+     * Une règle chargée avant sa dernière modification est relue ; elle ne remplace jamais une version plus récente.
+     *
+     * @param ruleName la règle
+     * @param compiler compilation d'une définition
+     * @return la forme compilée
+     */
+    V get(RuleName ruleName, Function<RuleName, V> compiler) {
+        RuleName definition = ruleName.getVersion() < minimumVersion(ruleName.getId())
+                ? loader.apply(ruleName.getId())
+                : ruleName;
+        int version = definition.getVersion();
+        Object[] uncached = new Object[1];
+        V cached = entries.compute(definition.getId(), (id, current) -> {
+            if (current != null && versionOf.applyAsInt(current) >= version) {
+                return current;
+            }
+            V compiled = compiler.apply(definition);
+            if (version < minimumVersion(id)) {
+                // Modification non encore visible : la forme compilée n'est pas mise en cache
+                uncached[0] = compiled;
+                return current;
+            }
+            return compiled;
+        });
+        @SuppressWarnings("unchecked")
+        V compiled = (V) uncached[0];
+        return compiled != null ? compiled : cached;
+    }
+
+    /**
+     * Fixe la version minimale d'une règle modifiée ou supprimée, puis évince sa forme compilée
+     * si elle est plus ancienne.
+     *
+     * @param event l'événement de modification de la règle
+     * @return {@code true} si une entrée a été évincée
+     */
+    boolean invalidate(RuleNameChangedEvent event) {
+        minimumVersions.merge(event.ruleId(), event.minimumVersion(), Math::max);
+        boolean[] evicted = new boolean[1];
+        entries.computeIfPresent(event.ruleId(), (id, current) -> {
+            if (versionOf.applyAsInt(current) >= minimumVersion(id)) {
+                return current;
+            }
+            evicted[0] = true;
+            return null;
+        });
+        return evicted[0];
+    }
+
+    private int minimumVersion(int ruleId) {
+        return minimumVersions.getOrDefault(ruleId, 0);
+    }
+}
@@ -0,0 +1,224 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.configuration.jdbc.SqlStatementRecorder;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.RatingRepository;
+import com.nnk.springboot.repositories.RuleNameRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.service.BidListService;
+import com.nnk.springboot.service.CurvePointService;
+import com.nnk.springboot.service.RatingService;
+import com.nnk.springboot.service.RuleNameService;
+import com.nnk.springboot.service.TradeService;
+import com.nnk.springboot.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budgets de requêtes SQL des pages de chaque contrôleur (liste, formulaires, création,
+ * mise à jour, suppression), services et base réels.
+ *
+ * <p>La mise à jour lit et modifie l'entité dans une même transaction : elle n'est pas relue
+ * à l'enregistrement.</p>
+ *
+ * <p>Les pages valident leurs propres transactions : chaque cas supprime ensuite les lignes
+ * qu'il a créées, plutôt que d'englober la requête dans une transaction de test qui fausserait
+ * les budgets.</p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementRecorder.class)
+@WithMockUser(username = "Admin", roles = "ADMIN")
+public class ControllerStatementBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementRecorder recorder;
+
+    @Autowired
+    private BidListService bidListService;
+
+    @Autowired
+    private CurvePointService curvePointService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private RuleNameService ruleNameService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BidListRepository bidListRepository;
+
+    @Autowired
+    private CurvePointRepository curvePointRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private RuleNameRepository ruleNameRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Map<JpaRepository<?, Integer>, Set<Integer>> existingIds = new HashMap<>();
+
+    @BeforeEach
+    public void recordExistingRows() {
+        for (JpaRepository<?, Integer> repository : repositories()) {
+            existingIds.put(repository, ids(repository));
+        }
+    }
+
+    /**
+     * Supprime les lignes créées par le cas, y compris par la page de création.
+     */
+    @AfterEach
+    public void deleteCreatedRows() {
+        existingIds.forEach((repository, before) -> {
+            Set<Integer> created = ids(repository);
+            created.removeAll(before);
+            repository.deleteAllById(created);
+        });
+        existingIds.clear();
+    }
+
+    private List<JpaRepository<?, Integer>> repositories() {
+        return List.of(bidListRepository, curvePointRepository, ratingRepository, ruleNameRepository, tradeRepository,
+                userRepository);
+    }
+
+    private Set<Integer> ids(JpaRepository<?, Integer> repository) {
+        PersistenceUnitUtil persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        return repository.findAll().stream()
+                .map(entity -> (Integer) persistenceUnitUtil.getIdentifier(entity))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void bidListController_statementBudgets() throws Exception {
+        int id = bidListService.save(new BidList("Budget", "Type", 10d)).getId();
+        assertBudgets("bidList", id, Map.of("account", "Budget", "type", "Type", "bidQuantity", "20"));
+    }
+
+    @Test
+    public void curvePointController_statementBudgets() throws Exception {
+        int id = curvePointService.save(new CurvePoint(1, 1d, 2d)).getId();
+        assertBudgets("curvePoint", id, Map.of("curveId", "2", "term", "3", "value", "4"));
+    }
+
+    @Test
+    public void ratingController_statementBudgets() throws Exception {
+        int id = ratingService.save(new Rating("Aaa", "AA", "A", 200)).getId();
+        assertBudgets("rating", id, Map.of("moodysRating", "Aa1", "sandPRating", "AA", "fitchRating", "AA-",
+                "orderNumber", "201"));
+    }
+
+    @Test
+    public void ratingController_reorder_readsOnceAndUpdatesInOneBatch() throws Exception {
+        int first = ratingService.save(new Rating("Aaa", "AA", "A", 250)).getId();
+        int second = ratingService.save(new Rating("Aa1", "AA", "A", 251)).getId();
+        recorder.record(() -> mockMvc.perform(post("/rating/reorder").with(csrf())
+                        .param("ids", String.valueOf(second), String.valueOf(first)))
+                .andExpect(status().is3xxRedirection()))
+                .assertBudget(1, 0, 1, 0);
+    }
+
+    @Test
+    public void ruleNameController_statementBudgets() throws Exception {
+        int id = ruleNameService.save(new RuleName("Budget", "Description", "{}", "Template",
+                "select * from trade where", "buy_quantity > 0")).getId();
+        assertBudgets("ruleName", id, Map.of("name", "Budget 2", "description", "Description", "json", "{}",
+                "template", "Template", "sqlStr", "select * from trade where", "sqlPart", "buy_quantity > 1"));
+    }
+
+    @Test
+    public void tradeController_statementBudgets() throws Exception {
+        int id = tradeService.save(new Trade("Budget", "Type", 10d)).getId();
+        assertBudgets("trade", id, Map.of("account", "Budget", "type", "Type", "buyQuantity", "20"));
+    }
+
+    @Test
+    public void userController_statementBudgets() throws Exception {
+        String username = "budget" + Long.toString(System.nanoTime(), 36);
+        int id = userService.save(new User(username, "P@ssw0rd", "Budget User", "USER")).getId();
+        assertBudgets("user", id, Map.of("username", username + "x", "password", "P@ssw0rd1", "fullname", "Budget User",
+                "role", "USER"));
+    }
+
+    /**
+     * Vérifie le budget de chaque page d'une entité, la suppression en dernier.
+     *
+     * @param entity préfixe des URL du contrôleur
+     * @param id     identifiant d'une entité existante
+     * @param form   champs valides d'un formulaire de création ou de mise à jour
+     */
+    private void assertBudgets(String entity, int id, Map<String, String> form) throws Exception {
+        recorder.record(() -> mockMvc.perform(get("/" + entity + "/list")).andExpect(status().isOk()))
+                .assertBudget(1, 0, 0, 0);
+        recorder.record(() -> mockMvc.perform(get("/" + entity + "/add")).andExpect(status().isOk()))
+                .assertBudget(0, 0, 0, 0);
+        recorder.record(() -> mockMvc.perform(get("/" + entity + "/update/" + id)).andExpect(status().isOk()))
+                .assertBudget(1, 0, 0, 0);
+        recorder.record(() -> mockMvc.perform(withForm(post("/" + entity + "/update/" + id), form))
+                        .andExpect(status().is3xxRedirection()))
+                .assertBudget(1, 0, 1, 0);
+        recorder.record(() -> mockMvc.perform(get("/" + entity + "/delete/" + id)).andExpect(status().is3xxRedirection()))
+                .assertBudget(2, 0, 0, 1);
+
+        // Création, une fois l'entité d'origine supprimée
+        recorder.record(() -> mockMvc.perform(withForm(post("/" + entity + "/validate"), form))
+                        .andExpect(status().is3xxRedirection()))
+                .assertBudget(0, 1, 0, 0);
+    }
+
+    private static MockHttpServletRequestBuilder withForm(MockHttpServletRequestBuilder request, Map<String, String> form) {
+        form.forEach(request::param);
+        return request.with(csrf());
+    }
+}
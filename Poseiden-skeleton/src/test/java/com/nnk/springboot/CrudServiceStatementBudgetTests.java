@@ -0,0 +1,110 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.configuration.jdbc.SqlStatementRecorder;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.service.BidListService;
+import com.nnk.springboot.service.CrudService;
+import com.nnk.springboot.service.CurvePointService;
+import com.nnk.springboot.service.RatingService;
+import com.nnk.springboot.service.RuleNameService;
+import com.nnk.springboot.service.TradeService;
+import com.nnk.springboot.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Budgets de requêtes SQL des opérations CrudService de chaque entité.
+ * Chaque opération doit exécuter exactement le nombre de requêtes attendu, de chaque type :
+ * une requête supplémentaire (N+1, chargement inutile) fait échouer le build.
+ *
+ * <p>Une mise à jour lit et modifie l'entité dans une même transaction, sans nouvelle lecture
+ * avant l'UPDATE ; une suppression vérifie l'existence ({@code count}), relit l'entité puis
+ * la supprime.</p>
+ */
+@SpringBootTest
+@Import(SqlStatementRecorder.class)
+public class CrudServiceStatementBudgetTests {
+
+    @Autowired
+    private SqlStatementRecorder recorder;
+
+    @Autowired
+    private BidListService bidListService;
+
+    @Autowired
+    private CurvePointService curvePointService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private RuleNameService ruleNameService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    public void bidListService_statementBudgets() throws Exception {
+        assertBudgets(bidListService, i -> new BidList("Budget " + i, "Type", 10d), BidList::getId);
+    }
+
+    @Test
+    public void curvePointService_statementBudgets() throws Exception {
+        assertBudgets(curvePointService, i -> new CurvePoint(i + 1, 1d, 2d), CurvePoint::getId);
+    }
+
+    @Test
+    public void ratingService_statementBudgets() throws Exception {
+        assertBudgets(ratingService, i -> new Rating("Aaa", "AA", "A" + i, 200 + i), Rating::getId);
+    }
+
+    @Test
+    public void ruleNameService_statementBudgets() throws Exception {
+        assertBudgets(ruleNameService, i -> new RuleName("Budget " + i, "Description", "{}", "Template",
+                "select * from trade where", "buy_quantity > 0"), RuleName::getId);
+    }
+
+    @Test
+    public void tradeService_statementBudgets() throws Exception {
+        assertBudgets(tradeService, i -> new Trade("Budget " + i, "Type", 10d), Trade::getId);
+    }
+
+    @Test
+    public void userService_statementBudgets() throws Exception {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        assertBudgets(userService, i -> new User("budget" + i + suffix, "P@ssw0rd", "Budget User", "USER"), User::getId);
+    }
+
+    /**
+     * Vérifie le budget de chaque opération : création, lecture, liste, mise à jour et suppression.
+     *
+     * @param service  le service testé
+     * @param factory  crée une entité valide, différente pour chaque valeur
+     * @param idGetter identifiant d'une entité enregistrée
+     */
+    private <T> void assertBudgets(CrudService<T> service, IntFunction<T> factory, Function<T, Integer> idGetter)
+            throws Exception {
+        recorder.start();
+        T saved = service.save(factory.apply(1));
+        recorder.stop().assertBudget(0, 1, 0, 0);
+        int id = idGetter.apply(saved);
+
+        recorder.record(() -> service.getById(id)).assertBudget(1, 0, 0, 0);
+        recorder.record(service::getAll).assertBudget(1, 0, 0, 0);
+        recorder.record(() -> service.update(id, factory.apply(2))).assertBudget(1, 0, 1, 0);
+        recorder.record(() -> service.delete(id)).assertBudget(2, 0, 0, 1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.configuration.jdbc.ReplicaLagMonitor;
+import com.nnk.springboot.configuration.jdbc.SqlStatementRecorder;
+import com.nnk.springboot.configuration.jdbc.StatementObservingDataSource;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.service.BidListService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routage des connexions avec la réplique activée, services et base réels. La réplique est un
+ * second pool sur la même base, dont les requêtes sont enregistrées à part : une requête HTTP qui
+ * lit puis écrit doit écrire sur la base principale.
+ */
+@SpringBootTest(properties = {
+        "poseidon.datasource.replica.enabled=true",
+        "poseidon.datasource.replica.jdbc-url=${spring.datasource.url}",
+        "poseidon.datasource.replica.username=${spring.datasource.username}",
+        "poseidon.datasource.replica.password=${spring.datasource.password}",
+        "poseidon.datasource.replica.max-lag-ms=0"})
+@AutoConfigureMockMvc
+@WithMockUser(username = "Admin", roles = "ADMIN")
+public class ReplicaRoutingTests {
+
+    /**
+     * Requêtes exécutées sur la réplique
+     */
+    private static final List<String> REPLICA_STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private BidListService bidListService;
+
+    @TestConfiguration
+    static class ReplicaObservation {
+
+        @Bean
+        static BeanPostProcessor replicaObservingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "replicaDataSource".equals(beanName)
+                            ? StatementObservingDataSource.wrap((DataSource) bean, (sql, elapsedNanos) -> REPLICA_STATEMENTS.add(sql))
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    public void useReplica() {
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        REPLICA_STATEMENTS.clear();
+    }
+
+    @Test
+    public void list_readsFromReplica() throws Exception {
+        mockMvc.perform(get("/bidList/list")).andExpect(status().isOk());
+
+        assertTrue(replicaStatements().stream().anyMatch(sql -> SqlStatementRecorder.Kind.of(sql) == SqlStatementRecorder.Kind.SELECT));
+    }
+
+    @Test
+    public void update_readThenWrite_usesPrimaryOnly() throws Exception {
+        int id = bidListService.save(new BidList("Replica", "Type", 10d)).getId();
+        REPLICA_STATEMENTS.clear();
+
+        mockMvc.perform(post("/bidList/update/" + id).with(csrf())
+                        .param("account", "Replica").param("type", "Type").param("bidQuantity", "20"))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals(List.of(), replicaStatements());
+        assertEquals(20d, bidListService.getById(id).getBidQuantity());
+        bidListService.delete(id);
+    }
+
+    @Test
+    public void delete_checkThenDelete_usesPrimaryOnly() throws Exception {
+        int id = bidListService.save(new BidList("Replica", "Type", 10d)).getId();
+        REPLICA_STATEMENTS.clear();
+
+        mockMvc.perform(get("/bidList/delete/" + id)).andExpect(status().is3xxRedirection());
+
+        assertEquals(List.of(), replicaStatements());
+        assertThrows(EntityNotFoundException.class, () -> bidListService.getById(id));
+    }
+
+    /**
+     * @return les requêtes de la réplique, hors vérifications de disponibilité planifiées
+     */
+    private static List<String> replicaStatements() {
+        return REPLICA_STATEMENTS.stream().filter(sql -> !sql.equalsIgnoreCase("select 1")).toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.nnk.springboot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.configuration.jdbc.StatementObservingDataSource;
+import com.nnk.springboot.configuration.jdbc.Workload;
+import com.nnk.springboot.configuration.jdbc.WorkloadRoutingDataSource;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.RuleRunState;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.RuleRunStateRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.service.RuleEngineService;
+import com.nnk.springboot.service.RuleNameService;
+import com.nnk.springboot.service.RuleSchedulerService;
+import com.nnk.springboot.service.RuleTemplateService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exécution planifiée des règles sur une base réelle (H2) dont le pool {@code reporting} est en
+ * lecture seule et utilise un compte limité à la lecture des trades, comme en production : les
+ * trades sont lus sur ce pool, l'état des règles est lu et enregistré sur le pool {@code interactive}.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RuleSchedulerRoutingTests {
+
+    private static final String URL = "jdbc:h2:mem:rule-scheduler;NON_KEYWORDS=VALUE";
+
+    /**
+     * Requêtes exécutées par pool
+     */
+    private static final Map<String, List<String>> STATEMENTS = new ConcurrentHashMap<>();
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private RuleRunStateRepository ruleRunStateRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private RuleNameService ruleNameService;
+
+    private RuleSchedulerService ruleSchedulerService;
+
+    @TestConfiguration
+    static class WorkloadPools {
+
+        @Bean
+        DataSource dataSource() {
+            // Base conservée tant que le pool interactif reste ouvert
+            HikariDataSource interactive = pool("interactive", "sa", "");
+            interactive.setMinimumIdle(1);
+            new JdbcTemplate(interactive).execute("create user if not exists reporting password 'reporting'");
+            HikariDataSource reporting = pool("reporting", "reporting", "reporting");
+            reporting.setReadOnly(true);
+            return new WorkloadRoutingDataSource(observe("interactive", interactive), observe("reporting", reporting));
+        }
+
+        private static HikariDataSource pool(String name, String username, String password) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(URL);
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(2);
+            return pool;
+        }
+
+        private static DataSource observe(String name, DataSource pool) {
+            List<String> statements = STATEMENTS.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>());
+            return StatementObservingDataSource.wrap(pool, (sql, elapsedNanos) -> statements.add(sql.toLowerCase()));
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        // Le schéma est créé par Hibernate : le droit de lecture est accordé une fois les tables créées
+        new JdbcTemplate(dataSource).execute("grant select on trade to reporting");
+        ruleNameService = mock(RuleNameService.class);
+        ruleSchedulerService = new RuleSchedulerService(ruleNameService,
+                new RuleEngineService(ruleNameService, new ObjectMapper()),
+                new RuleTemplateService(ruleNameService),
+                tradeRepository, ruleRunStateRepository, new SimpleMeterRegistry(), true, 1, 2, 60_000);
+        STATEMENTS.values().forEach(List::clear);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ruleSchedulerService.shutdown();
+        ruleRunStateRepository.deleteAll();
+        tradeRepository.deleteAll();
+    }
+
+    @Test
+    public void runAll_readsTradesOnReportingPoolAndSavesStateOnInteractivePool() {
+        tradeRepository.save(new Trade("A1", "Type", 150.0));
+        tradeRepository.save(new Trade("A2", "Type", 50.0));
+        Trade last = tradeRepository.save(new Trade("A3", "Type", 200.0));
+        STATEMENTS.values().forEach(List::clear);
+
+        when(ruleNameService.getAll()).thenReturn(List.of(rule(1)));
+        RuleRunState state = ruleSchedulerService.runAll().get(0);
+
+        assertEquals(3L, state.getLastRowsScanned());
+        assertEquals(2L, state.getLastMatches());
+        assertEquals(last.getId(), ruleRunStateRepository.findById(1).orElseThrow().getLastTradeId());
+        assertTrue(STATEMENTS.get("reporting").stream().anyMatch(sql -> sql.contains("from trade")),
+                () -> "Reporting pool : " + STATEMENTS);
+        assertTrue(STATEMENTS.get("reporting").stream().noneMatch(sql -> sql.contains("rule_run_state")),
+                () -> "Reporting pool : " + STATEMENTS);
+        assertTrue(STATEMENTS.get("interactive").stream().anyMatch(sql -> sql.startsWith("insert into rule_run_state")),
+                () -> "Interactive pool : " + STATEMENTS);
+    }
+
+    @Test
+    public void run_secondRun_onlyScansNewTrades() {
+        tradeRepository.save(new Trade("A1", "Type", 150.0));
+        ruleSchedulerService.run(rule(1));
+        tradeRepository.save(new Trade("A2", "Type", 250.0));
+
+        RuleRunState state = ruleSchedulerService.run(rule(1));
+
+        assertEquals(1L, state.getLastRowsScanned());
+        assertEquals(1L, state.getLastMatches());
+    }
+
+    @Test
+    public void reportingPool_rejectsWrites() {
+        assertThrows(DataAccessException.class,
+                () -> Workload.REPORTING.run(() -> ruleRunStateRepository.save(new RuleRunState(2))));
+        assertTrue(ruleRunStateRepository.findById(2).isEmpty());
+    }
+
+    private static RuleName rule(int id) {
+        RuleName ruleName = new RuleName();
+        ruleName.setId(id);
+        ruleName.setName("Large trade");
+        ruleName.setJson("{\"field\": \"buyQuantity\", \"op\": \"gt\", \"value\": 100}");
+        ruleName.setTemplate("Trade {account} : {buyQuantity}");
+        return ruleName;
+    }
+}
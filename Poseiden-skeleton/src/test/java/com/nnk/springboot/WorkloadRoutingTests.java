@@ -0,0 +1,89 @@
+package com.nnk.springboot;
+
+import com.nnk.springboot.configuration.jdbc.StatementObservingDataSource;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.service.RuleNameService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Choix du pool de connexions par nature de travail, services et base réels : la requête d'une
+ * règle exportée par le contrôleur s'exécute sur le pool {@code reporting}, la lecture de la règle
+ * sur le pool {@code interactive}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "Admin", roles = "ADMIN")
+public class WorkloadRoutingTests {
+
+    /**
+     * Requêtes exécutées par pool, d'après le nom du bean
+     */
+    private static final Map<String, List<String>> STATEMENTS = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RuleNameService ruleNameService;
+
+    private Integer ruleId;
+
+    @TestConfiguration
+    static class PoolObservation {
+
+        @Bean
+        static BeanPostProcessor poolObservingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!beanName.equals("interactiveDataSource") && !beanName.equals("reportingDataSource")) {
+                        return bean;
+                    }
+                    List<String> statements = STATEMENTS.computeIfAbsent(beanName, name -> new CopyOnWriteArrayList<>());
+                    return StatementObservingDataSource.wrap((DataSource) bean, (sql, elapsedNanos) -> statements.add(sql));
+                }
+            };
+        }
+    }
+
+    @AfterEach
+    public void deleteRule() {
+        if (ruleId != null) {
+            ruleNameService.delete(ruleId);
+        }
+    }
+
+    @Test
+    public void exportSql_runsRuleSqlOnReportingPool() throws Exception {
+        RuleName ruleName = ruleNameService.save(new RuleName("Workload", "Description", "{}", "Template",
+                "select id from trade where", "account = 'workload-routing'"));
+        ruleId = ruleName.getId();
+        String ruleSql = "select id from trade where account = 'workload-routing'";
+        STATEMENTS.values().forEach(List::clear);
+
+        mockMvc.perform(get("/ruleName/sql/" + ruleId)).andExpect(status().isOk());
+
+        assertTrue(STATEMENTS.get("reportingDataSource").contains(ruleSql), () -> "Reporting pool : " + STATEMENTS);
+        assertFalse(STATEMENTS.get("interactiveDataSource").contains(ruleSql), () -> "Interactive pool : " + STATEMENTS);
+        assertFalse(STATEMENTS.get("interactiveDataSource").isEmpty(), "Rule read on the interactive pool");
+    }
+}
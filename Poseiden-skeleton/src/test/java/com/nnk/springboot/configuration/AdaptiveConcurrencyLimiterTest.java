@@ -0,0 +1,101 @@
+package com.nnk.springboot.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour AdaptiveConcurrencyLimiter.
+ * Vérifie le refus au-delà de la limite et l'ajustement de la limite selon la latence observée.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private long now;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 2.0, 0.5, WINDOW_NANOS, 5, () -> now);
+    }
+
+    /**
+     * Vérifie qu'une demande au-delà de la limite est refusée, puis acceptée après une libération.
+     */
+    @Test
+    void tryAcquire_limitReached_rejects() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        limiter.release(now);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    /**
+     * Vérifie que la limite baisse quand la latence dépasse la référence, puis remonte quand elle redevient normale.
+     */
+    @Test
+    void release_latencyRises_lowersLimitThenRecovers() {
+        window(10, 8);
+        assertEquals(13, limiter.getLimit());
+
+        window(50, 8);
+        assertEquals(6, limiter.getLimit());
+
+        window(10, 6);
+        assertTrue(limiter.getLimit() > 6);
+    }
+
+    /**
+     * Vérifie que la limite n'augmente pas tant qu'elle est loin d'être utilisée.
+     */
+    @Test
+    void release_lowConcurrency_keepsLimit() {
+        window(10, 2);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    /**
+     * Vérifie que la limite ne descend pas sous la limite minimale.
+     */
+    @Test
+    void release_sustainedLatency_neverGoesBelowMinimum() {
+        window(10, 8);
+        for (int i = 1; i <= 4; i++) {
+            window(10L << (2 * i), 2);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    /**
+     * Simule une fenêtre de mesure : {@code concurrency} requêtes simultanées de {@code latencyMillis},
+     * répétées jusqu'à remplir la fenêtre.
+     */
+    private void window(long latencyMillis, int concurrency) {
+        long latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        long end = now + WINDOW_NANOS;
+        while (now < end) {
+            int acquired = 0;
+            while (acquired < concurrency && limiter.tryAcquire()) {
+                acquired++;
+            }
+            long start = now;
+            now += latencyNanos;
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.nnk.springboot.configuration;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.service.CrudService;
+import com.nnk.springboot.service.CurvePointService;
+import com.nnk.springboot.service.TradeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Classe de tests unitaires pour CrudServiceMetricsAspect.
+ * Vérifie les timers et compteurs d'erreurs tagués par entité et opération.
+ */
+@ExtendWith(MockitoExtension.class)
+class CrudServiceMetricsAspectTest {
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CrudService<Trade> tradeService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TradeService(tradeRepository));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CrudServiceMetricsAspect(meterRegistry));
+        tradeService = factory.getProxy();
+    }
+
+    /**
+     * Vérifie que chaque appel est chronométré sous l'entité et l'opération.
+     */
+    @Test
+    void measure_recordsTimerPerEntityAndOperation() {
+        when(tradeRepository.findAll()).thenReturn(List.of());
+
+        tradeService.getAll();
+        tradeService.getAll();
+
+        assertEquals(2, meterRegistry.get("poseidon.service")
+                .tag("entity", "trade").tag("operation", "getAll").timer().count());
+    }
+
+    /**
+     * Vérifie qu'une exception est comptée, puis propagée inchangée.
+     */
+    @Test
+    void measure_countsErrorsAndRethrows() {
+        when(tradeRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> tradeService.getById(1));
+
+        assertEquals(1.0, meterRegistry.get("poseidon.service.errors")
+                .tag("entity", "trade").tag("operation", "getById")
+                .tag("exception", "EntityNotFoundException").counter().count());
+        assertEquals(1, meterRegistry.get("poseidon.service")
+                .tag("entity", "trade").tag("operation", "getById").timer().count());
+    }
+
+    /**
+     * Vérifie le nom d'entité déduit de la classe du service.
+     */
+    @Test
+    void entity_derivesNameFromServiceClass() {
+        assertEquals("curvePoint", CrudServiceMetricsAspect.entity(CurvePointService.class));
+        assertEquals("trade", CrudServiceMetricsAspect.entity(TradeService.class));
+    }
+}
@@ -0,0 +1,108 @@
+package com.nnk.springboot.configuration;
+
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour DefaultAdminUserConfig.
+ * Vérifie la création différée de l'administrateur par défaut, une seule fois et sans bloquer le démarrage.
+ */
+@ExtendWith(MockitoExtension.class)
+class DefaultAdminUserConfigTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    /**
+     * Vérifie que l'administrateur n'est créé qu'une fois, puis retrouvé aux démarrages suivants.
+     */
+    @Test
+    void initDefaultAdmin_createsAdminOnce() {
+        DefaultAdminUserConfig config = new DefaultAdminUserConfig(userService, passwordEncoder);
+        when(passwordEncoder.encode("P@ssw0rd")).thenReturn("hash");
+        when(userService.findByUsername("Stef")).thenReturn(Optional.empty()).thenReturn(Optional.of(new User()));
+
+        config.initDefaultAdmin();
+        config.initDefaultAdmin();
+
+        verify(userService, times(1)).save(argThat(user ->
+                "Stef".equals(user.getUsername()) && "hash".equals(user.getPassword()) && "ADMIN".equals(user.getRole())));
+    }
+
+    /**
+     * Vérifie qu'aucun administrateur n'est créé, ni mot de passe haché, s'il existe déjà.
+     */
+    @Test
+    void initDefaultAdmin_existingAdmin_isSkipped() {
+        when(userService.findByUsername("Stef")).thenReturn(Optional.of(new User()));
+
+        new DefaultAdminUserConfig(userService, passwordEncoder).initDefaultAdmin();
+
+        verify(userService, never()).save(any(User.class));
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    /**
+     * Vérifie qu'un échec de la création est journalisé sans être propagé.
+     */
+    @Test
+    void initDefaultAdmin_failure_isNotPropagated() {
+        when(userService.findByUsername("Stef")).thenThrow(new IllegalStateException("Database unavailable"));
+
+        assertDoesNotThrow(() -> new DefaultAdminUserConfig(userService, passwordEncoder).initDefaultAdmin());
+    }
+
+    /**
+     * Vérifie que la création est faite après le démarrage, hors du thread qui publie ApplicationReadyEvent,
+     * et qu'un échec n'empêche pas le contexte de démarrer.
+     */
+    @Test
+    void applicationReady_seedsAdminAsynchronously() throws Exception {
+        CompletableFuture<Thread> seedingThread = new CompletableFuture<>();
+        when(userService.findByUsername("Stef")).thenAnswer(invocation -> {
+            seedingThread.complete(Thread.currentThread());
+            throw new IllegalStateException("Database unavailable");
+        });
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(UserService.class, () -> userService);
+            context.registerBean(PasswordEncoder.class, () -> passwordEncoder);
+            context.register(AsyncConfiguration.class, DefaultAdminUserConfig.class);
+            context.refresh();
+
+            context.publishEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ZERO));
+
+            assertNotSame(Thread.currentThread(), seedingThread.get(5, TimeUnit.SECONDS));
+            assertTrue(context.isActive());
+        }
+        verify(userService, never()).save(any(User.class));
+    }
+
+    @Configuration
+    @EnableAsync
+    static class AsyncConfiguration {
+    }
+}
@@ -0,0 +1,69 @@
+package com.nnk.springboot.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour UserRateLimitFilter.
+ * Vérifie le groupe de chaque requête et la limitation des demandes de jeton par adresse du client.
+ */
+class UserRateLimitFilterTest {
+
+    /**
+     * Vérifie le groupe des requêtes : connexion et demande de jeton par adresse, écritures, listes.
+     */
+    @Test
+    void group_byMethodAndPath() {
+        assertEquals(UserRateLimiter.Group.LOGIN, UserRateLimitFilter.group(request("POST", "/app/login", "10.0.0.1")));
+        assertEquals(UserRateLimiter.Group.LOGIN, UserRateLimitFilter.group(request("POST", "/api/token", "10.0.0.1")));
+        assertEquals(UserRateLimiter.Group.WRITE, UserRateLimitFilter.group(request("POST", "/bidList/validate", "10.0.0.1")));
+        assertEquals(UserRateLimiter.Group.WRITE, UserRateLimitFilter.group(request("GET", "/trade/delete/1", "10.0.0.1")));
+        assertEquals(UserRateLimiter.Group.LIST, UserRateLimitFilter.group(request("GET", "/api/trades", "10.0.0.1")));
+        assertNull(UserRateLimitFilter.group(request("GET", "/trade/add", "10.0.0.1")));
+    }
+
+    /**
+     * Vérifie que les demandes de jeton au-delà du débit d'une adresse sont refusées par un 429,
+     * sans atteindre la vérification du mot de passe, et que les autres adresses ne sont pas touchées.
+     */
+    @Test
+    void doFilter_tokenRequestsOverRate_rejectedPerAddress() throws Exception {
+        UserRateLimiter rateLimiter = new UserRateLimiter(new SimpleMeterRegistry(), true, 100, Map.of(
+                UserRateLimiter.Group.LIST, new UserRateLimiter.Limit(10, 10),
+                UserRateLimiter.Group.WRITE, new UserRateLimiter.Limit(10, 10),
+                UserRateLimiter.Group.LOGIN, new UserRateLimiter.Limit(1, 2)), () -> 0);
+        UserRateLimitFilter filter = new UserRateLimitFilter(rateLimiter);
+
+        for (int i = 0; i < 2; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request("POST", "/api/token", "10.0.0.1"), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest());
+        }
+        MockFilterChain rejectedChain = new MockFilterChain();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/token", "10.0.0.1"), rejected, rejectedChain);
+        MockFilterChain otherChain = new MockFilterChain();
+        filter.doFilter(request("POST", "/api/token", "10.0.0.2"), new MockHttpServletResponse(), otherChain);
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(rejectedChain.getRequest());
+        assertNotNull(otherChain.getRequest());
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package com.nnk.springboot.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour UserRateLimiter.
+ * Vérifie le débit accordé à chaque utilisateur, par groupe, et la taille bornée de la table des seaux.
+ */
+class UserRateLimiterTest {
+
+    private long now;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        now = 1_000;
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new UserRateLimiter(meterRegistry, true, 3, Map.of(
+                UserRateLimiter.Group.LIST, new UserRateLimiter.Limit(10, 5),
+                UserRateLimiter.Group.WRITE, new UserRateLimiter.Limit(1, 2),
+                UserRateLimiter.Group.LOGIN, new UserRateLimiter.Limit(1, 1)), () -> now);
+    }
+
+    /**
+     * Vérifie qu'une rafale est acceptée jusqu'à la capacité du seau, puis refusée avec le délai du prochain jeton.
+     */
+    @Test
+    void tryAcquire_burstExhausted_rejectsUntilRefill() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.LIST, "Joe"));
+        }
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rateLimiter.tryAcquire(UserRateLimiter.Group.LIST, "Joe"));
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.LIST, "Joe"));
+        assertEquals(1.0, meterRegistry.get("poseidon.ratelimit.rejected").tag("group", "list").counter().count());
+    }
+
+    /**
+     * Vérifie que les seaux sont séparés par utilisateur et par groupe.
+     */
+    @Test
+    void tryAcquire_otherUserOrGroup_hasOwnBucket() {
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.WRITE, "Joe"));
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.WRITE, "Joe"));
+        assertTrue(rateLimiter.tryAcquire(UserRateLimiter.Group.WRITE, "Joe") > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.WRITE, "Jane"));
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.LIST, "Joe"));
+    }
+
+    /**
+     * Vérifie qu'une fois la table pleine, les seaux inactifs sont oubliés et, à défaut, les nouveaux
+     * utilisateurs partagent le seau de débordement.
+     */
+    @Test
+    void tryAcquire_tableFull_evictsIdleOrSharesOverflow() {
+        for (String user : new String[]{"A", "B", "C"}) {
+            assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.LOGIN, user));
+        }
+        // Table pleine et aucun seau redevenu plein : D et E partagent un seul jeton
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.LOGIN, "D"));
+        assertTrue(rateLimiter.tryAcquire(UserRateLimiter.Group.LOGIN, "E") > 0);
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.LOGIN, "E"));
+        assertEquals(1.0, meterRegistry.get("poseidon.ratelimit.keys").tag("group", "login").gauge().value());
+    }
+
+    /**
+     * Vérifie que la table pleine n'est parcourue qu'une fois par durée de remplissage d'un seau :
+     * entre deux parcours, les nouveaux utilisateurs vont au seau partagé.
+     */
+    @Test
+    void tryAcquire_tableFull_sweepsOncePerRefill() {
+        for (String user : new String[]{"A", "B", "C", "D"}) {
+            assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.WRITE, user));
+        }
+
+        // Seaux de A, B et C de nouveau pleins, mais le parcours suivant n'est dû qu'après 2 s
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.WRITE, "E"));
+        assertEquals(4.0, meterRegistry.get("poseidon.ratelimit.keys").tag("group", "write").gauge().value());
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, rateLimiter.tryAcquire(UserRateLimiter.Group.WRITE, "F"));
+        assertEquals(1.0, meterRegistry.get("poseidon.ratelimit.keys").tag("group", "write").gauge().value());
+    }
+
+    /**
+     * Vérifie que toutes les requêtes sont acceptées quand la limitation est désactivée.
+     */
+    @Test
+    void tryAcquire_disabled_acceptsEverything() {
+        UserRateLimiter disabled = new UserRateLimiter(meterRegistry, false, 3, Map.of(
+                UserRateLimiter.Group.LIST, new UserRateLimiter.Limit(1, 1),
+                UserRateLimiter.Group.WRITE, new UserRateLimiter.Limit(1, 1),
+                UserRateLimiter.Group.LOGIN, new UserRateLimiter.Limit(1, 1)), () -> now);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, disabled.tryAcquire(UserRateLimiter.Group.LOGIN, "Joe"));
+        }
+    }
+}
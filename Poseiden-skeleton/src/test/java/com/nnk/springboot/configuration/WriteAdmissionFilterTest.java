@@ -0,0 +1,102 @@
+package com.nnk.springboot.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour WriteAdmissionFilter.
+ * Vérifie les requêtes limitées et le refus des écritures au-delà de la limite.
+ */
+class WriteAdmissionFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private WriteAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Une seule écriture à la fois
+        filter = new WriteAdmissionFilter(meterRegistry, 1, 1, 1, 2.0, 0.9, 1000, 10, 1);
+    }
+
+    /**
+     * Vérifie qu'une écriture est refusée par un 503 avec Retry-After pendant qu'une autre est en cours.
+     */
+    @Test
+    void doFilter_limitReached_rejectsWrite() throws Exception {
+        List<MockHttpServletResponse> nested = whileWriteInFlight(request("POST", "/bidList/validate"),
+                request("GET", "/trade/delete/1"));
+
+        assertEquals(503, nested.get(0).getStatus());
+        assertEquals(503, nested.get(1).getStatus());
+        assertEquals("1", nested.get(0).getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(2.0, meterRegistry.get("poseidon.admission.rejected").counter().count());
+    }
+
+    /**
+     * Vérifie que les requêtes qui hachent un mot de passe ne prennent pas de place dans la limite
+     * des écritures, pas plus que les lectures.
+     */
+    @Test
+    void doFilter_passwordHashingOrRead_notLimited() throws Exception {
+        List<MockHttpServletResponse> nested = whileWriteInFlight(request("POST", "/app/login"),
+                request("POST", "/api/token"), request("POST", "/user/validate"), request("POST", "/user/update/3"),
+                request("GET", "/bidList/list"), request("GET", "/user/update/3"));
+
+        nested.forEach(response -> assertEquals(200, response.getStatus()));
+        assertEquals(0.0, meterRegistry.get("poseidon.admission.rejected").counter().count());
+    }
+
+    /**
+     * Vérifie que la place est rendue à la fin de l'écriture.
+     */
+    @Test
+    void doFilter_writeCompleted_releasesPermit() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/bidList/validate"), first, new MockFilterChain());
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/bidList/validate"), second, new MockFilterChain());
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+    }
+
+    /**
+     * Exécute les requêtes pendant le traitement d'une écriture admise.
+     *
+     * @return les réponses des requêtes
+     */
+    private List<MockHttpServletResponse> whileWriteInFlight(MockHttpServletRequest... requests) throws Exception {
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        FilterChain inFlight = (request, response) -> {
+            for (MockHttpServletRequest nested : requests) {
+                MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+                filter.doFilter(nested, nestedResponse, new MockFilterChain());
+                responses.add(nestedResponse);
+            }
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/rating/validate"), response, inFlight);
+        assertEquals(200, response.getStatus());
+        return responses;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,83 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour ReplicaFallbackDataSource.
+ * Vérifie le choix de la réplique ou de la base principale selon l'état de la réplique.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicaFallbackDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private ReplicaLagMonitor monitor;
+
+    private ReplicaFallbackDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaFallbackDataSource(replica, primary, monitor);
+    }
+
+    /**
+     * Vérifie que les lectures vont à la réplique tant que celle-ci est jugée utilisable.
+     */
+    @Test
+    void getConnection_replicaUsable_usesReplica() throws SQLException {
+        when(monitor.isReplicaUsable()).thenReturn(true);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    /**
+     * Vérifie que les lectures vont à la base principale quand la réplique est en retard ou indisponible.
+     */
+    @Test
+    void getConnection_replicaNotUsable_usesPrimary() throws SQLException {
+        when(monitor.isReplicaUsable()).thenReturn(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replica);
+    }
+
+    /**
+     * Vérifie qu'un échec de connexion à la réplique bascule sur la base principale et écarte la réplique.
+     */
+    @Test
+    void getConnection_replicaFails_fallsBackToPrimary() throws SQLException {
+        SQLException failure = new SQLException("Connection refused");
+        when(monitor.isReplicaUsable()).thenReturn(true);
+        when(replica.getConnection()).thenThrow(failure);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(monitor).markFailed(failure);
+    }
+}
@@ -0,0 +1,127 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour ReplicaLagMonitor.
+ * Vérifie la mesure du retard de la réplique, indépendante de la période des vérifications.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    private static final long CHECK_INTERVAL = 5_000;
+
+    @Mock
+    private JdbcTemplate primary;
+
+    @Mock
+    private JdbcTemplate replica;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private ReplicaLagMonitor monitor(long maxLagMillis) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis, CHECK_INTERVAL, new SimpleMeterRegistry(), clock::get);
+    }
+
+    /**
+     * Vérifie qu'une réplique à jour reste utilisable quand le retard maximal égale la période :
+     * le battement relu est celui de la vérification précédente, pas celui qui vient d'être écrit.
+     */
+    @Test
+    void check_replicaUpToDate_staysUsable() {
+        ReplicaLagMonitor monitor = monitor(CHECK_INTERVAL);
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+
+        for (int i = 0; i < 3; i++) {
+            when(replica.queryForObject(anyString(), eq(Long.class))).thenReturn(clock.get());
+            clock.addAndGet(CHECK_INTERVAL + 20);
+            monitor.check();
+            assertTrue(monitor.isReplicaUsable());
+        }
+        verify(primary, times(4)).update(startsWith("update replica_heartbeat"), any(Object[].class));
+    }
+
+    /**
+     * Vérifie que la réplique est écartée quand elle n'a pas appliqué le dernier battement depuis plus
+     * que le retard maximal.
+     */
+    @Test
+    void check_lastBeatNotReplicated_lagIsTimeSinceLastBeat() {
+        ReplicaLagMonitor monitor = monitor(1_000);
+        long firstBeat = clock.get();
+        monitor.check();
+        when(replica.queryForObject(anyString(), eq(Long.class))).thenReturn(firstBeat);
+        clock.addAndGet(CHECK_INTERVAL);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        clock.addAndGet(CHECK_INTERVAL);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    /**
+     * Vérifie qu'une réplique très en retard est mesurée à partir de son dernier battement répliqué.
+     */
+    @Test
+    void check_replicaFarBehind_isNotUsable() {
+        ReplicaLagMonitor monitor = monitor(60_000);
+        monitor.check();
+        when(replica.queryForObject(anyString(), eq(Long.class))).thenReturn(clock.get() - 600_000);
+        clock.addAndGet(CHECK_INTERVAL);
+
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    /**
+     * Vérifie qu'une réplique indisponible est écartée.
+     */
+    @Test
+    void check_replicaUnavailable_isNotUsable() {
+        ReplicaLagMonitor monitor = monitor(CHECK_INTERVAL);
+        monitor.check();
+        when(replica.queryForObject(anyString(), eq(Long.class))).thenReturn(clock.get());
+        clock.addAndGet(CHECK_INTERVAL);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        when(replica.queryForObject(anyString(), eq(Long.class)))
+                .thenThrow(new DataAccessResourceFailureException("Replica down"));
+        clock.addAndGet(CHECK_INTERVAL);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    /**
+     * Vérifie qu'avec un retard maximal nul, seule la disponibilité de la réplique est vérifiée.
+     */
+    @Test
+    void check_noLagMeasure_onlyChecksAvailability() {
+        when(replica.queryForObject("select 1", Integer.class)).thenReturn(1);
+        ReplicaLagMonitor monitor = monitor(0);
+
+        monitor.check();
+
+        assertTrue(monitor.isReplicaUsable());
+        verifyNoInteractions(primary);
+    }
+}
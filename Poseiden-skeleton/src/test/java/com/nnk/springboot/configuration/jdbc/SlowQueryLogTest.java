@@ -0,0 +1,64 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour SlowQueryLog et SqlFingerprint.
+ * Vérifie le regroupement des requêtes par empreinte et le classement des plus coûteuses.
+ */
+class SlowQueryLogTest {
+
+    /**
+     * Vérifie que les littéraux, les listes IN et les blancs sont normalisés.
+     */
+    @Test
+    void fingerprint_removesLiteralsAndCollapsesInLists() {
+        assertEquals("select * from trade where account = ? and id in (?)",
+                SqlFingerprint.of("SELECT *  FROM trade\n WHERE account = 'O''Neil' AND id IN (1, 2, 3)"));
+        assertEquals("select * from bid_list b1_0 where b1_0.id = ?",
+                SqlFingerprint.of("select * from bid_list b1_0 where b1_0.id = ?"));
+    }
+
+    /**
+     * Vérifie que les exécutions d'une même empreinte sont cumulées et classées par durée totale.
+     */
+    @Test
+    void topOffenders_groupsByFingerprintAndSortsByTotalTime() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(100, 0, 500);
+
+        slowQueryLog.afterExecute("select * from trade where id = 1", TimeUnit.MILLISECONDS.toNanos(150));
+        slowQueryLog.afterExecute("select * from trade where id = 2", TimeUnit.MILLISECONDS.toNanos(50));
+        slowQueryLog.afterExecute("select * from rating", TimeUnit.MILLISECONDS.toNanos(10));
+
+        List<SlowQueryLog.Offender> offenders = slowQueryLog.topOffenders(10);
+
+        assertEquals(2, offenders.size());
+        assertEquals("select * from trade where id = ?", offenders.get(0).fingerprint());
+        assertEquals(2, offenders.get(0).count());
+        assertEquals(1, offenders.get(0).slowCount());
+        assertEquals(200.0, offenders.get(0).totalMillis(), 1.0);
+        assertEquals("select * from rating", offenders.get(1).fingerprint());
+    }
+
+    /**
+     * Vérifie qu'au-delà du nombre maximal d'empreintes, les requêtes sont regroupées.
+     */
+    @Test
+    void afterExecute_beyondMaxFingerprints_groupsUnderOther() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(100, 0, 1);
+
+        slowQueryLog.afterExecute("select * from trade", 1000);
+        slowQueryLog.afterExecute("select * from rating", 1000);
+
+        assertEquals(Set.of("select * from trade", "<other>"),
+                slowQueryLog.topOffenders(10).stream().map(SlowQueryLog.Offender::fingerprint).collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,131 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enregistre les requêtes SQL exécutées par le thread du test pendant un bloc, pour en fixer
+ * le nombre et le type (budget de requêtes) : une régression du nombre de requêtes fait échouer
+ * le test comme une régression fonctionnelle.
+ *
+ * <p>À importer dans un test Spring ({@code @Import(SqlStatementRecorder.class)}) : en tant que
+ * {@link StatementListener}, il reçoit toutes les requêtes de la source de données observée.
+ * Les requêtes de génération d'identifiants (tables {@code *_seq}) dépendent de l'état de
+ * l'optimiseur d'Hibernate : elles sont classées à part et exclues des budgets.</p>
+ */
+public class SqlStatementRecorder implements StatementListener {
+
+    private static final Pattern SEQUENCE_TABLE = Pattern.compile("\\b\\w+_seq\\b");
+
+    private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+    /**
+     * Type d'une requête SQL
+     */
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, ID_GENERATION, OTHER;
+
+        /**
+         * @param sql la requête
+         * @return son type, d'après son premier mot-clé
+         */
+        public static Kind of(String sql) {
+            String normalized = sql.trim().toLowerCase(Locale.ROOT);
+            if (SEQUENCE_TABLE.matcher(normalized).find()) {
+                return ID_GENERATION;
+            }
+            for (Kind kind : List.of(SELECT, INSERT, UPDATE, DELETE)) {
+                if (normalized.startsWith(kind.name().toLowerCase(Locale.ROOT))) {
+                    return kind;
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * Bloc de code dont les requêtes sont enregistrées.
+     */
+    @FunctionalInterface
+    public interface Block {
+        void run() throws Exception;
+    }
+
+    /**
+     * Requêtes enregistrées, dans l'ordre d'exécution.
+     *
+     * @param statements les requêtes
+     */
+    public record Recorded(List<String> statements) {
+
+        /**
+         * @param kind type de requête
+         * @return nombre de requêtes de ce type
+         */
+        public long count(Kind kind) {
+            return statements.stream().filter(sql -> Kind.of(sql) == kind).count();
+        }
+
+        /**
+         * Vérifie le nombre exact de requêtes de chaque type, hors génération d'identifiants.
+         *
+         * @param selects nombre attendu de SELECT
+         * @param inserts nombre attendu d'INSERT
+         * @param updates nombre attendu d'UPDATE
+         * @param deletes nombre attendu de DELETE
+         */
+        public void assertBudget(int selects, int inserts, int updates, int deletes) {
+            String expected = "select=" + selects + ", insert=" + inserts + ", update=" + updates
+                    + ", delete=" + deletes + ", other=0";
+            String actual = "select=" + count(Kind.SELECT) + ", insert=" + count(Kind.INSERT)
+                    + ", update=" + count(Kind.UPDATE) + ", delete=" + count(Kind.DELETE) + ", other=" + count(Kind.OTHER);
+            assertEquals(expected, actual, () -> "Unexpected sql statements :\n  " + String.join("\n  ", statements));
+        }
+    }
+
+    /**
+     * Démarre l'enregistrement sur le thread courant.
+     */
+    public void start() {
+        recording.set(new ArrayList<>());
+    }
+
+    /**
+     * Arrête l'enregistrement sur le thread courant.
+     *
+     * @return les requêtes exécutées depuis {@link #start()}
+     */
+    public Recorded stop() {
+        List<String> statements = recording.get();
+        recording.remove();
+        return new Recorded(statements == null ? List.of() : List.copyOf(statements));
+    }
+
+    /**
+     * @param block le bloc à exécuter
+     * @return les requêtes exécutées par le bloc
+     * @throws Exception l'exception levée par le bloc
+     */
+    public Recorded record(Block block) throws Exception {
+        start();
+        try {
+            block.run();
+        } catch (Exception e) {
+            stop();
+            throw e;
+        }
+        return stop();
+    }
+
+    @Override
+    public void afterExecute(String sql, long elapsedNanos) {
+        List<String> statements = recording.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour StatementObservingDataSource et SqlStatementStatistics.
+ * Vérifie le comptage des requêtes SQL du thread courant et la détection des répétitions.
+ */
+@ExtendWith(MockitoExtension.class)
+class StatementObservingDataSourceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private Statement statement;
+
+    private SqlStatementStatistics statistics;
+
+    private DataSource observed;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        statistics = new SqlStatementStatistics();
+        observed = StatementObservingDataSource.wrap(dataSource, statistics);
+    }
+
+    /**
+     * Vérifie que chaque exécution est comptée, avec la requête la plus répétée.
+     */
+    @Test
+    void wrap_countsExecutedStatements() throws SQLException {
+        when(connection.prepareStatement("select * from trade where id = ?")).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(statement);
+
+        statistics.start();
+        Connection observedConnection = observed.getConnection();
+        for (int i = 0; i < 3; i++) {
+            observedConnection.prepareStatement("select * from trade where id = ?").executeQuery();
+        }
+        observedConnection.createStatement().execute("delete from trade");
+        SqlStatementStatistics.Snapshot snapshot = statistics.stop();
+
+        assertEquals(4, snapshot.statements());
+        assertEquals("select * from trade where id = ?", snapshot.mostRepeated());
+        assertEquals(3, snapshot.mostRepeatedCount());
+        verify(preparedStatement, times(3)).executeQuery();
+        verify(statement).execute("delete from trade");
+    }
+
+    /**
+     * Vérifie qu'une requête en échec est comptée et que l'exception d'origine est propagée.
+     */
+    @Test
+    void wrap_failedStatement_isCountedAndRethrown() throws SQLException {
+        when(connection.prepareStatement("update trade set account = ?")).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenThrow(new SQLException("locked"));
+
+        statistics.start();
+        Connection observedConnection = observed.getConnection();
+        PreparedStatement update = observedConnection.prepareStatement("update trade set account = ?");
+        assertThrows(SQLException.class, update::executeUpdate);
+
+        assertEquals(1, statistics.stop().statements());
+    }
+
+    /**
+     * Vérifie que rien n'est compté hors d'une période mesurée.
+     */
+    @Test
+    void stop_withoutStart_returnsEmptySnapshot() throws SQLException {
+        when(connection.prepareStatement("select 1")).thenReturn(preparedStatement);
+
+        observed.getConnection().prepareStatement("select 1").executeQuery();
+
+        assertEquals(0, statistics.stop().statements());
+    }
+}
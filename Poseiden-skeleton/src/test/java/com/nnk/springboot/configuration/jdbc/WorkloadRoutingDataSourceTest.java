@@ -0,0 +1,88 @@
+package com.nnk.springboot.configuration.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour WorkloadRoutingDataSource.
+ * Vérifie le choix du pool de connexions selon la nature du travail en cours.
+ */
+@ExtendWith(MockitoExtension.class)
+class WorkloadRoutingDataSourceTest {
+
+    @Mock
+    private DataSource interactive;
+
+    @Mock
+    private DataSource reporting;
+
+    @Mock
+    private Connection interactiveConnection;
+
+    @Mock
+    private Connection reportingConnection;
+
+    private WorkloadRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new WorkloadRoutingDataSource(interactive, reporting);
+    }
+
+    /**
+     * Vérifie que le pool interactif est utilisé par défaut.
+     */
+    @Test
+    void getConnection_default_usesInteractivePool() throws SQLException {
+        when(interactive.getConnection()).thenReturn(interactiveConnection);
+
+        assertSame(interactiveConnection, dataSource.getConnection());
+        verifyNoInteractions(reporting);
+    }
+
+    /**
+     * Vérifie que le pool des rapports est utilisé pendant un travail REPORTING, puis plus ensuite.
+     */
+    @Test
+    void getConnection_reportingWorkload_usesReportingPool() throws SQLException {
+        when(reporting.getConnection()).thenReturn(reportingConnection);
+        when(interactive.getConnection()).thenReturn(interactiveConnection);
+
+        Connection connection = Workload.REPORTING.run(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertSame(reportingConnection, connection);
+        assertEquals(Workload.INTERACTIVE, Workload.current());
+        assertSame(interactiveConnection, dataSource.getConnection());
+    }
+
+    /**
+     * Vérifie qu'un travail imbriqué rétablit la nature du travail englobant.
+     */
+    @Test
+    void run_nested_restoresPreviousWorkload() {
+        Workload afterInner = Workload.REPORTING.run(() -> {
+            assertEquals(Workload.INTERACTIVE, Workload.INTERACTIVE.run(Workload::current));
+            return Workload.current();
+        });
+
+        assertEquals(Workload.REPORTING, afterInner);
+        assertEquals(Workload.INTERACTIVE, Workload.current());
+    }
+}
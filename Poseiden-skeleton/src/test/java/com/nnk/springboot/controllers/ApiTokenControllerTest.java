@@ -0,0 +1,90 @@
+package com.nnk.springboot.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.service.TradeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe de test de l'authentification par jeton des clients de l'API.
+ * Vérifie l'émission d'un jeton en HTTP Basic puis son utilisation sans session.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "poseidon.security.api-token.enabled=true")
+class ApiTokenControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private TradeService tradeService;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("Joe", new BCryptPasswordEncoder().encode("Abc123@!"), "Joe Doe", "USER");
+        when(userRepository.findByUsername("Joe")).thenReturn(Optional.of(user));
+    }
+
+    /**
+     * Vérifie qu'un jeton émis donne accès à l'API sans créer de session.
+     */
+    @Test
+    void issuedToken_grantsStatelessAccess() throws Exception {
+        String body = mockMvc.perform(post("/api/token").with(httpBasic("Joe", "Abc123@!")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("token").asText();
+        when(tradeService.getAll()).thenReturn(List.of(new Trade("A1", "Type", 10.0)));
+
+        mockMvc.perform(get("/api/trades").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].account").value("A1"))
+                .andExpect(request().sessionAttributeDoesNotExist("SPRING_SECURITY_CONTEXT"));
+    }
+
+    /**
+     * Vérifie que les identifiants invalides ne donnent pas de jeton.
+     */
+    @Test
+    void issueToken_invalidCredentials_returnsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/token").with(httpBasic("Joe", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Vérifie que l'API refuse les appels sans jeton ou avec un jeton invalide.
+     */
+    @Test
+    void api_missingOrInvalidToken_returnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/trades"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/trades").header("Authorization", "Bearer invalid.token"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(tradeService);
+    }
+}
@@ -2,6 +2,7 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.Rating;
 import com.nnk.springboot.service.RatingService;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -202,4 +203,59 @@ public class RatingControllerTest {
 
         verify(ratingService).delete(anyInt());
     }
+
+
+    /**
+     * Teste le réordonnancement en lot des Rating.
+     * Vérifie que les identifiants sont transmis dans l'ordre et la redirection vers la liste.
+     */
+    @Test
+    @DisplayName("POST /rating/reorder - success")
+    @WithMockUser(username = "User", roles = "USER")
+    public void reorderRatings_shouldRedirectToRatingList() throws Exception {
+
+        mockMvc.perform(post("/rating/reorder")
+                        .param("ids", "3,1,2")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/rating/list"));
+
+        verify(ratingService).reorder(List.of(3, 1, 2));
+    }
+
+    /**
+     * Teste le réordonnancement avec un identifiant en double.
+     * Vérifie que la liste est réaffichée avec l'erreur, en 400.
+     */
+    @Test
+    @DisplayName("POST /rating/reorder - invalid ids")
+    @WithMockUser(username = "User", roles = "USER")
+    public void reorderRatings_duplicateIds_shouldReturnListWithError() throws Exception {
+        when(ratingService.reorder(List.of(1, 1))).thenThrow(new IllegalArgumentException("Duplicate rating ids in reorder request"));
+
+        mockMvc.perform(post("/rating/reorder")
+                        .param("ids", "1,1")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(view().name("rating/list"))
+                .andExpect(model().attribute("reorderError", "Duplicate rating ids in reorder request"));
+    }
+
+    /**
+     * Teste le réordonnancement avec un identifiant inconnu.
+     * Vérifie que la liste est réaffichée avec l'erreur, en 404.
+     */
+    @Test
+    @DisplayName("POST /rating/reorder - rating not found")
+    @WithMockUser(username = "User", roles = "USER")
+    public void reorderRatings_unknownId_shouldReturnListWithError() throws Exception {
+        when(ratingService.reorder(List.of(99))).thenThrow(new EntityNotFoundException("Specified rating not found"));
+
+        mockMvc.perform(post("/rating/reorder")
+                        .param("ids", "99")
+                        .with(csrf()))
+                .andExpect(status().isNotFound())
+                .andExpect(view().name("rating/list"))
+                .andExpect(model().attribute("reorderError", "Specified rating not found"));
+    }
 }
\ No newline at end of file
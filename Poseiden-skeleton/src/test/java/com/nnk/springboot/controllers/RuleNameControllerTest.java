@@ -2,6 +2,7 @@ package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.domain.RuleName;
 import com.nnk.springboot.service.RuleNameService;
+import com.nnk.springboot.service.RuleSqlService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +12,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -35,6 +39,9 @@ public class RuleNameControllerTest {
     @MockBean
     private RuleNameService ruleNameService;
 
+    @MockBean
+    private RuleSqlService ruleSqlService;
+
     /**
      * Teste l'affichage de la liste des RuleName.
      * Vérifie que la page est accessible et que la liste est bien transmise au modèle.
@@ -74,7 +81,7 @@ public class RuleNameControllerTest {
      */
     @Test
     @DisplayName("POST /ruleName/validate - success")
-    @WithMockUser(username = "User", roles = "USER")
+    @WithMockUser(username = "Admin", roles = "ADMIN")
     public void validate_shouldRedirectToRuleNameList_whenValid() throws Exception {
         when(ruleNameService.save(any(RuleName.class))).thenReturn(mock(RuleName.class));
 
@@ -92,6 +99,29 @@ public class RuleNameControllerTest {
         verify(ruleNameService).save(any(RuleName.class));
     }
 
+    /**
+     * Teste la validation d'un nouveau RuleName par un utilisateur sans le rôle ADMIN.
+     * Vérifie que la requête SQL est refusée et que la règle n'est pas enregistrée.
+     */
+    @Test
+    @DisplayName("POST /ruleName/validate - sql reserved to admins")
+    @WithMockUser(username = "User", roles = "USER")
+    public void validate_shouldReturnAddView_whenSqlSetByUser() throws Exception {
+        mockMvc.perform(post("/ruleName/validate")
+                        .param("name", "Rule Name")
+                        .param("description", "Description")
+                        .param("json", "Json")
+                        .param("template", "Template")
+                        .param("sqlStr", "select username, password from users")
+                        .param("sqlPart", "where 1 = 1")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("ruleName/add"))
+                .andExpect(model().attributeHasFieldErrors("ruleName", "sqlStr", "sqlPart"));
+
+        verify(ruleNameService, never()).save(any(RuleName.class));
+    }
+
     /**
      * Teste la validation d'un nouveau RuleName invalide.
      * Vérifie que l'utilisateur reste sur le formulaire en cas d'erreur.
@@ -140,7 +170,7 @@ public class RuleNameControllerTest {
      */
     @Test
     @DisplayName("POST /ruleName/update/{id} - success")
-    @WithMockUser(username = "User", roles = "USER")
+    @WithMockUser(username = "Admin", roles = "ADMIN")
     public void updateRuleName_shouldRedirectToRuleNameList_whenValid() throws Exception {
         when(ruleNameService.update(anyInt(), any(RuleName.class))).thenReturn(mock(RuleName.class));
 
@@ -158,6 +188,55 @@ public class RuleNameControllerTest {
         verify(ruleNameService).update(anyInt(), any(RuleName.class));
     }
 
+    /**
+     * Teste la mise à jour d'un RuleName par un utilisateur sans le rôle ADMIN.
+     * Vérifie que les autres champs sont modifiables tant que la requête SQL reste inchangée.
+     */
+    @Test
+    @DisplayName("POST /ruleName/update/{id} - unchanged sql by user")
+    @WithMockUser(username = "User", roles = "USER")
+    public void updateRuleName_shouldRedirectToRuleNameList_whenSqlUnchangedByUser() throws Exception {
+        when(ruleNameService.getById(1)).thenReturn(new RuleName("Name", "Description", "Json", "Template", "SQL String", "SQL Part"));
+
+        mockMvc.perform(post("/ruleName/update/" + 1)
+                        .param("name", "Updated Rule Name")
+                        .param("description", "Updated Description")
+                        .param("json", "Updated Json")
+                        .param("template", "Updated Template")
+                        .param("sqlStr", "SQL String")
+                        .param("sqlPart", "SQL Part")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/ruleName/list"));
+
+        verify(ruleNameService).update(eq(1), any(RuleName.class));
+    }
+
+    /**
+     * Teste la modification de la requête SQL d'un RuleName par un utilisateur sans le rôle ADMIN.
+     * Vérifie que la modification est refusée et que la règle n'est pas mise à jour.
+     */
+    @Test
+    @DisplayName("POST /ruleName/update/{id} - sql reserved to admins")
+    @WithMockUser(username = "User", roles = "USER")
+    public void updateRuleName_shouldReturnUpdateView_whenSqlChangedByUser() throws Exception {
+        when(ruleNameService.getById(1)).thenReturn(new RuleName("Name", "Description", "Json", "Template", "SQL String", "SQL Part"));
+
+        mockMvc.perform(post("/ruleName/update/" + 1)
+                        .param("name", "Name")
+                        .param("description", "Description")
+                        .param("json", "Json")
+                        .param("template", "Template")
+                        .param("sqlStr", "select username, password from users")
+                        .param("sqlPart", "SQL Part")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("ruleName/update"))
+                .andExpect(model().attributeHasFieldErrors("ruleName", "sqlStr"));
+
+        verify(ruleNameService, never()).update(anyInt(), any(RuleName.class));
+    }
+
     /**
      * Teste la mise à jour d'un RuleName avec des données invalides.
      * Vérifie que l'utilisateur reste sur le formulaire en cas d'erreur.
@@ -197,4 +276,64 @@ public class RuleNameControllerTest {
 
         verify(ruleNameService).delete(anyInt());
     }
-}
\ No newline at end of file
+
+    /**
+     * Teste l'export des lignes de la requête SQL d'un RuleName.
+     * Vérifie que les paramètres sont transmis et que les lignes sont écrites au format CSV.
+     */
+    @Test
+    @DisplayName("GET /ruleName/sql/{id} - success")
+    @WithMockUser(username = "Admin", roles = "ADMIN")
+    @SuppressWarnings("unchecked")
+    public void exportSql_shouldWriteRowsAsCsv() throws Exception {
+        RuleName ruleName = new RuleName("Name", "Description", "{}", "Template", "select id, account from trade", "where account = :account");
+        ruleName.setId(1);
+        when(ruleNameService.getById(1)).thenReturn(ruleName);
+        when(ruleSqlService.prepare(ruleName)).thenReturn(new RuleSqlService.PreparedRuleSql(1, 0, "select id, account from trade"));
+        when(ruleSqlService.stream(eq(ruleName), eq(Map.of("account", "A,1")), any())).thenAnswer(invocation -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", 7);
+            row.put("account", "A,1");
+            invocation.getArgument(2, Consumer.class).accept(row);
+            return 1L;
+        });
+
+        mockMvc.perform(get("/ruleName/sql/" + 1)
+                        .param("account", "A,1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,account\n7,\"A,1\"\n"));
+    }
+
+    /**
+     * Teste l'export d'un RuleName dont la requête SQL est refusée.
+     * Vérifie qu'une erreur 400 est retournée sans exécuter la requête.
+     */
+    @Test
+    @DisplayName("GET /ruleName/sql/{id} - failure")
+    @WithMockUser(username = "Admin", roles = "ADMIN")
+    public void exportSql_shouldReturnBadRequest_whenSqlRejected() throws Exception {
+        RuleName ruleName = mock(RuleName.class);
+        when(ruleNameService.getById(1)).thenReturn(ruleName);
+        when(ruleSqlService.prepare(ruleName)).thenThrow(new IllegalArgumentException("Rule 1 sql must be a single select statement"));
+
+        mockMvc.perform(get("/ruleName/sql/" + 1))
+                .andExpect(status().isBadRequest());
+
+        verify(ruleSqlService, never()).stream(any(), any(), any());
+    }
+
+    /**
+     * Teste l'export d'un RuleName par un utilisateur sans le rôle ADMIN.
+     * Vérifie que l'accès est refusé sans exécuter la requête.
+     */
+    @Test
+    @DisplayName("GET /ruleName/sql/{id} - forbidden")
+    @WithMockUser(username = "User", roles = "USER")
+    public void exportSql_shouldBeForbidden_forUser() throws Exception {
+        mockMvc.perform(get("/ruleName/sql/" + 1))
+                .andExpect(status().isForbidden());
+
+        verify(ruleSqlService, never()).stream(any(), any(), any());
+    }
+}
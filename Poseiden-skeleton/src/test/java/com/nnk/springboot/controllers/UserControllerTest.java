@@ -23,10 +23,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 /**
  * Classe de test pour le contrôleur UserController.
- * Teste toutes les opérations CRUD sur les Users.
+ * Teste toutes les opérations CRUD sur les Users. L'administrateur par défaut n'est pas créé :
+ * sa création asynchrone appellerait le UserService simulé pendant les tests.
  */
 @AutoConfigureMockMvc
-@SpringBootTest
+@SpringBootTest(properties = "poseidon.default-admin.enabled=false")
 public class UserControllerTest {
 
     @Autowired
@@ -133,7 +134,7 @@ public class UserControllerTest {
     @DisplayName("POST /user/update/{id} - success")
     @WithMockUser(username = "User", roles = "ADMIN")
     public void updateUser_shouldRedirectToUserList_whenValid() throws Exception {
-        when(userService.save(any(User.class))).thenReturn(mock(User.class));
+        when(userService.update(eq(1), any(User.class))).thenReturn(mock(User.class));
 
         mockMvc.perform(post("/user/update/" + 1)
                         .param("username", "Updated Username")
@@ -144,7 +145,7 @@ public class UserControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/user/list"));
 
-        verify(userService).save(any(User.class));
+        verify(userService).update(eq(1), argThat(user -> "Updated Username".equals(user.getUsername())));
     }
 
 //    @Test
@@ -0,0 +1,68 @@
+package com.nnk.springboot.gateway;
+
+import com.nnk.springboot.domain.BidList;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour BidGatewayProtocol.
+ * Vérifie l'encodage et le décodage des trames de la passerelle d'ingestion.
+ */
+class BidGatewayProtocolTest {
+
+    /**
+     * Vérifie qu'une enchère encodée puis décodée est identique, champs absents compris.
+     */
+    @Test
+    void writeBid_thenReadBid_returnsSameBid() {
+        BidList bidList = new BidList("Compte é", "Type", 10d);
+        bidList.setBid(1.5);
+        ByteBuffer buffer = ByteBuffer.allocate(BidGatewayProtocol.MAX_FRAME_BYTES);
+
+        BidGatewayProtocol.writeBid(buffer, 42L, bidList);
+        buffer.flip();
+
+        assertEquals(buffer.remaining() - Integer.BYTES, buffer.getInt());
+        assertEquals(BidGatewayProtocol.BID, buffer.get());
+        BidGatewayProtocol.BidFrame frame = BidGatewayProtocol.readBid(buffer);
+        assertEquals(42L, frame.correlationId());
+        assertEquals("Compte é", frame.bidList().getAccount());
+        assertEquals("Type", frame.bidList().getType());
+        assertEquals(10d, frame.bidList().getBidQuantity());
+        assertEquals(1.5, frame.bidList().getBid());
+        assertNull(frame.bidList().getAsk());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Vérifie qu'un corps tronqué est détecté au lieu de lire au-delà de la trame.
+     */
+    @Test
+    void readBid_truncatedBody_throwsBufferUnderflowException() {
+        ByteBuffer buffer = ByteBuffer.allocate(BidGatewayProtocol.MAX_FRAME_BYTES);
+        BidGatewayProtocol.writeBid(buffer, 1L, new BidList("Account", "Type", 10d));
+        buffer.flip().position(Integer.BYTES + 1).limit(buffer.limit() - 3);
+
+        assertThrows(BufferUnderflowException.class, () -> BidGatewayProtocol.readBid(buffer));
+    }
+
+    /**
+     * Vérifie que les réponses les plus longues tiennent dans la place réservée à chaque enchère.
+     */
+    @Test
+    void responses_fitInResponseBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(BidGatewayProtocol.MAX_FRAME_BYTES);
+
+        BidGatewayProtocol.writeAck(buffer, 1L, 7);
+        assertEquals(BidGatewayProtocol.RESPONSE_BYTES, buffer.position());
+
+        buffer.clear();
+        BidGatewayProtocol.writeNack(buffer, 1L, BidGatewayProtocol.INVALID);
+        assertTrue(buffer.position() <= BidGatewayProtocol.RESPONSE_BYTES);
+    }
+}
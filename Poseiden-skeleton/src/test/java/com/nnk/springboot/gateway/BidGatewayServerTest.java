@@ -0,0 +1,216 @@
+package com.nnk.springboot.gateway;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.service.ApiTokenService;
+import com.nnk.springboot.service.BidListService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour BidGatewayServer.
+ * Vérifie l'authentification, l'acquittement et le refus des enchères sur une vraie connexion locale,
+ * et la suspension de la lecture quand le tampon d'écriture est réservé.
+ */
+@ExtendWith(MockitoExtension.class)
+class BidGatewayServerTest {
+
+    @Mock
+    private BidListService bidListService;
+
+    private ApiTokenService apiTokenService;
+
+    private BidGatewayServer server;
+
+    private SocketChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        apiTokenService = new ApiTokenService("0123456789abcdef0123456789abcdef".getBytes(), Duration.ofHours(1),
+                Clock.systemUTC());
+        start(16);
+    }
+
+    private void start(int maxInFlight) throws IOException {
+        server = new BidGatewayServer(bidListService, apiTokenService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new SimpleMeterRegistry(),
+                "127.0.0.1", 0, 2, maxInFlight, 64, 1);
+        server.start();
+        channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getLocalPort()));
+    }
+
+    private void restart(int maxInFlight) throws Exception {
+        tearDown();
+        start(maxInFlight);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.close();
+        server.stop();
+    }
+
+    /**
+     * Vérifie qu'une enchère valide d'une connexion authentifiée est soumise puis acquittée avec son identifiant.
+     */
+    @Test
+    void bid_authenticated_isAcknowledgedWithId() throws IOException {
+        BidList saved = new BidList("Account", "Type", 10d);
+        saved.setId(7);
+        when(bidListService.submit(any(BidList.class), eq("Joe"))).thenReturn(CompletableFuture.completedFuture(saved));
+
+        send(buffer -> BidGatewayProtocol.writeAuth(buffer, token()));
+        assertEquals(BidGatewayProtocol.AUTH_OK, receive().get());
+        send(buffer -> BidGatewayProtocol.writeBid(buffer, 42L, new BidList("Account", "Type", 10d)));
+
+        ByteBuffer response = receive();
+        assertEquals(BidGatewayProtocol.ACK, response.get());
+        assertEquals(42L, response.getLong());
+        assertEquals(7, response.getInt());
+    }
+
+    /**
+     * Vérifie qu'une enchère invalide est refusée sans être soumise.
+     */
+    @Test
+    void bid_invalid_isRejected() throws IOException {
+        send(buffer -> BidGatewayProtocol.writeAuth(buffer, token()));
+        receive();
+        send(buffer -> BidGatewayProtocol.writeBid(buffer, 42L, new BidList("", "Type", 10d)));
+
+        ByteBuffer response = receive();
+        assertEquals(BidGatewayProtocol.NACK, response.get());
+        assertEquals(42L, response.getLong());
+        assertEquals(BidGatewayProtocol.INVALID, response.get());
+        verifyNoInteractions(bidListService);
+    }
+
+    /**
+     * Vérifie qu'une enchère sans authentification est refusée sans être soumise.
+     */
+    @Test
+    void bid_unauthenticated_isRejected() throws IOException {
+        send(buffer -> BidGatewayProtocol.writeBid(buffer, 42L, new BidList("Account", "Type", 10d)));
+
+        ByteBuffer response = receive();
+        assertEquals(BidGatewayProtocol.NACK, response.get());
+        assertEquals(42L, response.getLong());
+        assertEquals(BidGatewayProtocol.UNAUTHENTICATED, response.get());
+        verifyNoInteractions(bidListService);
+    }
+
+    /**
+     * Vérifie que, le tampon d'écriture réservé par les enchères sans réponse, la lecture est suspendue :
+     * les enchères suivantes attendent, puis reçoivent toutes leur réponse une fois le tampon vidé, y compris
+     * celles décodées pendant l'écriture des réponses.
+     */
+    @Test
+    void bids_writeBufferReserved_resumeOnceFlushed() throws Exception {
+        // Tampon de 64 Ko : réponses réservées pour 3800 enchères sans réponse, presque tout le tampon
+        int maxInFlight = 3800;
+        int invalidBids = 2000;
+        restart(maxInFlight);
+        List<CompletableFuture<BidList>> pending = new CopyOnWriteArrayList<>();
+        when(bidListService.submit(any(BidList.class), eq("Joe"))).thenAnswer(invocation -> {
+            CompletableFuture<BidList> result = new CompletableFuture<>();
+            pending.add(result);
+            return result;
+        });
+        send(buffer -> BidGatewayProtocol.writeAuth(buffer, token()));
+        receive();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try {
+                for (long correlationId = 0; correlationId < maxInFlight + invalidBids; correlationId++) {
+                    BidList bidList = new BidList(correlationId < maxInFlight ? "Account" : "", "Type", 10d);
+                    long id = correlationId;
+                    send(buffer -> BidGatewayProtocol.writeBid(buffer, id, bidList));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.get(10, TimeUnit.SECONDS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pending.size() < maxInFlight && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(maxInFlight, pending.size());
+        // Les enchères invalides attendent : aucune réponse tant que les enchères soumises n'en ont pas
+        channel.configureBlocking(false);
+        assertEquals(0, channel.read(ByteBuffer.allocate(1)));
+        channel.configureBlocking(true);
+
+        BidList saved = new BidList("Account", "Type", 10d);
+        saved.setId(7);
+        pending.forEach(result -> result.complete(saved));
+
+        Map<Byte, Integer> responses = new HashMap<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < maxInFlight + invalidBids; i++) {
+                responses.merge(receive().get(), 1, Integer::sum);
+            }
+        });
+        assertEquals(Map.of(BidGatewayProtocol.ACK, maxInFlight, BidGatewayProtocol.NACK, invalidBids), responses);
+    }
+
+    private String token() {
+        return apiTokenService.issue(UsernamePasswordAuthenticationToken.authenticated("Joe", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")))).token();
+    }
+
+    private void send(Consumer<ByteBuffer> frame) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BidGatewayProtocol.MAX_FRAME_BYTES);
+        frame.accept(buffer);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * @return le corps de la trame reçue, positionné sur le type
+     */
+    private ByteBuffer receive() throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(length);
+        ByteBuffer frame = ByteBuffer.allocate(length.flip().getInt());
+        readFully(frame);
+        return frame.flip();
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Connection closed by gateway");
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.nnk.springboot.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour ApiTokenService.
+ * Vérifie l'émission des jetons et le refus des jetons falsifiés ou expirés.
+ */
+class ApiTokenServiceTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes();
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final ApiTokenService apiTokenService =
+            new ApiTokenService(SECRET, Duration.ofMinutes(60), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    /**
+     * Vérifie qu'un jeton émis est accepté avec le nom et les rôles de l'utilisateur.
+     */
+    @Test
+    void verify_issuedToken_returnsUserAndRoles() {
+        String token = apiTokenService.issue(authentication()).token();
+
+        Optional<ApiTokenService.ApiToken> verified = apiTokenService.verify(token);
+
+        assertTrue(verified.isPresent());
+        assertEquals("Joe", verified.get().username());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), verified.get().authorities());
+    }
+
+    /**
+     * Vérifie qu'un jeton modifié ou signé avec une autre clé est refusé.
+     */
+    @Test
+    void verify_tamperedToken_isRejected() {
+        String token = apiTokenService.issue(authentication()).token();
+        String otherPayload = new ApiTokenService(SECRET, Duration.ofDays(1), Clock.systemUTC())
+                .issue(authentication()).token().split("\\.")[0];
+        byte[] otherSecret = Arrays.copyOf(SECRET, SECRET.length);
+        otherSecret[0] = 'x';
+
+        assertTrue(apiTokenService.verify(otherPayload + token.substring(token.indexOf('.'))).isEmpty());
+        assertTrue(new ApiTokenService(otherSecret, Duration.ofMinutes(60), Clock.fixed(NOW, ZoneOffset.UTC))
+                .verify(token).isEmpty());
+        assertTrue(apiTokenService.verify("not-a-token").isEmpty());
+    }
+
+    /**
+     * Vérifie qu'un jeton expiré est refusé.
+     */
+    @Test
+    void verify_expiredToken_isRejected() {
+        String token = apiTokenService.issue(authentication()).token();
+        ApiTokenService later = new ApiTokenService(SECRET, Duration.ofMinutes(60),
+                Clock.fixed(NOW.plus(Duration.ofMinutes(61)), ZoneOffset.UTC));
+
+        assertTrue(later.verify(token).isEmpty());
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication() {
+        return UsernamePasswordAuthenticationToken.authenticated("Joe", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
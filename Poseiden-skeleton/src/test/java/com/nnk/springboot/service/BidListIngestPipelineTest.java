@@ -0,0 +1,167 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.repositories.BidListRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour BidListIngestPipeline.
+ * Vérifie le passage des enchères par les étapes de validation, d'enrichissement et d'écriture par lots,
+ * le réveil des étapes endormies et la réécriture une à une d'un lot refusé.
+ */
+@ExtendWith(MockitoExtension.class)
+class BidListIngestPipelineTest {
+
+    @Mock
+    private BidListRepository bidListRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BidListIngestPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new BidListIngestPipeline(bidListRepository, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), new SimpleMeterRegistry(), 4, 256);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    /**
+     * Vérifie que les enchères soumises avant le démarrage sont complétées puis écrites en un seul lot.
+     */
+    @Test
+    void tryPublish_validBids_areEnrichedAndSavedInOneBatch() throws Exception {
+        BidList first = new BidList("Account", "Type", 10d);
+        BidList second = new BidList("Account", "Type", 20d);
+        CompletableFuture<BidList> firstResult = pipeline.tryPublish(first, "trader");
+        CompletableFuture<BidList> secondResult = pipeline.tryPublish(second, "trader");
+
+        pipeline.start();
+
+        assertSame(first, firstResult.get(5, TimeUnit.SECONDS));
+        assertSame(second, secondResult.get(5, TimeUnit.SECONDS));
+        assertEquals("trader", first.getCreationName());
+        assertNotNull(first.getCreationDate());
+        verify(bidListRepository).saveAll(List.of(first, second));
+    }
+
+    /**
+     * Vérifie qu'une enchère invalide est rendue en erreur sans être écrite.
+     */
+    @Test
+    void tryPublish_invalidBid_failsWithConstraintViolation() {
+        CompletableFuture<BidList> result = pipeline.tryPublish(new BidList("", "Type", 10d), "trader");
+
+        pipeline.start();
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ConstraintViolationException.class, exception.getCause());
+        verify(bidListRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Vérifie qu'une enchère est refusée quand l'anneau est plein.
+     */
+    @Test
+    void tryPublish_ringFull_returnsNull() {
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(pipeline.tryPublish(new BidList("Account", "Type", 10d), "trader"));
+        }
+
+        assertNull(pipeline.tryPublish(new BidList("Account", "Type", 10d), "trader"));
+    }
+
+    /**
+     * Vérifie qu'une enchère soumise pendant que les étapes dorment, faute de travail, les réveille.
+     */
+    @Test
+    void tryPublish_idleStages_wakesThem() throws Exception {
+        pipeline.start();
+        // Laisse les étapes s'endormir
+        Thread.sleep(100);
+        BidList bid = new BidList("Account", "Type", 10d);
+
+        assertSame(bid, pipeline.tryPublish(bid, "trader").get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Vérifie qu'un lot refusé par la base est réécrit enchère par enchère : seule l'enchère refusée est rendue en erreur.
+     */
+    @Test
+    void tryPublish_batchRejected_savesBidsOneByOne() throws Exception {
+        BidList accepted = new BidList("Account", "Type", 10d);
+        BidList rejected = new BidList("Duplicate", "Type", 20d);
+        when(bidListRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<BidList> bids = invocation.getArgument(0);
+            if (bids.contains(rejected)) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return bids;
+        });
+        CompletableFuture<BidList> acceptedResult = pipeline.tryPublish(accepted, "trader");
+        CompletableFuture<BidList> rejectedResult = pipeline.tryPublish(rejected, "trader");
+
+        pipeline.start();
+
+        assertSame(accepted, acceptedResult.get(5, TimeUnit.SECONDS));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejectedResult.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, exception.getCause());
+    }
+
+    /**
+     * Vérifie que, la base indisponible, les enchères restantes du lot sont rendues en erreur sans nouvel essai.
+     */
+    @Test
+    void tryPublish_databaseUnavailable_failsRemainingBidsWithoutRetry() {
+        when(bidListRepository.saveAll(anyList())).thenThrow(new CannotCreateTransactionException("Database unavailable"));
+        CompletableFuture<BidList> firstResult = pipeline.tryPublish(new BidList("Account", "Type", 10d), "trader");
+        CompletableFuture<BidList> secondResult = pipeline.tryPublish(new BidList("Account", "Type", 20d), "trader");
+
+        pipeline.start();
+
+        assertThrows(ExecutionException.class, () -> firstResult.get(5, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> secondResult.get(5, TimeUnit.SECONDS));
+        // Le lot, puis la première enchère seule
+        verify(bidListRepository, times(2)).saveAll(anyList());
+    }
+
+    /**
+     * Vérifie que l'arrêt d'une chaîne jamais démarrée rend les enchères soumises en erreur sans attendre.
+     */
+    @Test
+    void stop_notStarted_failsSubmittedBidsImmediately() throws InterruptedException {
+        CompletableFuture<BidList> result = pipeline.tryPublish(new BidList("Account", "Type", 10d), "trader");
+        long start = System.nanoTime();
+
+        pipeline.stop();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(result.isCompletedExceptionally());
+    }
+}
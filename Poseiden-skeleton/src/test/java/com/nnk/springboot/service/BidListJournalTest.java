@@ -0,0 +1,199 @@
+package com.nnk.springboot.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour BidListJournal.
+ * Vérifie la relecture des enregistrements après réouverture, y compris après un ajout interrompu ou une libération,
+ * et la réutilisation des segments libérés.
+ */
+class BidListJournalTest {
+
+    private static final int CAPACITY = 4096;
+
+    /**
+     * En-tête du fichier, avant le premier segment
+     */
+    private static final int FILE_HEADER = 16;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Vérifie que les enregistrements ajoutés sont relus dans l'ordre à la réouverture.
+     */
+    @Test
+    void reopen_recoversAppendedEntries() throws IOException {
+        Path file = directory.resolve("bidlist.journal");
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY)) {
+            assertEquals(1, journal.append(bytes("first")));
+            assertEquals(2, journal.append(bytes("second")));
+        }
+
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY)) {
+            List<BidListJournal.Entry> entries = journal.takeRecovered();
+
+            assertEquals(List.of(1L, 2L), entries.stream().map(BidListJournal.Entry::sequence).toList());
+            assertEquals("second", new String(entries.get(1).payload(), StandardCharsets.UTF_8));
+            assertEquals(3, journal.append(bytes("third")));
+        }
+    }
+
+    /**
+     * Vérifie qu'un enregistrement corrompu, comme un ajout interrompu, termine la relecture.
+     */
+    @Test
+    void reopen_corruptedEntry_isIgnored() throws IOException {
+        Path file = directory.resolve("bidlist.journal");
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY)) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+        }
+        // Altère les données du second enregistrement
+        int secondPayload = FILE_HEADER + 16 + "first".length() + 16;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), secondPayload);
+        }
+
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY)) {
+            assertEquals(1, journal.takeRecovered().size());
+            assertEquals(2, journal.append(bytes("second")));
+        }
+    }
+
+    /**
+     * Vérifie qu'après la libération de tous les enregistrements, les séquences continuent et les anciens
+     * enregistrements ne sont pas relus.
+     */
+    @Test
+    void release_continuesSequencesAndForgetsOldEntries() throws IOException {
+        Path file = directory.resolve("bidlist.journal");
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY)) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+            journal.release(2);
+            assertEquals(3, journal.append(bytes("third")));
+        }
+
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY)) {
+            journal.startAfter(2);
+            List<BidListJournal.Entry> entries = journal.takeRecovered();
+
+            assertEquals(1, entries.size());
+            assertEquals(3, entries.get(0).sequence());
+            assertTrue(journal.takeRecovered().isEmpty());
+        }
+    }
+
+    /**
+     * Vérifie qu'un ajout est refusé quand le segment actif est plein et l'autre pas encore libéré,
+     * puis accepté dans l'autre segment une fois celui-ci libéré, sans attendre la libération du segment actif.
+     */
+    @Test
+    void append_journalFull_rotatesOnceSegmentReleased() throws IOException {
+        Path file = directory.resolve("small.journal");
+        // Deux segments de 56 octets : un enregistrement de 30 octets chacun
+        try (BidListJournal journal = new BidListJournal(file, 128)) {
+            assertEquals(1, journal.append(new byte[30]));
+            assertEquals(2, journal.append(new byte[30]));
+            assertEquals(-1, journal.append(new byte[30]));
+
+            journal.release(1);
+
+            assertEquals(3, journal.append(new byte[30]));
+            assertEquals(-1, journal.append(new byte[30]));
+        }
+
+        try (BidListJournal journal = new BidListJournal(file, 128)) {
+            assertEquals(List.of(2L, 3L), journal.takeRecovered().stream().map(BidListJournal.Entry::sequence).toList());
+            journal.release(2);
+            assertEquals(4, journal.append(new byte[30]));
+        }
+    }
+
+    /**
+     * Vérifie qu'un journal rouvert avec une capacité plus grande garde ses segments,
+     * et relit les enregistrements du second segment.
+     */
+    @Test
+    void reopen_largerCapacity_keepsSegmentsAndRecoversEntries() throws IOException {
+        Path file = directory.resolve("small.journal");
+        try (BidListJournal journal = new BidListJournal(file, 128)) {
+            journal.append(new byte[30]);
+            journal.append(new byte[30]);
+        }
+
+        try (BidListJournal journal = new BidListJournal(file, 1024)) {
+            assertEquals(128, journal.capacity());
+            assertEquals(List.of(1L, 2L), journal.takeRecovered().stream().map(BidListJournal.Entry::sequence).toList());
+            assertEquals(-1, journal.append(new byte[30]));
+        }
+    }
+
+    /**
+     * Vérifie que chaque journal a son propre identifiant, conservé à la réouverture.
+     */
+    @Test
+    void id_isKeptOnReopenAndDiffersBetweenJournals() throws IOException {
+        Path file = directory.resolve("bidlist.journal");
+        long id;
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY);
+             BidListJournal other = new BidListJournal(directory.resolve("other.journal"), CAPACITY)) {
+            id = journal.id();
+            assertNotEquals(id, other.id());
+        }
+
+        try (BidListJournal journal = new BidListJournal(file, CAPACITY)) {
+            assertEquals(id, journal.id());
+        }
+    }
+
+    /**
+     * Vérifie qu'un fichier qui n'est pas un journal est refusé plutôt que lu comme vide.
+     */
+    @Test
+    void open_unknownFormat_throwsIOException() throws IOException {
+        Path file = directory.resolve("other.journal");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("This file is not a bid journal")));
+        }
+
+        assertThrows(IOException.class, () -> new BidListJournal(file, CAPACITY));
+    }
+
+    /**
+     * Vérifie que la partie à forcer couvre tous les ajouts depuis la précédente, puis est remise à zéro.
+     */
+    @Test
+    void takeSync_coversAppendsSincePreviousSync() throws IOException {
+        try (BidListJournal journal = new BidListJournal(directory.resolve("bidlist.journal"), CAPACITY)) {
+            assertNull(journal.takeSync());
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+
+            BidListJournal.Sync sync = journal.takeSync();
+
+            assertEquals(FILE_HEADER, sync.from());
+            assertEquals(FILE_HEADER + 16 + "first".length() + 16 + "second".length() + 4, sync.to());
+            assertEquals(2, sync.sequence());
+            journal.force(sync);
+            assertNull(journal.takeSync());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -3,15 +3,29 @@ package com.nnk.springboot.service;
 import com.nnk.springboot.domain.BidList;
 import com.nnk.springboot.repositories.BidListRepository;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -27,10 +41,27 @@ class BidListServiceTest {
     @Mock
     private BidListRepository bidListRepository;
 
-    // Service à tester avec injection des mocks
-    @InjectMocks
+    // Écriture différée, injectée seulement par les tests qui l'activent
+    @Mock
+    private BidListWriteBehind bidListWriteBehind;
+
+    // Chaîne d'ingestion, injectée seulement par les tests qui l'activent
+    @Mock
+    private BidListIngestPipeline bidListIngestPipeline;
+
+    // Service à tester, sans écriture différée ni chaîne d'ingestion sauf dans les tests qui les activent
     private BidListService bidListService;
 
+    @BeforeEach
+    void setUp() {
+        bidListService = service(new StaticListableBeanFactory());
+    }
+
+    private BidListService service(StaticListableBeanFactory beans) {
+        return new BidListService(bidListRepository, Validation.buildDefaultValidatorFactory().getValidator(),
+                beans.getBeanProvider(BidListWriteBehind.class), beans.getBeanProvider(BidListIngestPipeline.class));
+    }
+
 
     /**
      * Teste la récupération de toutes les enchères.
@@ -60,6 +91,139 @@ class BidListServiceTest {
     }
 
 
+    /**
+     * Teste la sauvegarde d'une enchère en écriture différée.
+     * Vérifie que l'enchère est complétée, journalisée et acquittée sans écriture en base.
+     */
+    @Test
+    void save_writeBehind_journalsBidWithoutRepository() {
+        bidListService = service(new StaticListableBeanFactory(Map.of("bidListWriteBehind", bidListWriteBehind)));
+        BidList bid = new BidList("Account", "Type", 10d);
+        when(bidListWriteBehind.append(argThat(journaled -> journaled.getCreationDate() != null))).thenReturn(true);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("Trader", null));
+
+        try {
+            assertSame(bid, bidListService.save(bid));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertNull(bid.getId());
+        assertEquals("Trader", bid.getCreationName());
+        verifyNoInteractions(bidListRepository);
+    }
+
+
+    /**
+     * Teste la sauvegarde d'une enchère en écriture différée quand le journal est plein.
+     * Vérifie que l'enchère est alors enregistrée directement, complétée comme une enchère journalisée.
+     */
+    @Test
+    void save_writeBehindJournalFull_savesDirectly() {
+        bidListService = service(new StaticListableBeanFactory(Map.of("bidListWriteBehind", bidListWriteBehind)));
+        BidList bid = new BidList("Account", "Type", 10d);
+        when(bidListWriteBehind.append(bid)).thenReturn(false);
+        when(bidListRepository.save(bid)).thenReturn(bid);
+
+        bidListService.save(bid);
+
+        verify(bidListRepository).save(bid);
+        assertNotNull(bid.getCreationDate());
+    }
+
+
+    /**
+     * Teste la sauvegarde d'une enchère par la chaîne d'ingestion.
+     * Vérifie que l'enchère enregistrée par la chaîne est retournée sans appel direct au repository.
+     */
+    @Test
+    void save_pipeline_returnsBidSavedByPipeline() {
+        bidListService = service(new StaticListableBeanFactory(Map.of("bidListIngestPipeline", bidListIngestPipeline)));
+        BidList bid = new BidList("Account", "Type", 10d);
+        when(bidListIngestPipeline.tryPublish(bid, null)).thenReturn(CompletableFuture.completedFuture(bid));
+
+        assertSame(bid, bidListService.save(bid));
+
+        verifyNoInteractions(bidListRepository);
+    }
+
+
+    /**
+     * Teste la sauvegarde d'une enchère refusée par la chaîne d'ingestion.
+     * Vérifie que l'erreur de validation est levée telle quelle.
+     */
+    @Test
+    void save_pipelineInvalidBid_throwsConstraintViolationException() {
+        bidListService = service(new StaticListableBeanFactory(Map.of("bidListIngestPipeline", bidListIngestPipeline)));
+        BidList bid = new BidList("", "Type", 10d);
+        when(bidListIngestPipeline.tryPublish(bid, null))
+                .thenReturn(CompletableFuture.failedFuture(new ConstraintViolationException(Set.of())));
+
+        assertThrows(ConstraintViolationException.class, () -> bidListService.save(bid));
+    }
+
+
+    /**
+     * Teste la soumission d'une enchère quand la chaîne d'ingestion est pleine.
+     * Vérifie que l'enchère est refusée, sans être enregistrée directement.
+     */
+    @Test
+    void submit_pipelineFull_rejectsBid() {
+        bidListService = service(new StaticListableBeanFactory(Map.of("bidListIngestPipeline", bidListIngestPipeline)));
+        BidList bid = new BidList("Account", "Type", 10d);
+        when(bidListIngestPipeline.tryPublish(bid, "user")).thenReturn(null);
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> bidListService.submit(bid, "user").join());
+
+        assertInstanceOf(BidIngestRejectedException.class, exception.getCause());
+        verifyNoInteractions(bidListRepository);
+    }
+
+
+    /**
+     * Teste la sauvegarde d'une enchère quand la chaîne d'ingestion est pleine.
+     * Vérifie que le refus est levé tel quel, pour une réponse 503.
+     */
+    @Test
+    void save_pipelineFull_throwsBidIngestRejectedException() {
+        bidListService = service(new StaticListableBeanFactory(Map.of("bidListIngestPipeline", bidListIngestPipeline)));
+        BidList bid = new BidList("Account", "Type", 10d);
+        when(bidListIngestPipeline.tryPublish(bid, null)).thenReturn(null);
+
+        assertThrows(BidIngestRejectedException.class, () -> bidListService.save(bid));
+    }
+
+
+    /**
+     * Teste la soumission d'une enchère sans chaîne d'ingestion.
+     * Vérifie que l'enchère est complétée au nom de l'utilisateur avant d'être enregistrée.
+     */
+    @Test
+    void submit_noPipeline_enrichesAndSavesBid() {
+        BidList bid = new BidList("Account", "Type", 10d);
+        when(bidListRepository.save(bid)).thenReturn(bid);
+
+        assertSame(bid, bidListService.submit(bid, "user").join());
+
+        assertEquals("user", bid.getCreationName());
+        assertNotNull(bid.getCreationDate());
+    }
+
+
+    /**
+     * Teste la soumission d'une enchère invalide sans chaîne d'ingestion.
+     * Vérifie que l'enchère est rendue en erreur sans être enregistrée.
+     */
+    @Test
+    void submit_noPipelineInvalidBid_failsWithConstraintViolation() {
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> bidListService.submit(new BidList("", "Type", 10d), "user").join());
+
+        assertInstanceOf(ConstraintViolationException.class, exception.getCause());
+        verifyNoInteractions(bidListRepository);
+    }
+
+
     /**
      * Teste la récupération d'une enchère par son ID quand elle existe.
      * Vérifie que la méthode getById retourne l'enchère correctement.
@@ -0,0 +1,203 @@
+package com.nnk.springboot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.JournalCheckpoint;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.JournalCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour BidListWriteBehind.
+ * Vérifie l'écriture par lots avec le point de reprise propre au journal, le rejeu après redémarrage et la mise de côté
+ * des enchères refusées par la base.
+ */
+@ExtendWith(MockitoExtension.class)
+class BidListWriteBehindTest {
+
+    @Mock
+    private BidListRepository bidListRepository;
+
+    @Mock
+    private JournalCheckpointRepository journalCheckpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BidListWriteBehind writeBehind;
+
+    @AfterEach
+    void stop() throws IOException {
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    /**
+     * Démarre une écriture différée sans écriture périodique, les tests appelant flush eux-mêmes.
+     */
+    private BidListWriteBehind start(boolean force) throws IOException {
+        BidListWriteBehind started = new BidListWriteBehind(bidListRepository, journalCheckpointRepository,
+                transactionManager, new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                directory.resolve("bidlist.journal"), 1, force, 2, 3_600_000);
+        started.start();
+        return started;
+    }
+
+    /**
+     * Vérifie que les enchères en attente sont écrites par lots, chacun avec le point de reprise de sa dernière enchère.
+     */
+    @Test
+    void flush_writesBatchesWithCheckpoint() throws IOException {
+        writeBehind = start(false);
+        for (String account : List.of("first", "second", "third")) {
+            assertTrue(writeBehind.append(new BidList(account, "Type", 10d)));
+        }
+
+        assertEquals(3, writeBehind.flush());
+
+        verify(bidListRepository, times(2)).saveAll(any());
+        assertEquals(List.of(2L, 3L), checkpoints());
+        verify(journalCheckpointRepository, times(2)).save(argThat(checkpoint ->
+                checkpoint.getName().equals(writeBehind.checkpointName())));
+        assertTrue(writeBehind.checkpointName().startsWith(BidListWriteBehind.CHECKPOINT_PREFIX));
+        assertEquals(0, writeBehind.flush());
+    }
+
+    /**
+     * Vérifie qu'au redémarrage, seules les enchères postérieures au point de reprise sont rejouées.
+     */
+    @Test
+    void start_replaysBidsAfterCheckpoint() throws IOException {
+        BidListWriteBehind crashed = start(true);
+        for (String account : List.of("first", "second", "third")) {
+            crashed.append(new BidList(account, "Type", 10d));
+        }
+        // Base indisponible à l'arrêt : les enchères restent dans le journal
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Database unavailable"));
+        crashed.stop();
+        reset(transactionManager);
+        String checkpointName = crashed.checkpointName();
+        when(journalCheckpointRepository.findById(checkpointName))
+                .thenReturn(Optional.of(new JournalCheckpoint(checkpointName, 1L)));
+
+        writeBehind = start(true);
+
+        assertEquals(2, writeBehind.flush());
+        assertEquals(List.of(List.of("second", "third")), savedAccounts());
+        assertEquals(List.of(3L), checkpoints());
+    }
+
+    /**
+     * Vérifie qu'une enchère refusée par la base est mise de côté, les autres enchères de son lot écrites,
+     * et que le point de reprise passe au-delà.
+     */
+    @Test
+    void flush_rejectedBid_setsItAsideAndWritesOthers() throws IOException {
+        doThrow(new DataIntegrityViolationException("Data too long for column 'account'"))
+                .when(bidListRepository).saveAll(argThat((List<BidList> bids) ->
+                        bids.stream().anyMatch(bid -> "rejected".equals(bid.getAccount()))));
+        writeBehind = start(false);
+        writeBehind.append(new BidList("first", "Type", 10d));
+        writeBehind.append(new BidList("rejected", "Type", 10d));
+
+        assertEquals(1, writeBehind.flush());
+
+        assertEquals(List.of(1L, 2L), checkpoints());
+        assertTrue(Files.readString(directory.resolve("bidlist.journal.rejected")).contains("\"account\":\"rejected\""));
+        assertEquals(1.0, meterRegistry.get("poseidon.bidlist.writebehind.rejected").counter().count());
+        assertEquals(0, writeBehind.flush());
+    }
+
+    /**
+     * Vérifie que, la base indisponible, le lot reste en tête de file et est écrit à la tentative suivante.
+     */
+    @Test
+    void flush_databaseUnavailable_keepsBidsForRetry() throws IOException {
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Database unavailable"))
+                .thenReturn(null);
+        writeBehind = start(false);
+        writeBehind.append(new BidList("first", "Type", 10d));
+        writeBehind.append(new BidList("second", "Type", 10d));
+
+        assertThrows(CannotCreateTransactionException.class, writeBehind::flush);
+        assertEquals(2, writeBehind.flush());
+
+        assertEquals(List.of(2L), checkpoints());
+        assertFalse(Files.exists(directory.resolve("bidlist.journal.rejected")));
+    }
+
+    /**
+     * Vérifie que des ajouts concurrents forcés sur disque sont tous acquittés et écrits.
+     */
+    @Test
+    void append_concurrentForcedAppends_areAllAcknowledged() throws Exception {
+        writeBehind = start(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> appends = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                BidList bid = new BidList("Account" + i, "Type", 10d);
+                appends.add(executor.submit(() -> writeBehind.append(bid)));
+            }
+            for (Future<Boolean> append : appends) {
+                assertTrue(append.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(200, writeBehind.flush());
+    }
+
+    private List<Long> checkpoints() {
+        ArgumentCaptor<JournalCheckpoint> checkpoints = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(journalCheckpointRepository, atLeast(0)).save(checkpoints.capture());
+        return checkpoints.getAllValues().stream().map(JournalCheckpoint::getSequence).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> savedAccounts() {
+        ArgumentCaptor<Iterable<BidList>> batches = ArgumentCaptor.forClass(Iterable.class);
+        verify(bidListRepository, atLeast(0)).saveAll(batches.capture());
+        List<List<String>> accounts = new ArrayList<>();
+        for (Iterable<BidList> batch : batches.getAllValues()) {
+            List<String> batchAccounts = new ArrayList<>();
+            batch.forEach(bid -> batchAccounts.add(bid.getAccount()));
+            accounts.add(batchAccounts);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,95 @@
+package com.nnk.springboot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour BoundedPasswordEncoder.
+ * Vérifie la délégation du hachage, le refus des demandes au-delà de la capacité et les métriques.
+ */
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    /**
+     * Vérifie que le hachage et la vérification sont délégués et mesurés.
+     */
+    @Test
+    void encodeAndMatches_delegatesAndRecordsLatency() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 5000, meterRegistry);
+
+        String hash = encoder.encode("Abc123@!");
+
+        assertTrue(encoder.matches("Abc123@!", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("poseidon.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("poseidon.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    /**
+     * Vérifie qu'une demande est refusée immédiatement lorsque le pool et la file sont pleins.
+     */
+    @Test
+    void encode_queueFull_rejectsImmediately() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, 5000, meterRegistry);
+        CompletableFuture.runAsync(() -> encoder.encode("first"));
+        CompletableFuture.runAsync(() -> encoder.encode("second"));
+        while (meterRegistry.get("poseidon.password.queue.depth").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("third"));
+        assertEquals(1, meterRegistry.get("poseidon.password.rejected").counter().count());
+    }
+
+    /**
+     * Vérifie qu'une demande qui attend trop longtemps est refusée.
+     */
+    @Test
+    void encode_timeout_rejects() {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, 50, meterRegistry);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("slow"));
+    }
+
+    /**
+     * Encodeur qui bloque jusqu'à la fin du test.
+     */
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
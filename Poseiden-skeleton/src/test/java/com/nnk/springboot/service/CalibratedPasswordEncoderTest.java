@@ -0,0 +1,47 @@
+package com.nnk.springboot.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Classe de tests unitaires pour CalibratedPasswordEncoder.
+ * Vérifie la calibration du facteur de coût et la détection des hachages à mettre à niveau.
+ */
+class CalibratedPasswordEncoderTest {
+
+    /**
+     * Vérifie que la calibration reste dans les bornes demandées.
+     */
+    @Test
+    void calibrate_staysWithinBounds() {
+        assertEquals(4, CalibratedPasswordEncoder.calibrate(0, 4, 6));
+        assertEquals(6, CalibratedPasswordEncoder.calibrate(60_000, 4, 6));
+    }
+
+    /**
+     * Vérifie qu'un hachage d'un autre coût, plus faible ou plus élevé, doit être mis à niveau.
+     */
+    @Test
+    void upgradeEncoding_differentStrength_returnsTrue() {
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("Abc123@!")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Abc123@!")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("Abc123@!")));
+        assertFalse(encoder.upgradeEncoding("not a bcrypt hash"));
+    }
+
+    /**
+     * Vérifie qu'un hachage d'un autre coût reste vérifiable.
+     */
+    @Test
+    void matches_otherStrength_verifiesPassword() {
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder(5);
+
+        assertTrue(encoder.matches("Abc123@!", new BCryptPasswordEncoder(4).encode("Abc123@!")));
+        assertEquals(5, CalibratedPasswordEncoder.strengthOf(encoder.encode("Abc123@!")));
+    }
+}
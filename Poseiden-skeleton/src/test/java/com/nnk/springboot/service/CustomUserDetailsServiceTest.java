@@ -0,0 +1,112 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour CustomUserDetailsService.
+ * Vérifie le chargement des utilisateurs, leur mise en cache et l'invalidation du cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new CustomUserDetailsService(userRepository, 60, 100);
+    }
+
+    /**
+     * Vérifie qu'un utilisateur n'est lu qu'une fois en base pour plusieurs connexions.
+     */
+    @Test
+    void loadUserByUsername_cachedUser_queriesRepositoryOnce() {
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(new User("user", "hash", "User", "USER")));
+
+        UserDetails first = userDetailsService.loadUserByUsername("user");
+        UserDetails second = userDetailsService.loadUserByUsername("user");
+
+        assertEquals("hash", second.getPassword());
+        assertTrue(second.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_USER")));
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByUsername("user");
+    }
+
+    /**
+     * Vérifie qu'une modification de l'utilisateur invalide son entrée en cache.
+     */
+    @Test
+    void onUserChanged_evictsCachedUser() {
+        when(userRepository.findByUsername("user"))
+                .thenReturn(Optional.of(new User("user", "hash", "User", "USER")))
+                .thenReturn(Optional.of(new User("user", "newHash", "User", "ADMIN")));
+
+        userDetailsService.loadUserByUsername("user");
+        userDetailsService.onUserChanged(new UserChangedEvent("USER"));
+        UserDetails reloaded = userDetailsService.loadUserByUsername("user");
+
+        assertEquals("newHash", reloaded.getPassword());
+        verify(userRepository, times(2)).findByUsername("user");
+    }
+
+    /**
+     * Vérifie qu'un utilisateur inconnu lève une exception et n'est pas mis en cache.
+     */
+    @Test
+    void loadUserByUsername_unknownUser_throwsUsernameNotFoundException() {
+        when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("unknown"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("unknown"));
+        verify(userRepository, times(2)).findByUsername("unknown");
+    }
+
+    /**
+     * Vérifie qu'un mot de passe haché de nouveau est enregistré et que le cache est invalidé.
+     */
+    @Test
+    void updatePassword_savesNewHashAndEvictsCache() {
+        User user = new User("user", "oldHash", "User", "USER");
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        UserDetails loaded = userDetailsService.loadUserByUsername("user");
+
+        UserDetails updated = userDetailsService.updatePassword(loaded, "newHash");
+
+        assertEquals("newHash", updated.getPassword());
+        assertEquals("newHash", user.getPassword());
+        verify(userRepository).save(user);
+        userDetailsService.loadUserByUsername("user");
+        verify(userRepository, times(3)).findByUsername("user");
+    }
+
+    /**
+     * Vérifie qu'une durée nulle désactive le cache.
+     */
+    @Test
+    void loadUserByUsername_cacheDisabled_queriesRepositoryEachTime() {
+        userDetailsService = new CustomUserDetailsService(userRepository, 0, 100);
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(new User("user", "hash", "User", "USER")));
+
+        userDetailsService.loadUserByUsername("user");
+        userDetailsService.loadUserByUsername("user");
+
+        verify(userRepository, times(2)).findByUsername("user");
+    }
+}
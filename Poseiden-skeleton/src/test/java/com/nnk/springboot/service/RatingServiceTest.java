@@ -10,8 +10,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -37,15 +39,15 @@ class RatingServiceTest {
 
 
     /**
-     * Vérifie que la méthode getAll retourne tous les ratings existants.
+     * Vérifie que la méthode getAll retourne tous les ratings existants, triés par numéro d'ordre.
      */
     @Test
     void getAll_returnsAllRatings() {
-        when(ratingRepository.findAll()).thenReturn(Arrays.asList(mock(Rating.class), mock(Rating.class)));
+        when(ratingRepository.findAllByOrderByOrderNumberAsc()).thenReturn(Arrays.asList(mock(Rating.class), mock(Rating.class)));
 
         ratingService.getAll();
 
-        verify(ratingRepository).findAll();
+        verify(ratingRepository).findAllByOrderByOrderNumberAsc();
     }
 
     /**
@@ -126,4 +128,65 @@ class RatingServiceTest {
         assertThrows(EntityNotFoundException.class, () -> ratingService.delete(anyInt()));
         verify(ratingRepository).existsById(anyInt());
     }
+
+    /**
+     * Vérifie que reorder attribue les nouveaux numéros d'ordre et ne sauvegarde que les ratings modifiés.
+     */
+    @Test
+    void reorder_assignsNewOrderAndSavesOnlyChangedRatings() {
+        Rating first = rating(1, 1);
+        Rating second = rating(2, 2);
+        Rating third = rating(3, 3);
+        when(ratingRepository.findAllByOrderByOrderNumberAsc()).thenReturn(List.of(first, second, third));
+        when(ratingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Rating> updated = ratingService.reorder(List.of(3, 1));
+
+        assertEquals(3, updated.size());
+        assertEquals(1, third.getOrderNumber());
+        assertEquals(2, first.getOrderNumber());
+        assertEquals(3, second.getOrderNumber());
+        verify(ratingRepository).saveAll(List.of(third, first, second));
+    }
+
+    /**
+     * Vérifie que reorder ne sauvegarde rien quand l'ordre demandé est déjà l'ordre courant.
+     */
+    @Test
+    void reorder_unchangedOrder_savesNothing() {
+        Rating first = rating(1, 1);
+        Rating second = rating(2, 2);
+        when(ratingRepository.findAllByOrderByOrderNumberAsc()).thenReturn(List.of(first, second));
+        when(ratingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Rating> updated = ratingService.reorder(List.of(1, 2));
+
+        assertEquals(0, updated.size());
+    }
+
+    /**
+     * Vérifie que reorder lance une exception quand un identifiant n'existe pas.
+     */
+    @Test
+    void reorder_unknownId_throwsEntityNotFoundException() {
+        when(ratingRepository.findAllByOrderByOrderNumberAsc()).thenReturn(List.of(rating(1, 1)));
+
+        assertThrows(EntityNotFoundException.class, () -> ratingService.reorder(List.of(42)));
+        verify(ratingRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Vérifie que reorder refuse les identifiants dupliqués.
+     */
+    @Test
+    void reorder_duplicateIds_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> ratingService.reorder(List.of(1, 1)));
+        verify(ratingRepository, never()).findAllByOrderByOrderNumberAsc();
+    }
+
+    private static Rating rating(int id, int orderNumber) {
+        Rating rating = new Rating("Moodys", "SandP", "Fitch", orderNumber);
+        rating.setId(id);
+        return rating;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.nnk.springboot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour RuleEngineService.
+ * Vérifie la compilation des règles, leur évaluation et l'invalidation du cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class RuleEngineServiceTest {
+
+    @Mock
+    private RuleNameService ruleNameService;
+
+    private RuleEngineService ruleEngineService;
+
+    @BeforeEach
+    void setUp() {
+        ruleEngineService = new RuleEngineService(ruleNameService, new ObjectMapper());
+    }
+
+    /**
+     * Vérifie qu'une combinaison de conditions est correctement évaluée sur un trade.
+     */
+    @Test
+    void evaluate_combinedConditions_matchesTrade() {
+        when(ruleNameService.getById(1)).thenReturn(rule(1,
+                "{\"all\": [{\"field\": \"buyQuantity\", \"op\": \"gt\", \"value\": 100},"
+                        + " {\"field\": \"account\", \"op\": \"in\", \"value\": [\"A1\", \"A2\"]}]}"));
+
+        assertTrue(ruleEngineService.evaluate(1, new Trade("A1", "Type", 150.0)));
+        assertFalse(ruleEngineService.evaluate(1, new Trade("A1", "Type", 50.0)));
+        assertFalse(ruleEngineService.evaluate(1, new Trade("B1", "Type", 150.0)));
+    }
+
+    /**
+     * Vérifie qu'un champ absent ne satisfait aucune comparaison d'ordre.
+     */
+    @Test
+    void evaluate_nullField_doesNotMatchOrderedComparison() {
+        when(ruleNameService.getById(1)).thenReturn(rule(1, "{\"field\": \"buyQuantity\", \"op\": \"lt\", \"value\": 10}"));
+
+        assertFalse(ruleEngineService.evaluate(1, new Trade("A1", "Type")));
+    }
+
+    /**
+     * Vérifie que la règle n'est chargée et compilée qu'une seule fois.
+     */
+    @Test
+    void evaluate_compiledRuleIsCached() {
+        when(ruleNameService.getById(1)).thenReturn(rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Spot\"}"));
+
+        ruleEngineService.evaluate(1, new Trade("A1", "Spot"));
+        ruleEngineService.evaluate(1, new Trade("A1", "Forward"));
+
+        verify(ruleNameService, times(1)).getById(1);
+    }
+
+    /**
+     * Vérifie que la modification d'une règle invalide sa forme compilée.
+     */
+    @Test
+    void onRuleNameChanged_evictsCompiledRule() {
+        when(ruleNameService.getById(1))
+                .thenReturn(rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Spot\"}"))
+                .thenReturn(rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Forward\"}", 1));
+
+        assertTrue(ruleEngineService.evaluate(1, new Trade("A1", "Spot")));
+        ruleEngineService.onRuleNameChanged(new RuleNameChangedEvent(1, 1));
+
+        assertFalse(ruleEngineService.evaluate(1, new Trade("A1", "Spot")));
+        verify(ruleNameService, times(2)).getById(1);
+    }
+
+    /**
+     * Vérifie qu'une règle chargée avant sa modification ne remplace pas la version plus récente en cache.
+     */
+    @Test
+    void getCompiled_staleRuleName_keepsNewerVersion() {
+        RuleName newer = rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Forward\"}", 2);
+        RuleEngineService.CompiledRule compiled = ruleEngineService.getCompiled(newer);
+
+        RuleName stale = rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Spot\"}", 1);
+
+        assertSame(compiled, ruleEngineService.getCompiled(stale));
+        assertFalse(ruleEngineService.evaluate(stale, new Trade("A1", "Spot")));
+        verifyNoInteractions(ruleNameService);
+    }
+
+    /**
+     * Vérifie qu'une règle chargée avant sa modification est relue, sans être remise en cache après l'invalidation.
+     */
+    @Test
+    void getCompiled_staleRuleNameAfterChange_reloadsRule() {
+        RuleName stale = rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Spot\"}", 1);
+        when(ruleNameService.getById(1)).thenReturn(rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Forward\"}", 2));
+        ruleEngineService.onRuleNameChanged(new RuleNameChangedEvent(1, 2));
+
+        assertFalse(ruleEngineService.evaluate(stale, new Trade("A1", "Spot")));
+        assertEquals(2, ruleEngineService.getCompiled(1).version());
+        verify(ruleNameService, times(1)).getById(1);
+    }
+
+    /**
+     * Vérifie qu'une règle supprimée n'est plus évaluée, même chargée avant sa suppression.
+     */
+    @Test
+    void getCompiled_deletedRule_throwsEntityNotFoundException() {
+        RuleName ruleName = rule(1, "{\"field\": \"type\", \"op\": \"eq\", \"value\": \"Spot\"}");
+        ruleEngineService.getCompiled(ruleName);
+        when(ruleNameService.getById(1)).thenThrow(new EntityNotFoundException("Specified rule name not found"));
+
+        ruleEngineService.onRuleNameChanged(new RuleNameChangedEvent(1, Integer.MAX_VALUE));
+
+        assertThrows(EntityNotFoundException.class, () -> ruleEngineService.evaluate(ruleName, new Trade("A1", "Spot")));
+        assertThrows(EntityNotFoundException.class, () -> ruleEngineService.evaluate(1, new Trade("A1", "Spot")));
+    }
+
+    /**
+     * Vérifie qu'une règle sur un champ propre aux enchères ne s'applique pas aux trades.
+     */
+    @Test
+    void evaluate_bidListOnlyRule_rejectsTrade() {
+        when(ruleNameService.getById(1)).thenReturn(rule(1, "{\"field\": \"bidQuantity\", \"op\": \"gte\", \"value\": 10}"));
+
+        assertTrue(ruleEngineService.evaluate(1, new BidList("A1", "Type", 10.0)));
+        assertThrows(IllegalArgumentException.class, () -> ruleEngineService.evaluate(1, new Trade("A1", "Type")));
+    }
+
+    /**
+     * Vérifie qu'une définition invalide est rejetée.
+     */
+    @Test
+    void compile_invalidDefinition_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> ruleEngineService.compile(rule(1, "Json")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ruleEngineService.compile(rule(1, "{\"field\": \"unknown\", \"op\": \"eq\", \"value\": 1}")));
+    }
+
+    private static RuleName rule(int id, String json) {
+        return rule(id, json, 0);
+    }
+
+    private static RuleName rule(int id, String json, int version) {
+        RuleName ruleName = new RuleName("Name", "Description", json, "Template", "SqlStr", "SqlPart");
+        ruleName.setId(id);
+        ruleName.setVersion(version);
+        return ruleName;
+    }
+}
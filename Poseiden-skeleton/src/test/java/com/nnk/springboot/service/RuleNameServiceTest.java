@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.Optional;
@@ -26,6 +27,9 @@ class RuleNameServiceTest {
     @Mock
     private RuleNameRepository ruleNameRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RuleNameService ruleNameService;
 
@@ -97,12 +101,13 @@ class RuleNameServiceTest {
         newRuleName.setName("newName");
 
         when(ruleNameRepository.findById(1)).thenReturn(Optional.of(existingRuleName));
-        when(ruleNameRepository.save(existingRuleName)).thenReturn(existingRuleName);
+        when(ruleNameRepository.saveAndFlush(existingRuleName)).thenReturn(existingRuleName);
 
         ruleNameService.update(1, newRuleName);
 
         verify(ruleNameRepository).findById(1);
-        verify(ruleNameRepository).save(existingRuleName);
+        verify(ruleNameRepository).saveAndFlush(existingRuleName);
+        verify(eventPublisher).publishEvent(new RuleNameChangedEvent(1, 0));
     }
 
 
@@ -0,0 +1,261 @@
+package com.nnk.springboot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.RuleRunState;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.RuleRunStateRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour RuleSchedulerService.
+ * Vérifie l'avancement de la marque haute et l'évaluation des seuls trades nouveaux ou modifiés.
+ */
+@ExtendWith(MockitoExtension.class)
+class RuleSchedulerServiceTest {
+
+    @Mock
+    private RuleNameService ruleNameService;
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private RuleRunStateRepository ruleRunStateRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RuleSchedulerService ruleSchedulerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ruleSchedulerService = new RuleSchedulerService(ruleNameService,
+                new RuleEngineService(ruleNameService, new ObjectMapper()),
+                new RuleTemplateService(ruleNameService),
+                tradeRepository, ruleRunStateRepository, meterRegistry, true, 2, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ruleSchedulerService.shutdown();
+    }
+
+    /**
+     * Vérifie qu'une première exécution lit les trades par pages et avance la marque haute.
+     */
+    @Test
+    void run_firstRun_scansNewTradesAndAdvancesWatermark() {
+        RuleName ruleName = rule(1);
+        when(ruleRunStateRepository.findById(1)).thenReturn(Optional.empty());
+        when(tradeRepository.findRevisedSince(eq(0), any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(trade(1, 150.0), trade(2, 50.0)));
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(2), any(Pageable.class)))
+                .thenReturn(List.of(trade(3, 200.0)));
+        when(ruleRunStateRepository.save(any(RuleRunState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RuleRunState state = ruleSchedulerService.run(ruleName);
+
+        assertEquals(3, state.getLastTradeId());
+        assertEquals(3L, state.getLastRowsScanned());
+        assertEquals(2L, state.getLastMatches());
+        assertNotNull(state.getLastRunDate());
+        assertEquals(2.0, meterRegistry.get("poseidon.rules.matches").tag("rule", "1").counter().count());
+    }
+
+    /**
+     * Vérifie qu'une exécution suivante ne lit que les trades créés ou modifiés depuis la précédente.
+     */
+    @Test
+    void run_existingState_scansOnlyNewAndRevisedTrades() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 12, 0);
+        RuleRunState previous = new RuleRunState(1);
+        previous.setLastTradeId(10);
+        previous.setLastRevisionDate(since);
+        Trade revised = trade(4, 150.0);
+        revised.setRevisionDate(since.plusHours(1));
+
+        when(ruleRunStateRepository.findById(1)).thenReturn(Optional.of(previous));
+        when(tradeRepository.findRevisedSince(eq(10), eq(since.minusMinutes(1)), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(revised));
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(10), any(Pageable.class)))
+                .thenReturn(List.of(trade(11, 10.0)));
+        when(ruleRunStateRepository.save(any(RuleRunState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RuleRunState state = ruleSchedulerService.run(rule(1));
+
+        assertEquals(11, state.getLastTradeId());
+        assertEquals(since.plusHours(1), state.getLastRevisionDate());
+        assertEquals(2L, state.getLastRowsScanned());
+        assertEquals(1L, state.getLastMatches());
+        verify(tradeRepository, never()).findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class));
+    }
+
+    /**
+     * Vérifie que les trades révisés sont lus par pages successives, à partir du dernier trade de la page précédente.
+     */
+    @Test
+    void run_revisedTrades_areReadByKeysetPages() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 12, 0);
+        RuleRunState previous = new RuleRunState(1);
+        previous.setLastTradeId(10);
+        previous.setLastRevisionDate(since);
+        Trade first = revised(4, since.plusMinutes(1));
+        Trade second = revised(7, since.plusMinutes(2));
+        Trade third = revised(2, since.plusMinutes(3));
+
+        when(ruleRunStateRepository.findById(1)).thenReturn(Optional.of(previous));
+        when(tradeRepository.findRevisedSince(eq(10), eq(since.minusMinutes(1)), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(tradeRepository.findRevisedSince(eq(10), eq(since.plusMinutes(2)), eq(7), any(Pageable.class)))
+                .thenReturn(List.of(third));
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(10), any(Pageable.class))).thenReturn(List.of());
+        when(ruleRunStateRepository.save(any(RuleRunState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RuleRunState state = ruleSchedulerService.run(rule(1));
+
+        assertEquals(3L, state.getLastRowsScanned());
+        assertEquals(since.plusMinutes(3), state.getLastRevisionDate());
+    }
+
+    /**
+     * Vérifie qu'un trade validé après un trade plus récent est retrouvé par la fenêtre de recouvrement,
+     * sans réévaluer les révisions déjà évaluées.
+     */
+    @Test
+    void run_lateCommittedTrade_isFoundInOverlapWindowOnce() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Trade early = revised(1, now);
+        Trade later = revised(2, now.plusSeconds(5));
+        Trade lateCommitted = revised(3, now.plusSeconds(2));
+        RuleRunState state = new RuleRunState(1);
+
+        when(ruleRunStateRepository.findById(1)).thenAnswer(invocation -> Optional.of(state));
+        when(ruleRunStateRepository.save(any(RuleRunState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Première exécution : le trade 3 n'est pas encore validé, seuls les trades 1 et 2 sont lus
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(List.of(early, later));
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(2), any(Pageable.class))).thenReturn(List.of());
+        ruleSchedulerService.run(rule(1));
+        assertEquals(2, state.getLastTradeId());
+        assertEquals(now.plusSeconds(5), state.getLastRevisionDate());
+
+        // Seconde exécution : la fenêtre relit les trades 1 à 3 depuis la marque haute moins une minute
+        when(tradeRepository.findRevisedSince(eq(2), eq(now.plusSeconds(5).minusMinutes(1)), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(early, lateCommitted, later));
+        ruleSchedulerService.run(rule(1));
+
+        assertEquals(1L, state.getLastRowsScanned());
+        assertEquals(1L, state.getLastMatches());
+        assertEquals(now.plusSeconds(5), state.getLastRevisionDate());
+    }
+
+    /**
+     * Vérifie que les révisions d'une exécution dont l'état n'a pas été enregistré sont évaluées de nouveau.
+     */
+    @Test
+    void run_stateNotSaved_revisionsAreEvaluatedAgain() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 12, 0);
+        RuleRunState state = new RuleRunState(1);
+        state.setLastTradeId(10);
+        state.setLastRevisionDate(since);
+        Trade revised = revised(4, since.plusSeconds(5));
+
+        when(ruleRunStateRepository.findById(1)).thenAnswer(invocation -> Optional.of(state));
+        when(tradeRepository.findRevisedSince(eq(10), any(), eq(0), any(Pageable.class))).thenReturn(List.of(revised));
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(10), any(Pageable.class))).thenReturn(List.of());
+        when(ruleRunStateRepository.save(any(RuleRunState.class)))
+                .thenThrow(new IllegalStateException("Connection is read-only"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        assertThrows(IllegalStateException.class, () -> ruleSchedulerService.run(rule(1)));
+
+        RuleRunState saved = ruleSchedulerService.run(rule(1));
+
+        assertEquals(1L, saved.getLastRowsScanned());
+        assertEquals(1L, saved.getLastMatches());
+    }
+
+    /**
+     * Vérifie que l'état d'exécution des règles supprimées est effacé.
+     */
+    @Test
+    void runAll_deletesStateOfDeletedRules() {
+        when(ruleNameService.getAll()).thenReturn(List.of(rule(1)));
+        when(ruleRunStateRepository.findAll()).thenReturn(List.of(new RuleRunState(1), new RuleRunState(3)));
+        when(ruleRunStateRepository.findById(1)).thenReturn(Optional.empty());
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(List.of());
+        when(ruleRunStateRepository.save(any(RuleRunState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ruleSchedulerService.runAll();
+
+        verify(ruleRunStateRepository).deleteAllById(List.of(3));
+    }
+
+    /**
+     * Vérifie qu'une règle qui ne s'applique pas aux trades est ignorée sans lecture.
+     */
+    @Test
+    void run_invalidRule_isSkipped() {
+        RuleName ruleName = rule(2);
+        ruleName.setJson("{\"field\": \"unknown\", \"op\": \"eq\", \"value\": 1}");
+
+        assertNull(ruleSchedulerService.run(ruleName));
+        verifyNoInteractions(tradeRepository, ruleRunStateRepository);
+    }
+
+    /**
+     * Vérifie que toutes les règles sont exécutées par runAll.
+     */
+    @Test
+    void runAll_runsEveryRule() {
+        when(ruleNameService.getAll()).thenReturn(List.of(rule(1), rule(2)));
+        when(ruleRunStateRepository.findById(any())).thenReturn(Optional.empty());
+        when(tradeRepository.findRevisedSince(eq(0), any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(tradeRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(List.of());
+        when(ruleRunStateRepository.save(any(RuleRunState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<RuleRunState> states = ruleSchedulerService.runAll();
+
+        assertEquals(2, states.size());
+        verify(ruleRunStateRepository, times(2)).save(any(RuleRunState.class));
+    }
+
+    private static RuleName rule(int id) {
+        RuleName ruleName = new RuleName();
+        ruleName.setId(id);
+        ruleName.setName("Large trade");
+        ruleName.setJson("{\"field\": \"buyQuantity\", \"op\": \"gt\", \"value\": 100}");
+        ruleName.setTemplate("Trade {account} : {buyQuantity}");
+        return ruleName;
+    }
+
+    private static Trade revised(int id, LocalDateTime revisionDate) {
+        Trade trade = trade(id, 150.0);
+        trade.setRevisionDate(revisionDate);
+        return trade;
+    }
+
+    private static Trade trade(int id, double buyQuantity) {
+        Trade trade = new Trade("A1", "Type", buyQuantity);
+        trade.setId(id);
+        return trade;
+    }
+}
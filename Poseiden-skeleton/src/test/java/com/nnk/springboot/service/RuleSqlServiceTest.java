@@ -0,0 +1,141 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.RuleName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour RuleSqlService.
+ * Vérifie la validation des requêtes des règles, leur mise en cache et leur exécution.
+ */
+class RuleSqlServiceTest {
+
+    private Connection connection;
+
+    private DatabaseMetaData connectionMetaData;
+
+    private RuleSqlService ruleSqlService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        connectionMetaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(connectionMetaData);
+        when(connectionMetaData.getUserName()).thenReturn("poseidon_reporting@localhost");
+        ruleSqlService = new RuleSqlService(dataSource, 10, 100, 50, "root");
+    }
+
+    /**
+     * Vérifie que sqlStr et sqlPart sont assemblés en une requête unique.
+     */
+    @Test
+    void prepare_selectStatement_buildsFullSql() {
+        RuleSqlService.PreparedRuleSql prepared = ruleSqlService.prepare(
+                rule(1, "select id from trade", "where account = :account"));
+
+        assertEquals("select id from trade where account = :account", prepared.sql());
+    }
+
+    /**
+     * Vérifie que la requête validée est réutilisée tant que la version de la règle ne change pas.
+     */
+    @Test
+    void prepare_unchangedRule_returnsCachedSql() {
+        RuleSqlService.PreparedRuleSql first = ruleSqlService.prepare(rule(1, "select id from trade", ""));
+        RuleSqlService.PreparedRuleSql second = ruleSqlService.prepare(rule(1, "select id from trade", ""));
+        RuleName updated = rule(1, "select id from bidlist", "");
+        updated.setVersion(1);
+        RuleSqlService.PreparedRuleSql changed = ruleSqlService.prepare(updated);
+
+        assertSame(first, second);
+        assertNotSame(first, changed);
+        assertEquals("select id from bidlist", changed.sql());
+    }
+
+    /**
+     * Vérifie que seules les requêtes SELECT uniques sont acceptées.
+     */
+    @Test
+    void prepare_nonSelectStatement_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> ruleSqlService.prepare(rule(1, "delete from trade", "")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ruleSqlService.prepare(rule(2, "select id from trade", "; drop table trade")));
+    }
+
+    /**
+     * Vérifie que chaque ligne est transmise au consommateur, paramètres liés et non concaténés.
+     */
+    @Test
+    void stream_readOnlyConnection_passesEachRowToConsumer() throws SQLException {
+        when(connection.isReadOnly()).thenReturn(true);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("select id from trade where account = ?")).thenReturn(statement);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getObject(1)).thenReturn(1, 2);
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        long count = ruleSqlService.stream(rule(1, "select id from trade", "where account = :account"),
+                Map.of("account", "ACC-1"), rows::add);
+
+        assertEquals(2, count);
+        assertEquals(List.of(Map.of("id", 1), Map.of("id", 2)), rows);
+        verify(statement).setString(1, "ACC-1");
+        verify(statement).setMaxRows(100);
+        verify(statement).setQueryTimeout(10);
+    }
+
+    /**
+     * Vérifie qu'une requête n'est pas exécutée sur une connexion accessible en écriture.
+     */
+    @Test
+    void stream_writableConnection_throwsIllegalStateException() throws SQLException {
+        when(connection.isReadOnly()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class,
+                () -> ruleSqlService.stream(rule(1, "select id from trade", ""), Map.of(), row -> fail("No row expected")));
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    /**
+     * Vérifie qu'une requête n'est pas exécutée avec le compte de l'application, qui peut lire les utilisateurs.
+     */
+    @Test
+    void stream_applicationAccount_throwsIllegalStateException() throws SQLException {
+        when(connection.isReadOnly()).thenReturn(true);
+        when(connectionMetaData.getUserName()).thenReturn("root@localhost");
+
+        assertThrows(IllegalStateException.class,
+                () -> ruleSqlService.stream(rule(1, "select username, password from users", ""), Map.of(),
+                        row -> fail("No row expected")));
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    private static RuleName rule(int id, String sqlStr, String sqlPart) {
+        RuleName ruleName = new RuleName("Name", "Description", "{}", "Template", sqlStr, sqlPart);
+        ruleName.setId(id);
+        return ruleName;
+    }
+}
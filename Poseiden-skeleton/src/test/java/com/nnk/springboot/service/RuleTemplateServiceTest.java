@@ -0,0 +1,111 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour RuleTemplateService.
+ * Vérifie la compilation des templates, leur rendu et l'invalidation du cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class RuleTemplateServiceTest {
+
+    @Mock
+    private RuleNameService ruleNameService;
+
+    @InjectMocks
+    private RuleTemplateService ruleTemplateService;
+
+    /**
+     * Vérifie le rendu d'un template avec des champs texte et numériques.
+     */
+    @Test
+    void render_trade_replacesFields() {
+        Trade trade = new Trade("ACC-1", "Spot", 150.0);
+
+        String message = ruleTemplateService.render(rule(1, "Trade {account} {{type} bought {buyQuantity}"), trade);
+
+        assertEquals("Trade ACC-1 {type} bought 150.0", message);
+    }
+
+    /**
+     * Vérifie le rendu d'un template pour une enchère chargée par identifiant.
+     */
+    @Test
+    void render_bidList_replacesFields() {
+        BidList bidList = new BidList("ACC-2", "Type", 10.0);
+
+        assertEquals("Bid ACC-2 : 10.0", ruleTemplateService.render(rule(1, "Bid {account} : {bidQuantity}"), bidList));
+    }
+
+    /**
+     * Vérifie qu'un template est recompilé après invalidation.
+     */
+    @Test
+    void onRuleNameChanged_evictsCompiledTemplate() {
+        when(ruleNameService.getById(1)).thenReturn(rule(1, "New {account}", 1));
+        RuleTemplateService.CompiledTemplate<Trade> first = ruleTemplateService.forTrade(rule(1, "Old {account}"));
+
+        assertSame(first, ruleTemplateService.forTrade(rule(1, "Old {account}")));
+        ruleTemplateService.onRuleNameChanged(new RuleNameChangedEvent(1, 1));
+
+        assertNotSame(first, ruleTemplateService.forTrade(rule(1, "Old {account}")));
+        assertEquals("New ACC-1", ruleTemplateService.render(1, new Trade("ACC-1", "Spot")));
+        verify(ruleNameService, times(1)).getById(1);
+    }
+
+    /**
+     * Vérifie que le rendu par identifiant ne charge la règle qu'en l'absence de template en cache.
+     */
+    @Test
+    void render_byId_loadsRuleOnlyOnCacheMiss() {
+        when(ruleNameService.getById(1)).thenReturn(rule(1, "Trade {account}"));
+
+        assertEquals("Trade ACC-1", ruleTemplateService.render(1, new Trade("ACC-1", "Spot")));
+        assertEquals("Trade ACC-2", ruleTemplateService.render(1, new Trade("ACC-2", "Spot")));
+
+        verify(ruleNameService, times(1)).getById(1);
+    }
+
+    /**
+     * Vérifie qu'une règle chargée avant sa modification ne remplace pas la version plus récente en cache.
+     */
+    @Test
+    void forTrade_staleRuleName_keepsNewerVersion() {
+        RuleTemplateService.CompiledTemplate<Trade> newer = ruleTemplateService.forTrade(rule(1, "New {account}", 2));
+
+        assertSame(newer, ruleTemplateService.forTrade(rule(1, "Old {account}", 1)));
+        assertEquals("New ACC-1", ruleTemplateService.render(1, new Trade("ACC-1", "Spot")));
+        verifyNoInteractions(ruleNameService);
+    }
+
+    /**
+     * Vérifie qu'un champ inconnu est rejeté.
+     */
+    @Test
+    void forTrade_unknownField_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> ruleTemplateService.forTrade(rule(1, "Bid {bidQuantity}")));
+        assertThrows(IllegalArgumentException.class, () -> RuleTemplateService.compile("Trade {account", RuleFields.TRADE));
+    }
+
+    private static RuleName rule(int id, String template) {
+        return rule(id, template, 0);
+    }
+
+    private static RuleName rule(int id, String template, int version) {
+        RuleName ruleName = new RuleName("Name", "Description", "{}", template, "SqlStr", "SqlPart");
+        ruleName.setId(id);
+        ruleName.setVersion(version);
+        return ruleName;
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.Optional;
@@ -26,6 +27,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -99,6 +103,8 @@ class UserServiceTest {
 
         verify(userRepository).findById(1);
         verify(userRepository).save(existingUser);
+        verify(eventPublisher).publishEvent(new UserChangedEvent("oldUsername"));
+        verify(eventPublisher).publishEvent(new UserChangedEvent("newUsername"));
     }
 
 
@@ -114,6 +120,7 @@ class UserServiceTest {
 
         verify(userRepository).existsById(anyInt());
         verify(userRepository).deleteById(anyInt());
+        verify(eventPublisher).publishEvent(new UserChangedEvent(null));
     }
 
     /**
@@ -0,0 +1,99 @@
+package com.nnk.springboot.service;
+
+import com.nnk.springboot.domain.RuleName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Classe de tests unitaires pour VersionedRuleCache.
+ * Vérifie le remplacement des entrées par version et leur invalidation.
+ */
+@ExtendWith(MockitoExtension.class)
+class VersionedRuleCacheTest {
+
+    @Mock
+    private IntFunction<RuleName> loader;
+
+    private VersionedRuleCache<Compiled> cache;
+
+    private record Compiled(int version, String name) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new VersionedRuleCache<>(Compiled::version, loader);
+    }
+
+    /**
+     * Vérifie qu'une règle n'est chargée et compilée qu'une fois, puis lue dans le cache.
+     */
+    @Test
+    void get_byId_loadsAndCompilesOnce() {
+        when(loader.apply(1)).thenReturn(rule(1, "First", 0));
+
+        Compiled first = cache.get(1, VersionedRuleCacheTest::compile);
+
+        assertSame(first, cache.get(1, ruleName -> fail("Rule already compiled")));
+        verify(loader, times(1)).apply(1);
+    }
+
+    /**
+     * Vérifie que seule une version plus récente remplace l'entrée en cache.
+     */
+    @Test
+    void get_newerVersion_replacesEntry() {
+        Compiled first = cache.get(rule(1, "First", 1), VersionedRuleCacheTest::compile);
+
+        assertSame(first, cache.get(rule(1, "Stale", 0), VersionedRuleCacheTest::compile));
+        assertEquals("Second", cache.get(rule(1, "Second", 2), VersionedRuleCacheTest::compile).name());
+        verifyNoInteractions(loader);
+    }
+
+    /**
+     * Vérifie qu'une définition relue encore antérieure à la modification est compilée sans être mise en cache.
+     */
+    @Test
+    void get_reloadedVersionBelowMinimum_isNotCached() {
+        cache.get(rule(1, "First", 0), VersionedRuleCacheTest::compile);
+        when(loader.apply(1)).thenReturn(rule(1, "Replica", 0), rule(1, "Replica", 0), rule(1, "Replica", 0), rule(1, "Second", 1));
+
+        assertTrue(cache.invalidate(new RuleNameChangedEvent(1, 1)));
+
+        assertEquals("Replica", cache.get(1, VersionedRuleCacheTest::compile).name());
+        assertEquals("Second", cache.get(1, VersionedRuleCacheTest::compile).name());
+        assertEquals("Second", cache.get(1, VersionedRuleCacheTest::compile).name());
+        verify(loader, times(4)).apply(1);
+    }
+
+    /**
+     * Vérifie qu'une entrée déjà à la version minimale n'est pas évincée.
+     */
+    @Test
+    void invalidate_currentVersion_keepsEntry() {
+        Compiled compiled = cache.get(rule(1, "Second", 1), VersionedRuleCacheTest::compile);
+
+        assertFalse(cache.invalidate(new RuleNameChangedEvent(1, 1)));
+        assertSame(compiled, cache.get(1, VersionedRuleCacheTest::compile));
+    }
+
+    private static Compiled compile(RuleName ruleName) {
+        return new Compiled(ruleName.getVersion(), ruleName.getName());
+    }
+
+    private static RuleName rule(int id, String name, int version) {
+        RuleName ruleName = new RuleName();
+        ruleName.setId(id);
+        ruleName.setName(name);
+        ruleName.setVersion(version);
+        return ruleName;
+    }
+}